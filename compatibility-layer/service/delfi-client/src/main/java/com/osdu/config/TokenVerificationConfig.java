@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.osdu.config;
+
+import com.osdu.model.property.TokenVerificationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.opengroup.osdu.core.common.entitlements.LocalTokenVerifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Slf4j
+public class TokenVerificationConfig {
+
+  /**
+   * Verifier for bearer tokens against the configured JWKS, created only when local
+   * verification is enabled.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "osdu.auth.local-verification", name = "enabled",
+      havingValue = "true")
+  public LocalTokenVerifier localTokenVerifier(TokenVerificationProperties properties) {
+    if (StringUtils.isBlank(properties.getJwksUri())) {
+      log.warn("Local token verification is enabled without a JWKS uri, "
+          + "all tokens are validated remotely");
+    }
+    return new LocalTokenVerifier(properties.getJwksUri(), properties.getAudience(),
+        properties.getIssuer(), properties.getRefreshInterval().toMillis());
+  }
+
+}
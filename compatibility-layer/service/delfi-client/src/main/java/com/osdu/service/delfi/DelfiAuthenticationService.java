@@ -26,6 +26,8 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.opengroup.osdu.core.common.entitlements.LocalTokenVerifier;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -37,6 +39,8 @@ public class DelfiAuthenticationService implements AuthenticationService {
 
   final DelfiPortalProperties portalProperties;
 
+  final ObjectProvider<LocalTokenVerifier> tokenVerifier;
+
   @Override
   public UserGroups getUserGroups(String authorizationToken, String partition) {
     log.debug("Fetch user groups: {}, {}, {}", authorizationToken, portalProperties.getAppKey(),
@@ -61,6 +65,17 @@ public class DelfiAuthenticationService implements AuthenticationService {
 
     checkPreconditions(authorizationToken, partition);
 
+    LocalTokenVerifier verifier = tokenVerifier.getIfAvailable();
+    LocalTokenVerifier.Result verification = verifier == null
+        ? LocalTokenVerifier.Result.UNKNOWN_KEY : verifier.verify(authorizationToken);
+    if (verification == LocalTokenVerifier.Result.VALID) {
+      log.debug("Finished checking authentication. Token verified locally");
+      return;
+    }
+    if (verification == LocalTokenVerifier.Result.INVALID) {
+      throw new OsduUnauthorizedException("Invalid authorization token");
+    }
+
     UserGroups userGroups = getUserGroups(authorizationToken, partition);
 
     if (userGroups == null || userGroups.getGroups().isEmpty()) {
@@ -18,7 +18,10 @@ package com.osdu.service.delfi;
 
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.osdu.client.DelfiEntitlementsClient;
@@ -34,6 +37,8 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.entitlements.LocalTokenVerifier;
+import org.springframework.beans.factory.ObjectProvider;
 
 @RunWith(MockitoJUnitRunner.class)
 public class DelfiAuthenticationServiceTest {
@@ -46,6 +51,10 @@ public class DelfiAuthenticationServiceTest {
   private DelfiEntitlementsClient delfiEntitlementsClient;
   @Mock
   private DelfiPortalProperties delfiPortalProperties;
+  @Mock
+  private LocalTokenVerifier tokenVerifier;
+  @Mock
+  private ObjectProvider<LocalTokenVerifier> tokenVerifierProvider;
   @InjectMocks
   private DelfiAuthenticationService delfiAuthenticationService;
 
@@ -95,6 +104,57 @@ public class DelfiAuthenticationServiceTest {
     delfiAuthenticationService.checkAuthentication(AUTH, PARTITION);
   }
 
+  @Test
+  public void shouldCheckAuthenticationRemotelyIfTokenCannotBeVerifiedLocally() {
+
+    // given
+    UserGroups userGroups = new UserGroups();
+    userGroups.setGroups(Collections.singletonList(new Group()));
+
+    when(tokenVerifierProvider.getIfAvailable()).thenReturn(tokenVerifier);
+    when(tokenVerifier.verify(eq(AUTH))).thenReturn(LocalTokenVerifier.Result.UNKNOWN_KEY);
+    when(delfiPortalProperties.getAppKey()).thenReturn(APP_KEY);
+    when(delfiEntitlementsClient.getUserGroups(eq(AUTH), eq(APP_KEY), eq(PARTITION))).thenReturn(userGroups);
+
+    // when
+    delfiAuthenticationService.checkAuthentication(AUTH, PARTITION);
+
+    // then
+    verify(delfiEntitlementsClient).getUserGroups(eq(AUTH), eq(APP_KEY), eq(PARTITION));
+  }
+
+  @Test
+  public void shouldSkipUserGroupsIfTokenIsVerifiedLocally() {
+
+    // given
+    when(tokenVerifierProvider.getIfAvailable()).thenReturn(tokenVerifier);
+    when(tokenVerifier.verify(eq(AUTH))).thenReturn(LocalTokenVerifier.Result.VALID);
+
+    // when
+    delfiAuthenticationService.checkAuthentication(AUTH, PARTITION);
+
+    // then
+    verify(delfiEntitlementsClient, never()).getUserGroups(any(), any(), any());
+  }
+
+  @Test
+  public void shouldFailCheckAuthenticationIfTokenIsInvalid() {
+
+    // given
+    when(tokenVerifierProvider.getIfAvailable()).thenReturn(tokenVerifier);
+    when(tokenVerifier.verify(eq(AUTH))).thenReturn(LocalTokenVerifier.Result.INVALID);
+
+    // when
+    Throwable thrown = catchThrowable(
+        () -> delfiAuthenticationService.checkAuthentication(AUTH, PARTITION));
+
+    // then
+    Assertions.assertThat(thrown)
+        .isInstanceOf(OsduUnauthorizedException.class)
+        .hasMessageContaining("Invalid authorization token");
+    verify(delfiEntitlementsClient, never()).getUserGroups(any(), any(), any());
+  }
+
   @Test
   public void shouldFailCheckAuthenticationIfThereIsNoUserGroups() {
 
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression applied by {@link CacheValueCodec} to values above its threshold. DEFLATE runs at the fastest level
+ * without the gzip header and trailer, GZIP matches what {@link RedisCache} has always written.
+ */
+public enum CacheCompression {
+
+    NONE(0),
+    DEFLATE(1),
+    GZIP(2);
+
+    private final int id;
+
+    CacheCompression(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    static CacheCompression fromId(int id) {
+        for (CacheCompression compression : values()) {
+            if (compression.id == id) {
+                return compression;
+            }
+        }
+        return null;
+    }
+
+    void compress(byte[] bytes, ByteArrayOutputStream output) {
+        try {
+            switch (this) {
+                case DEFLATE:
+                    Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+                    try (DeflaterOutputStream stream = new DeflaterOutputStream(output, deflater)) {
+                        stream.write(bytes);
+                    } finally {
+                        deflater.end();
+                    }
+                    break;
+                case GZIP:
+                    try (GZIPOutputStream stream = new GZIPOutputStream(output)) {
+                        stream.write(bytes);
+                    }
+                    break;
+                default:
+                    output.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    byte[] decompress(byte[] bytes, int offset, int length) throws IOException {
+        switch (this) {
+            case DEFLATE:
+                Inflater inflater = new Inflater(true);
+                try {
+                    return readAll(new InflaterInputStream(new ByteArrayInputStream(bytes, offset, length), inflater));
+                } finally {
+                    inflater.end();
+                }
+            case GZIP:
+                return readAll(new GZIPInputStream(new ByteArrayInputStream(bytes, offset, length)));
+            default:
+                byte[] output = new byte[length];
+                System.arraycopy(bytes, offset, output, 0, length);
+                return output;
+        }
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        try (InputStream input = stream) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        }
+    }
+}
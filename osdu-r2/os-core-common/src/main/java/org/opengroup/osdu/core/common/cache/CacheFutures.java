@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+final class CacheFutures {
+
+    private CacheFutures() {
+    }
+
+    /**
+     * Runs the operation on the calling thread and returns its outcome as a completed future.
+     */
+    static <T> CompletableFuture<T> run(Supplier<T> operation) {
+        CompletableFuture<T> output = new CompletableFuture<>();
+        try {
+            output.complete(operation.get());
+        } catch (RuntimeException e) {
+            output.completeExceptionally(e);
+        }
+        return output;
+    }
+}
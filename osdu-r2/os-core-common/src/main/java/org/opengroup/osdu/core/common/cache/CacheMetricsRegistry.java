@@ -0,0 +1,161 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link ICacheMetrics}, holding counters and power-of-two histograms per cache name, for services without
+ * a metrics library or to expose through an endpoint.
+ */
+public class CacheMetricsRegistry implements ICacheMetrics {
+
+    private final Map<String, CacheMetrics> caches = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordHits(String cacheName, long count) {
+        this.getMetrics(cacheName).hits.add(count);
+    }
+
+    @Override
+    public void recordMisses(String cacheName, long count) {
+        this.getMetrics(cacheName).misses.add(count);
+    }
+
+    @Override
+    public void recordEvictions(String cacheName, long count) {
+        this.getMetrics(cacheName).evictions.add(count);
+    }
+
+    @Override
+    public void recordLatency(String cacheName, String operation, long nanos) {
+        this.getMetrics(cacheName).latencies.computeIfAbsent(operation, k -> new Histogram()).record(nanos);
+    }
+
+    @Override
+    public void recordValueSize(String cacheName, long bytes) {
+        this.getMetrics(cacheName).valueSizes.record(bytes);
+    }
+
+    public Set<String> getCacheNames() {
+        return Collections.unmodifiableSet(this.caches.keySet());
+    }
+
+    public CacheMetrics getMetrics(String cacheName) {
+        return this.caches.computeIfAbsent(cacheName, k -> new CacheMetrics());
+    }
+
+    public static final class CacheMetrics {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+        private final Histogram valueSizes = new Histogram();
+
+        public long getHitCount() {
+            return this.hits.sum();
+        }
+
+        public long getMissCount() {
+            return this.misses.sum();
+        }
+
+        public long getEvictionCount() {
+            return this.evictions.sum();
+        }
+
+        public double getHitRate() {
+            long hitCount = this.getHitCount();
+            long requestCount = hitCount + this.getMissCount();
+            return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+        }
+
+        /**
+         * Latencies in nanoseconds by operation.
+         */
+        public Map<String, Histogram> getLatencies() {
+            return Collections.unmodifiableMap(this.latencies);
+        }
+
+        /**
+         * Encoded value sizes in bytes.
+         */
+        public Histogram getValueSizes() {
+            return this.valueSizes;
+        }
+    }
+
+    /**
+     * Counts values in buckets bounded by powers of two, bucket i holding the values below 2^i. Percentiles are
+     * therefore within a factor of two of the exact value.
+     */
+    public static final class Histogram {
+        private static final int BUCKETS = 64;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+
+        void record(long value) {
+            long v = Math.max(0, value);
+            this.counts.incrementAndGet(Math.min(BUCKETS - 1, BUCKETS - Long.numberOfLeadingZeros(v)));
+            this.count.increment();
+            this.sum.add(v);
+        }
+
+        public long getCount() {
+            return this.count.sum();
+        }
+
+        public long getSum() {
+            return this.sum.sum();
+        }
+
+        public double getMean() {
+            long n = this.getCount();
+            return n == 0 ? 0 : (double) this.getSum() / n;
+        }
+
+        /**
+         * Upper bound of the bucket holding the given percentile, between 0 and 1.
+         */
+        public long getPercentile(double percentile) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += this.counts.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += this.counts.get(i);
+                if (seen >= rank && seen > 0) {
+                    return i >= BUCKETS - 1 ? Long.MAX_VALUE : 1L << i;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+}
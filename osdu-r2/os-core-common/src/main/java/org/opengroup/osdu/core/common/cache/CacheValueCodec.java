@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import com.lambdaworks.redis.codec.RedisCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Redis codec writing values as a header byte followed by the serialized and, above the threshold, compressed
+ * payload. The high nibble of the header is the serializer id and the low nibble the {@link CacheCompression} id,
+ * so readers follow the header rather than their own configuration. Values without a header are the gzipped JSON
+ * written by the legacy codec, recognised by the gzip magic number, which no valid header can start with.
+ *
+ * Keys are encoded exactly as before so existing entries stay reachable.
+ */
+public class CacheValueCodec<K, V> implements RedisCodec<K, V> {
+
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+    private static final int GZIP_MAGIC_FIRST = 0x1f;
+    private static final int GZIP_MAGIC_SECOND = 0x8b;
+
+    private final JsonCodec<K, V> keyCodec;
+    private final Class<V> classOfV;
+    private final ICacheSerializer serializer;
+    private final CacheCompression compression;
+    private final int compressionThreshold;
+    private final ICacheSerializer[] readers = new ICacheSerializer[16];
+
+    public CacheValueCodec(Class<K> classOfK, Class<V> classOfV, ICacheSerializer serializer,
+                           CacheCompression compression, int compressionThreshold) {
+        if (serializer.getId() < 0 || serializer.getId() > 15)
+            throw new IllegalArgumentException("serializer id must be between 0 and 15");
+        this.keyCodec = new JsonCodec<>(classOfK, classOfV);
+        this.classOfV = classOfV;
+        this.serializer = serializer;
+        this.compression = compression;
+        this.compressionThreshold = compressionThreshold;
+        this.readers[GsonCacheSerializer.ID] = new GsonCacheSerializer();
+        this.readers[SmileCacheSerializer.ID] = new SmileCacheSerializer();
+        this.readers[serializer.getId()] = serializer;
+    }
+
+    /**
+     * Smile values, deflated from {@link #DEFAULT_COMPRESSION_THRESHOLD} bytes on.
+     */
+    public CacheValueCodec(Class<K> classOfK, Class<V> classOfV) {
+        this(classOfK, classOfV, new SmileCacheSerializer(), CacheCompression.DEFLATE, DEFAULT_COMPRESSION_THRESHOLD);
+    }
+
+    @Override
+    public K decodeKey(ByteBuffer bytes) {
+        return keyCodec.decodeKey(bytes);
+    }
+
+    @Override
+    public ByteBuffer encodeKey(K k) {
+        return keyCodec.encodeKey(k);
+    }
+
+    @Override
+    public ByteBuffer encodeValue(V v) {
+        if (v == null)
+            return ByteBuffer.wrap(new byte[0]);
+        byte[] payload = serializer.serialize(v);
+        CacheCompression applied = payload.length >= compressionThreshold ? compression : CacheCompression.NONE;
+        ByteArrayOutputStream output = new ByteArrayOutputStream(applied == CacheCompression.NONE
+                ? payload.length + 1 : payload.length / 2 + 16);
+        output.write(serializer.getId() << 4 | applied.getId());
+        applied.compress(payload, output);
+        return ByteBuffer.wrap(output.toByteArray());
+    }
+
+    @Override
+    public V decodeValue(ByteBuffer bytes) {
+        int length = bytes.remaining();
+        if (length == 0)
+            return null;
+        byte[] array;
+        int offset;
+        if (bytes.hasArray()) {
+            array = bytes.array();
+            offset = bytes.arrayOffset() + bytes.position();
+            bytes.position(bytes.limit());
+        } else {
+            array = new byte[length];
+            bytes.get(array);
+            offset = 0;
+        }
+        try {
+            int header = array[offset] & 0xff;
+            if (length > 1 && header == GZIP_MAGIC_FIRST && (array[offset + 1] & 0xff) == GZIP_MAGIC_SECOND) {
+                byte[] json = CacheCompression.GZIP.decompress(array, offset, length);
+                return readers[GsonCacheSerializer.ID].deserialize(json, 0, json.length, classOfV);
+            }
+            ICacheSerializer reader = readers[header >>> 4];
+            CacheCompression applied = CacheCompression.fromId(header & 0x0f);
+            if (reader == null || applied == null) {
+                System.err.println(String.format("Unexpected header decoding from redis cache: %d", header));
+                return null;
+            }
+            if (applied == CacheCompression.NONE)
+                return reader.deserialize(array, offset + 1, length - 1, classOfV);
+            byte[] payload = applied.decompress(array, offset + 1, length - 1);
+            return reader.deserialize(payload, 0, payload.length, classOfV);
+        } catch (IOException | RuntimeException e) {
+            System.err.println(String.format("Unexpected error decoding from redis cache: %s", e.getMessage()));
+            return null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import com.google.gson.Gson;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 JSON, the format {@link JsonCodec} has always written.
+ */
+public class GsonCacheSerializer implements ICacheSerializer {
+
+    public static final int ID = 0;
+
+    private final Gson gson = new Gson();
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        return gson.toJson(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes, int offset, int length, Class<T> classOfT) {
+        return gson.fromJson(new String(bytes, offset, length, StandardCharsets.UTF_8), classOfT);
+    }
+}
@@ -17,6 +17,15 @@
 
 package org.opengroup.osdu.core.common.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The bulk and async operations default to the single key ones, run on the calling thread; remote caches override
+ * them to save round trips.
+ */
 public interface ICache<K, O> {
 
     void put(K k, O o);
@@ -26,4 +35,62 @@ public interface ICache<K, O> {
     void delete(K k);
 
     void clearAll();
+
+    /**
+     * Returns the cached values of the given keys, missing keys are left out of the result.
+     */
+    default Map<K, O> getAll(Collection<K> keys) {
+        Map<K, O> output = new LinkedHashMap<>();
+        for (K k : keys) {
+            O o = this.get(k);
+            if (o != null) {
+                output.put(k, o);
+            }
+        }
+        return output;
+    }
+
+    default void putAll(Map<K, O> entries) {
+        entries.forEach(this::put);
+    }
+
+    default void deleteAll(Collection<K> keys) {
+        keys.forEach(this::delete);
+    }
+
+    default CompletableFuture<O> getAsync(K k) {
+        return CacheFutures.run(() -> this.get(k));
+    }
+
+    default CompletableFuture<Void> putAsync(K k, O o) {
+        return CacheFutures.run(() -> {
+            this.put(k, o);
+            return null;
+        });
+    }
+
+    default CompletableFuture<Void> deleteAsync(K k) {
+        return CacheFutures.run(() -> {
+            this.delete(k);
+            return null;
+        });
+    }
+
+    default CompletableFuture<Map<K, O>> getAllAsync(Collection<K> keys) {
+        return CacheFutures.run(() -> this.getAll(keys));
+    }
+
+    default CompletableFuture<Void> putAllAsync(Map<K, O> entries) {
+        return CacheFutures.run(() -> {
+            this.putAll(entries);
+            return null;
+        });
+    }
+
+    default CompletableFuture<Void> deleteAllAsync(Collection<K> keys) {
+        return CacheFutures.run(() -> {
+            this.deleteAll(keys);
+            return null;
+        });
+    }
 }
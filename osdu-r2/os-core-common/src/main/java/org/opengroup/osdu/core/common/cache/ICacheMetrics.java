@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+/**
+ * Receives the measurements of the caches, keyed by cache name. Implement it to forward them to a metrics registry;
+ * {@link CacheMetricsRegistry} keeps them in memory. Every method defaults to doing nothing.
+ */
+public interface ICacheMetrics {
+
+    ICacheMetrics NOOP = new ICacheMetrics() {
+    };
+
+    default void recordHits(String cacheName, long count) {
+    }
+
+    default void recordMisses(String cacheName, long count) {
+    }
+
+    default void recordEvictions(String cacheName, long count) {
+    }
+
+    /**
+     * @param operation the {@link ICache} method, such as "get" or "putAll", async variants report as their
+     *                  synchronous counterpart
+     */
+    default void recordLatency(String cacheName, String operation, long nanos) {
+    }
+
+    /**
+     * Size of a value as encoded for a remote cache.
+     */
+    default void recordValueSize(String cacheName, long bytes) {
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+/**
+ * Value format used by {@link CacheValueCodec}. The id is written to the header byte of every stored value so that
+ * entries written in one format can still be read after the configured format changes.
+ */
+public interface ICacheSerializer {
+
+    /**
+     * Identifies the format in the stored header, between 0 and 15.
+     */
+    int getId();
+
+    byte[] serialize(Object value);
+
+    <T> T deserialize(byte[] bytes, int offset, int length, Class<T> classOfT);
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+/**
+ * Implemented by the caches that can evict a key namespace without flushing every entry, such as the partition of a
+ * single tenant in a shared cache. Only string keys are matched against the prefix.
+ */
+public interface IPrefixClearableCache {
+
+    void clearPrefix(String prefix);
+
+    /**
+     * Clears the prefix when the cache supports it and falls back to clearing the whole cache otherwise.
+     */
+    static void clearPrefix(ICache<?, ?> cache, String prefix) {
+        if (cache instanceof IPrefixClearableCache) {
+            ((IPrefixClearableCache) cache).clearPrefix(prefix);
+        } else {
+            cache.clearAll();
+        }
+    }
+}
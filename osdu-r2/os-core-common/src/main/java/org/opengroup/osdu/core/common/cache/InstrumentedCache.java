@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Reports hits, misses and the latency of every operation of the wrapped cache under a cache name. Wrapping a
+ * {@link RedisCache} measures its round trips; for its encoded value sizes give it an {@link InstrumentedCodec}.
+ */
+public class InstrumentedCache<K, V> implements ICache<K, V>, IPrefixClearableCache, AutoCloseable {
+
+    private final ICache<K, V> wrapped;
+    private final String name;
+    private final ICacheMetrics metrics;
+
+    public InstrumentedCache(ICache<K, V> wrapped, String name, ICacheMetrics metrics) {
+        this.wrapped = wrapped;
+        this.name = name;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void put(K k, V v) {
+        this.time("put", () -> {
+            this.wrapped.put(k, v);
+            return null;
+        });
+    }
+
+    @Override
+    public V get(K k) {
+        V value = this.time("get", () -> this.wrapped.get(k));
+        this.recordLookup(1, value == null ? 0 : 1);
+        return value;
+    }
+
+    @Override
+    public void delete(K k) {
+        this.time("delete", () -> {
+            this.wrapped.delete(k);
+            return null;
+        });
+    }
+
+    @Override
+    public void clearAll() {
+        this.time("clearAll", () -> {
+            this.wrapped.clearAll();
+            return null;
+        });
+    }
+
+    @Override
+    public void clearPrefix(String prefix) {
+        this.time("clearPrefix", () -> {
+            IPrefixClearableCache.clearPrefix(this.wrapped, prefix);
+            return null;
+        });
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<K> keys) {
+        Map<K, V> values = this.time("getAll", () -> this.wrapped.getAll(keys));
+        this.recordLookup(keys.size(), values.size());
+        return values;
+    }
+
+    @Override
+    public void putAll(Map<K, V> entries) {
+        this.time("putAll", () -> {
+            this.wrapped.putAll(entries);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAll(Collection<K> keys) {
+        this.time("deleteAll", () -> {
+            this.wrapped.deleteAll(keys);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<V> getAsync(K k) {
+        return this.timeAsync("get", () -> this.wrapped.getAsync(k)).thenApply(value -> {
+            this.recordLookup(1, value == null ? 0 : 1);
+            return value;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(K k, V v) {
+        return this.timeAsync("put", () -> this.wrapped.putAsync(k, v));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(K k) {
+        return this.timeAsync("delete", () -> this.wrapped.deleteAsync(k));
+    }
+
+    @Override
+    public CompletableFuture<Map<K, V>> getAllAsync(Collection<K> keys) {
+        return this.timeAsync("getAll", () -> this.wrapped.getAllAsync(keys)).thenApply(values -> {
+            this.recordLookup(keys.size(), values.size());
+            return values;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> putAllAsync(Map<K, V> entries) {
+        return this.timeAsync("putAll", () -> this.wrapped.putAllAsync(entries));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAllAsync(Collection<K> keys) {
+        return this.timeAsync("deleteAll", () -> this.wrapped.deleteAllAsync(keys));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (this.wrapped instanceof AutoCloseable) {
+            ((AutoCloseable) this.wrapped).close();
+        }
+    }
+
+    private void recordLookup(int requested, int found) {
+        if (found > 0) {
+            this.metrics.recordHits(this.name, found);
+        }
+        if (requested > found) {
+            this.metrics.recordMisses(this.name, requested - found);
+        }
+    }
+
+    private <T> T time(String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            this.metrics.recordLatency(this.name, operation, System.nanoTime() - start);
+        }
+    }
+
+    private <T> CompletableFuture<T> timeAsync(String operation, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        return call.get().whenComplete((value, e) ->
+                this.metrics.recordLatency(this.name, operation, System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import com.lambdaworks.redis.codec.RedisCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reports the encoded size of every value written to or read from Redis, compression included when the wrapped
+ * codec compresses.
+ */
+public class InstrumentedCodec<K, V> implements RedisCodec<K, V> {
+
+    private final RedisCodec<K, V> wrapped;
+    private final String name;
+    private final ICacheMetrics metrics;
+
+    public InstrumentedCodec(RedisCodec<K, V> wrapped, String name, ICacheMetrics metrics) {
+        this.wrapped = wrapped;
+        this.name = name;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public K decodeKey(ByteBuffer bytes) {
+        return this.wrapped.decodeKey(bytes);
+    }
+
+    @Override
+    public V decodeValue(ByteBuffer bytes) {
+        this.metrics.recordValueSize(this.name, bytes.remaining());
+        return this.wrapped.decodeValue(bytes);
+    }
+
+    @Override
+    public ByteBuffer encodeKey(K k) {
+        return this.wrapped.encodeKey(k);
+    }
+
+    @Override
+    public ByteBuffer encodeValue(V v) {
+        ByteBuffer bytes = this.wrapped.encodeValue(v);
+        this.metrics.recordValueSize(this.name, bytes.remaining());
+        return bytes;
+    }
+}
@@ -20,10 +20,8 @@ package org.opengroup.osdu.core.common.cache;
 import com.google.gson.Gson;
 import com.lambdaworks.redis.codec.RedisCodec;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 class JsonCodec<K, V> implements RedisCodec<K, V> {
 
@@ -48,22 +46,15 @@ class JsonCodec<K, V> implements RedisCodec<K, V> {
 
     @Override
     public ByteBuffer encodeKey(K k) {
-        return k == null ? ByteBuffer.wrap(new byte[0]) : ByteBuffer.wrap(gson.toJson(k).getBytes());
+        return k == null ? ByteBuffer.wrap(new byte[0]) : ByteBuffer.wrap(gson.toJson(k).getBytes(StandardCharsets.UTF_8));
     }
 
     @Override
     public ByteBuffer encodeValue(V v) {
-        return v == null ? ByteBuffer.wrap(new byte[0]) : ByteBuffer.wrap(gson.toJson(v).getBytes());
+        return v == null ? ByteBuffer.wrap(new byte[0]) : ByteBuffer.wrap(gson.toJson(v).getBytes(StandardCharsets.UTF_8));
     }
 
     private <T> T decode(ByteBuffer bytes, Class<T> classOf) {
-        byte[] array = new byte[bytes.remaining()];
-        bytes.get(array);
-        try (InputStreamReader stream = new InputStreamReader(new ByteArrayInputStream(array))) {
-            return gson.fromJson(stream, classOf);
-        } catch (IOException e) {
-            System.err.println(String.format("Unexpected error decoding from redis cache: %s", e.getMessage()));
-            return null;
-        }
+        return gson.fromJson(StandardCharsets.UTF_8.decode(bytes).toString(), classOf);
     }
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache over an {@link ICache}. A miss calls the loader once per key however many threads ask for it,
+ * and the others wait for that load. Entries older than the refresh age are returned as they are while a background
+ * reload replaces them. Entries older than the expiry age are reloaded on the caller's thread, and if that load
+ * fails the old value keeps being served until the stale window has passed as well.
+ *
+ * Ages are tracked on this node from the moment it loaded or wrote an entry. An entry of unknown age, written by
+ * another node or outliving the age this node kept for it, is returned once and reloaded in the background. A loader
+ * returning null is not cached, and an expired entry it returns null for is deleted.
+ */
+public class LoadingCache<K, V> implements ICache<K, V> {
+
+    private static final ExecutorService REFRESH_EXECUTOR = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("cache-refresh-%d").setDaemon(true).build());
+
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws Exception;
+    }
+
+    private final ICache<K, V> cache;
+    private final Loader<K, V> loader;
+    private final long refreshAfterMillis;
+    private final long expireAfterMillis;
+    private final long staleMillis;
+    private final Executor executor;
+    private final LongSupplier clock;
+    private final Cache<K, Long> loadedAt;
+    private final ConcurrentMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * @param refreshAfterSeconds age from which an entry is reloaded in the background, 0 to never refresh ahead
+     * @param expireAfterSeconds  age from which an entry is reloaded before being returned
+     * @param staleSeconds        how long past its expiry an entry is still served when reloading it fails
+     */
+    public LoadingCache(ICache<K, V> cache, Loader<K, V> loader, int refreshAfterSeconds, int expireAfterSeconds,
+                        int staleSeconds) {
+        this(cache, loader, refreshAfterSeconds * 1000L, expireAfterSeconds * 1000L, staleSeconds * 1000L,
+                REFRESH_EXECUTOR, System::currentTimeMillis);
+    }
+
+    LoadingCache(ICache<K, V> cache, Loader<K, V> loader, long refreshAfterMillis, long expireAfterMillis,
+                 long staleMillis, Executor executor, LongSupplier clock) {
+        this.cache = cache;
+        this.loader = loader;
+        this.refreshAfterMillis = refreshAfterMillis > 0 ? refreshAfterMillis : expireAfterMillis;
+        this.expireAfterMillis = expireAfterMillis;
+        this.staleMillis = staleMillis;
+        this.executor = executor;
+        this.clock = clock;
+        this.loadedAt = CacheBuilder.newBuilder()
+                .expireAfterWrite(expireAfterMillis + staleMillis, TimeUnit.MILLISECONDS).build();
+    }
+
+    /**
+     * Returns the cached value, loading it when missing or expired.
+     *
+     * @throws UncheckedExecutionException wrapping a checked exception thrown by the loader, runtime exceptions are
+     *                                     rethrown as they are
+     */
+    @Override
+    public V get(K k) {
+        V value = this.cache.get(k);
+        if (value == null) {
+            return this.load(k);
+        }
+        long now = this.clock.getAsLong();
+        Long since = this.loadedAt.getIfPresent(k);
+        if (since == null) {
+            // written by another node, or kept by the wrapped cache longer than this node remembers: treat it as due
+            // for a refresh, so it still expires if that refresh keeps failing
+            this.loadedAt.put(k, now - this.refreshAfterMillis);
+            this.refresh(k);
+            return value;
+        }
+        long age = now - since;
+        if (age < this.refreshAfterMillis) {
+            return value;
+        }
+        if (age < this.expireAfterMillis) {
+            this.refresh(k);
+            return value;
+        }
+        V loaded;
+        try {
+            loaded = this.load(k);
+        } catch (RuntimeException e) {
+            if (age < this.expireAfterMillis + this.staleMillis) {
+                return value;
+            }
+            throw e;
+        }
+        if (loaded == null) {
+            // the key is gone at the source, stale values are only for a source that cannot be reached
+            this.delete(k);
+        }
+        return loaded;
+    }
+
+    /**
+     * Reloads the entry in the background unless a load of it is already running, and returns that load.
+     */
+    public CompletableFuture<V> refresh(K k) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = this.loading.putIfAbsent(k, future);
+        if (running != null) {
+            return running;
+        }
+        try {
+            this.executor.execute(() -> this.runLoad(k, future));
+        } catch (RuntimeException e) {
+            this.loading.remove(k, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public void put(K k, V v) {
+        this.cache.put(k, v);
+        this.loadedAt.put(k, this.clock.getAsLong());
+    }
+
+    @Override
+    public void delete(K k) {
+        this.cache.delete(k);
+        this.loadedAt.invalidate(k);
+    }
+
+    @Override
+    public void clearAll() {
+        this.cache.clearAll();
+        this.loadedAt.invalidateAll();
+    }
+
+    private V load(K k) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = this.loading.putIfAbsent(k, future);
+        if (running == null) {
+            this.runLoad(k, future);
+            running = future;
+        }
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new UncheckedExecutionException(cause);
+        }
+    }
+
+    // leaves the in-flight map before completing, so a caller woken by the result cannot join this load again
+    private void runLoad(K k, CompletableFuture<V> future) {
+        V value;
+        try {
+            value = this.loader.load(k);
+            if (value != null) {
+                this.put(k, value);
+            }
+        } catch (Throwable e) {
+            this.loading.remove(k, future);
+            future.completeExceptionally(e);
+            return;
+        }
+        this.loading.remove(k, future);
+        future.complete(value);
+    }
+}
@@ -19,29 +19,57 @@ package org.opengroup.osdu.core.common.cache;
 
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Hands out one {@link TenantSafeCache} per partition over a shared cache. Partitions are added from concurrent
+ * request threads, and each keeps its own namespace and, optionally, its own quota.
+ */
 public class MultiTenantCache<V> {
     private final ICache<String, V> wrappedCache;
-    private final Map<String, TenantSafeCache> tenantCaches = new HashMap<>();
+    private final int tenantMaximumSize;
+    private final TenantSafeCache.KeyFormat keyFormat;
+    private final Map<String, TenantSafeCache<V>> tenantCaches = new ConcurrentHashMap<>();
 
     public MultiTenantCache(ICache<String, V> cache) {
+        this(cache, 0);
+    }
+
+    /**
+     * @param tenantMaximumSize the number of entries each partition may hold, 0 for no quota
+     */
+    public MultiTenantCache(ICache<String, V> cache, int tenantMaximumSize) {
+        this(cache, tenantMaximumSize, TenantSafeCache.KeyFormat.CONCATENATED);
+    }
+
+    /**
+     * @param tenantMaximumSize the number of entries each partition may hold, 0 for no quota
+     * @param keyFormat         how keys are namespaced, see {@link TenantSafeCache.KeyFormat} before changing it
+     */
+    public MultiTenantCache(ICache<String, V> cache, int tenantMaximumSize, TenantSafeCache.KeyFormat keyFormat) {
         this.wrappedCache = cache;
+        this.tenantMaximumSize = tenantMaximumSize;
+        this.keyFormat = keyFormat;
     }
 
     public ICache<String, V> get(String partition) {
         String tenantName = partition;
         if (StringUtils.isBlank(tenantName))
             invalidTenantGivenException(tenantName);
-        if (!tenantCaches.containsKey(tenantName)) {
-            addCache(tenantName);
-        }
-        return tenantCaches.get(tenantName);
+        return tenantCaches.computeIfAbsent(tenantName, this::createCache);
+    }
+
+    /**
+     * Evicts the entries of one partition, see {@link TenantSafeCache#clearAll()}. With
+     * {@link TenantSafeCache.KeyFormat#SEPARATED} keys every other partition stays warm.
+     */
+    public void invalidate(String partition) {
+        get(partition).clearAll();
     }
 
-    private void addCache(String tenantName) {
-        tenantCaches.put(tenantName, new TenantSafeCache<>(tenantName, wrappedCache));
+    private TenantSafeCache<V> createCache(String tenantName) {
+        return new TenantSafeCache<>(tenantName, wrappedCache, tenantMaximumSize, keyFormat);
     }
 
     private void invalidTenantGivenException(String tenantName) {
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps serialized values in direct memory so that large entries, such as index mappings or kind lists, neither grow
+ * the heap nor get copied by the garbage collector. Keys and a small record per entry stay on the heap.
+ *
+ * Memory is reserved lazily in segments of up to {@link #SEGMENT_SIZE} bytes, split in fixed blocks, and never
+ * returned; a value takes as many blocks as it needs. When the blocks run out the least recently used entries are
+ * evicted. Entries expire a fixed time after they were written, expired ones are dropped when read or evicted.
+ */
+public class OffHeapCache<K, V> implements ICache<K, V>, IPrefixClearableCache {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+    static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final Class<V> classOfV;
+    private final ICacheSerializer serializer;
+    private final long expirationMillis;
+    private final int blockSize;
+    private final int blocksPerSegment;
+    private final long totalBlocks;
+    private final String name;
+    private final ICacheMetrics metrics;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<K, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private int[] freeBlocks = new int[64];
+    private int freeCount;
+    private long allocatedBlocks;
+    private long usedBytes;
+
+    public OffHeapCache(long maximumBytes, int expirationSeconds, Class<V> classOfV) {
+        this(maximumBytes, expirationSeconds, classOfV, new SmileCacheSerializer(), DEFAULT_BLOCK_SIZE, null,
+                ICacheMetrics.NOOP);
+    }
+
+    /**
+     * @param blockSize allocation unit, values waste up to one block each
+     * @param name      reported with the evictions, can be null without metrics
+     */
+    public OffHeapCache(long maximumBytes, int expirationSeconds, Class<V> classOfV, ICacheSerializer serializer,
+                        int blockSize, String name, ICacheMetrics metrics) {
+        this(maximumBytes, expirationSeconds * 1000L, classOfV, serializer, blockSize, name, metrics,
+                System::currentTimeMillis);
+    }
+
+    OffHeapCache(long maximumBytes, long expirationMillis, Class<V> classOfV, ICacheSerializer serializer,
+                 int blockSize, String name, ICacheMetrics metrics, LongSupplier clock) {
+        if (blockSize <= 0 || blockSize > SEGMENT_SIZE)
+            throw new IllegalArgumentException("block size must be between 1 and " + SEGMENT_SIZE);
+        this.classOfV = classOfV;
+        this.serializer = serializer;
+        this.expirationMillis = expirationMillis;
+        this.blockSize = blockSize;
+        this.blocksPerSegment = SEGMENT_SIZE / blockSize;
+        this.totalBlocks = Math.min(maximumBytes / blockSize, (long) Integer.MAX_VALUE);
+        this.name = name;
+        this.metrics = metrics;
+        this.clock = clock;
+    }
+
+    @Override
+    public void put(K k, V v) {
+        if (v == null) {
+            this.delete(k);
+            return;
+        }
+        byte[] bytes = this.serializer.serialize(v);
+        int needed = (bytes.length + this.blockSize - 1) / this.blockSize;
+        long expiresAt = this.clock.getAsLong() + this.expirationMillis;
+        int evicted = 0;
+        synchronized (this) {
+            this.release(this.entries.remove(k));
+            if (needed > this.totalBlocks) {
+                return;
+            }
+            Iterator<Entry> eldest = this.entries.values().iterator();
+            while (this.freeCount + (this.totalBlocks - this.allocatedBlocks) < needed) {
+                Entry entry = eldest.next();
+                eldest.remove();
+                if (entry.expiresAt > this.clock.getAsLong()) {
+                    evicted++;
+                }
+                this.release(entry);
+            }
+            int[] blocks = new int[needed];
+            for (int i = 0; i < needed; i++) {
+                blocks[i] = this.allocate();
+                int offset = i * this.blockSize;
+                this.write(blocks[i], bytes, offset, Math.min(this.blockSize, bytes.length - offset));
+            }
+            this.entries.put(k, new Entry(blocks, bytes.length, expiresAt));
+            this.usedBytes += bytes.length;
+        }
+        if (evicted > 0) {
+            this.metrics.recordEvictions(this.name, evicted);
+        }
+    }
+
+    @Override
+    public V get(K k) {
+        byte[] bytes;
+        synchronized (this) {
+            Entry entry = this.entries.get(k);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= this.clock.getAsLong()) {
+                this.entries.remove(k);
+                this.release(entry);
+                return null;
+            }
+            bytes = new byte[entry.length];
+            for (int i = 0; i < entry.blocks.length; i++) {
+                int offset = i * this.blockSize;
+                this.read(entry.blocks[i], bytes, offset, Math.min(this.blockSize, entry.length - offset));
+            }
+        }
+        // deserialized outside of the lock, the copy is private to this call
+        return this.serializer.deserialize(bytes, 0, bytes.length, this.classOfV);
+    }
+
+    @Override
+    public synchronized void delete(K k) {
+        this.release(this.entries.remove(k));
+    }
+
+    @Override
+    public synchronized void clearAll() {
+        for (Entry entry : this.entries.values()) {
+            this.release(entry);
+        }
+        this.entries.clear();
+    }
+
+    @Override
+    public synchronized void clearPrefix(String prefix) {
+        Iterator<Map.Entry<K, Entry>> iterator = this.entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry> entry = iterator.next();
+            if (entry.getKey() instanceof String && ((String) entry.getKey()).startsWith(prefix)) {
+                iterator.remove();
+                this.release(entry.getValue());
+            }
+        }
+    }
+
+    public synchronized long size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Serialized size of the entries held, excluding the unused end of their last block.
+     */
+    public synchronized long getUsedBytes() {
+        return this.usedBytes;
+    }
+
+    /**
+     * Direct memory reserved so far.
+     */
+    public synchronized long getReservedBytes() {
+        long output = 0;
+        for (ByteBuffer segment : this.segments) {
+            output += segment.capacity();
+        }
+        return output;
+    }
+
+    private void release(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        for (int block : entry.blocks) {
+            if (this.freeCount == this.freeBlocks.length) {
+                int[] grown = new int[this.freeBlocks.length * 2];
+                System.arraycopy(this.freeBlocks, 0, grown, 0, this.freeCount);
+                this.freeBlocks = grown;
+            }
+            this.freeBlocks[this.freeCount++] = block;
+        }
+        this.usedBytes -= entry.length;
+    }
+
+    private int allocate() {
+        if (this.freeCount > 0) {
+            return this.freeBlocks[--this.freeCount];
+        }
+        int block = (int) this.allocatedBlocks++;
+        if (block / this.blocksPerSegment == this.segments.size()) {
+            long remaining = (this.totalBlocks - block) * this.blockSize;
+            this.segments.add(ByteBuffer.allocateDirect((int) Math.min(remaining,
+                    (long) this.blocksPerSegment * this.blockSize)));
+        }
+        return block;
+    }
+
+    private void write(int block, byte[] bytes, int offset, int length) {
+        ByteBuffer segment = this.segments.get(block / this.blocksPerSegment);
+        segment.position(block % this.blocksPerSegment * this.blockSize);
+        segment.put(bytes, offset, length);
+    }
+
+    private void read(int block, byte[] bytes, int offset, int length) {
+        ByteBuffer segment = this.segments.get(block / this.blocksPerSegment);
+        segment.position(block % this.blocksPerSegment * this.blockSize);
+        segment.get(bytes, offset, length);
+    }
+
+    private static final class Entry {
+        private final int[] blocks;
+        private final int length;
+        private final long expiresAt;
+
+        private Entry(int[] blocks, int length, long expiresAt) {
+            this.blocks = blocks;
+            this.length = length;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
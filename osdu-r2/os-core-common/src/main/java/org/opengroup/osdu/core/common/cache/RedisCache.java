@@ -17,31 +17,64 @@
 
 package org.opengroup.osdu.core.common.cache;
 
+import com.lambdaworks.redis.KeyScanCursor;
+import com.lambdaworks.redis.LettuceFutures;
 import com.lambdaworks.redis.RedisClient;
+import com.lambdaworks.redis.RedisCommandTimeoutException;
+import com.lambdaworks.redis.RedisFuture;
 import com.lambdaworks.redis.RedisURI;
+import com.lambdaworks.redis.ScanArgs;
+import com.lambdaworks.redis.ScanCursor;
 import com.lambdaworks.redis.SetArgs;
 import com.lambdaworks.redis.api.StatefulRedisConnection;
+import com.lambdaworks.redis.api.async.RedisAsyncCommands;
 import com.lambdaworks.redis.api.sync.RedisCommands;
 import com.lambdaworks.redis.codec.CompressionCodec;
+import com.lambdaworks.redis.codec.RedisCodec;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
-public class RedisCache<K, V> implements ICache<K, V>, AutoCloseable {
+public class RedisCache<K, V> implements ICache<K, V>, IPrefixClearableCache, AutoCloseable {
+
+    private static final int SCAN_BATCH_SIZE = 1000;
 
     private final StatefulRedisConnection<K, V> connection;
     private final RedisClient client;
+    private final RedisCodec<K, V> codec;
     private final RedisCommands<K, V> commands;
+    private final RedisAsyncCommands<K, V> asyncCommands;
     private final int expireLengthSeconds;
+    private final long timeout;
+    private final TimeUnit timeoutUnit;
 
     public RedisCache(String host, int port, int expTimeSeconds, int database,
                       Class<K> classOfK, Class<V> classOfV) {
+        this(host, port, expTimeSeconds, database,
+                CompressionCodec.valueCompressor(new JsonCodec<>(classOfK, classOfV), CompressionCodec.CompressionType.GZIP));
+    }
+
+    /**
+     * Uses the given codec, typically a {@link CacheValueCodec}, which also reads the entries written by the
+     * other constructors.
+     */
+    public RedisCache(String host, int port, int expTimeSeconds, int database, RedisCodec<K, V> codec) {
         RedisURI uri = new RedisURI(host, port, 30, TimeUnit.SECONDS);
         uri.setDatabase(database);
         client = RedisClient.create(uri);
-        connection = client.connect(
-                CompressionCodec.valueCompressor(new JsonCodec<>(classOfK, classOfV), CompressionCodec.CompressionType.GZIP));
+        this.codec = codec;
+        connection = client.connect(codec);
         commands = connection.sync();
+        asyncCommands = connection.async();
         expireLengthSeconds = expTimeSeconds;
+        timeout = uri.getTimeout();
+        timeoutUnit = uri.getUnit();
     }
 
     public RedisCache(String host, int port, int expTimeSeconds, Class<K> classOfK, Class<V> classOfV) {
@@ -50,9 +83,7 @@ public class RedisCache<K, V> implements ICache<K, V>, AutoCloseable {
 
     @Override
     public void put(K key, V value) {
-        SetArgs args = new SetArgs();
-        args.ex(expireLengthSeconds);
-        commands.set(key, value, args);
+        commands.set(key, value, expiry());
     }
 
     @Override
@@ -65,6 +96,74 @@ public class RedisCache<K, V> implements ICache<K, V>, AutoCloseable {
         commands.del(key);
     }
 
+    /**
+     * Reads all keys with a single MGET.
+     */
+    @Override
+    public Map<K, V> getAll(Collection<K> keys) {
+        if (keys.isEmpty())
+            return new LinkedHashMap<>();
+        return toMap(keys, commands.mget(toArray(keys)));
+    }
+
+    /**
+     * Pipelines one SET EX per entry and waits for all of them, as MSET cannot set an expiry.
+     */
+    @Override
+    public void putAll(Map<K, V> entries) {
+        if (entries.isEmpty())
+            return;
+        if (!LettuceFutures.awaitAll(timeout, timeoutUnit, pipelineSet(entries).toArray(new RedisFuture[0])))
+            throw new RedisCommandTimeoutException();
+    }
+
+    @Override
+    public void deleteAll(Collection<K> keys) {
+        if (!keys.isEmpty())
+            commands.del(toArray(keys));
+    }
+
+    @Override
+    public CompletableFuture<V> getAsync(K key) {
+        return asyncCommands.get(key).toCompletableFuture();
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(K key, V value) {
+        return asyncCommands.set(key, value, expiry()).toCompletableFuture().thenApply(reply -> null);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(K key) {
+        return asyncCommands.del(key).toCompletableFuture().thenApply(count -> null);
+    }
+
+    @Override
+    public CompletableFuture<Map<K, V>> getAllAsync(Collection<K> keys) {
+        if (keys.isEmpty())
+            return CompletableFuture.completedFuture(new LinkedHashMap<>());
+        List<K> ordered = new ArrayList<>(keys);
+        return asyncCommands.mget(toArray(ordered)).toCompletableFuture().thenApply(values -> toMap(ordered, values));
+    }
+
+    @Override
+    public CompletableFuture<Void> putAllAsync(Map<K, V> entries) {
+        if (entries.isEmpty())
+            return CompletableFuture.completedFuture(null);
+        List<RedisFuture<String>> futures = pipelineSet(entries);
+        CompletableFuture<?>[] stages = new CompletableFuture<?>[futures.size()];
+        for (int i = 0; i < stages.length; i++)
+            stages[i] = futures.get(i).toCompletableFuture();
+        return CompletableFuture.allOf(stages);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAllAsync(Collection<K> keys) {
+        if (keys.isEmpty())
+            return CompletableFuture.completedFuture(null);
+        return asyncCommands.del(toArray(keys)).toCompletableFuture().thenApply(count -> null);
+    }
+
     @Override
     public void close() {
         if (connection != null)
@@ -77,4 +176,63 @@ public class RedisCache<K, V> implements ICache<K, V>, AutoCloseable {
     public void clearAll() {
         this.commands.flushdb();
     }
+
+    /**
+     * Walks the keyspace with SCAN MATCH and removes the matching keys with UNLINK (Redis 4 or later), so other
+     * namespaces in the database are left alone and the server frees the values in the background.
+     */
+    @Override
+    public void clearPrefix(String prefix) {
+        ScanArgs args = ScanArgs.Builder.matches(scanPattern(prefix)).limit(SCAN_BATCH_SIZE);
+        ScanCursor cursor = ScanCursor.INITIAL;
+        do {
+            KeyScanCursor<K> batch = commands.scan(cursor, args);
+            List<K> keys = new ArrayList<>();
+            for (K k : batch.getKeys()) {
+                if (k instanceof String && ((String) k).startsWith(prefix))
+                    keys.add(k);
+            }
+            if (!keys.isEmpty())
+                commands.unlink(toArray(keys));
+            cursor = batch;
+        } while (!cursor.isFinished());
+    }
+
+    // keys are stored in their encoded form, which for the JSON codecs wraps strings in quotes
+    @SuppressWarnings("unchecked")
+    private String scanPattern(String prefix) {
+        String encoded = StandardCharsets.UTF_8.decode(codec.encodeKey((K) prefix)).toString();
+        if (encoded.length() > 1 && encoded.startsWith("\"") && encoded.endsWith("\""))
+            encoded = encoded.substring(0, encoded.length() - 1);
+        return encoded.replaceAll("([*?\\[\\]\\\\])", "\\\\$1") + "*";
+    }
+
+    private SetArgs expiry() {
+        SetArgs args = new SetArgs();
+        args.ex(expireLengthSeconds);
+        return args;
+    }
+
+    private List<RedisFuture<String>> pipelineSet(Map<K, V> entries) {
+        SetArgs args = expiry();
+        List<RedisFuture<String>> futures = new ArrayList<>(entries.size());
+        entries.forEach((k, v) -> futures.add(asyncCommands.set(k, v, args)));
+        return futures;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K[] toArray(Collection<K> keys) {
+        return (K[]) keys.toArray();
+    }
+
+    private Map<K, V> toMap(Collection<K> keys, List<V> values) {
+        Map<K, V> output = new LinkedHashMap<>();
+        int i = 0;
+        for (K k : keys) {
+            V v = values.get(i++);
+            if (v != null)
+                output.put(k, v);
+        }
+        return output;
+    }
 }
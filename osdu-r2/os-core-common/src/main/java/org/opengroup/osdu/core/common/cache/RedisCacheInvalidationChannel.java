@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import com.lambdaworks.redis.RedisClient;
+import com.lambdaworks.redis.RedisURI;
+import com.lambdaworks.redis.api.StatefulRedisConnection;
+import com.lambdaworks.redis.pubsub.RedisPubSubAdapter;
+import com.lambdaworks.redis.pubsub.StatefulRedisPubSubConnection;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link ICacheInvalidationChannel} over Redis pub/sub. Channels are shared by every database of the server, so the
+ * channel name has to identify the cache.
+ */
+public class RedisCacheInvalidationChannel implements ICacheInvalidationChannel {
+
+    private final RedisClient client;
+    private final StatefulRedisConnection<String, String> publisher;
+    private final StatefulRedisPubSubConnection<String, String> subscriber;
+    private final String channel;
+
+    public RedisCacheInvalidationChannel(String host, int port, String channel) {
+        this.client = RedisClient.create(new RedisURI(host, port, 30, TimeUnit.SECONDS));
+        this.publisher = this.client.connect();
+        this.subscriber = this.client.connectPubSub();
+        this.channel = channel;
+    }
+
+    @Override
+    public void publish(String message) {
+        this.publisher.async().publish(this.channel, message);
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        this.subscriber.addListener(new RedisPubSubAdapter<String, String>() {
+            @Override
+            public void message(String channel, String message) {
+                if (RedisCacheInvalidationChannel.this.channel.equals(channel)) {
+                    listener.accept(message);
+                }
+            }
+        });
+        this.subscriber.sync().subscribe(this.channel);
+    }
+
+    @Override
+    public void close() {
+        this.subscriber.close();
+        this.publisher.close();
+        this.client.shutdown();
+    }
+}
@@ -19,38 +19,230 @@ package org.opengroup.osdu.core.common.cache;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Namespaces the keys of one tenant in a cache shared by all tenants, see {@link KeyFormat}.
+ *
+ * With a maximum size the keys this instance wrote are tracked in access order and the least recently used ones are
+ * deleted once the tenant goes over it, so a busy tenant cannot push the entries of the others out of the shared
+ * cache. The quota is enforced per node and only counts the writes made through it; keys the shared cache no longer
+ * returns are dropped from it.
+ */
 public class TenantSafeCache<V> implements ICache<String, V> {
-    private final String tenantName;
+    static final String SEPARATOR = ":";
+
+    /**
+     * How the tenant is put in front of the key. The format is part of what nodes sharing a cache have to agree on:
+     * a node reading the other format misses, and a delete in one format leaves the entry written in the other one
+     * in place. To move a deployment from CONCATENATED to SEPARATED, first run a version that supports both with the
+     * default everywhere, then switch every node in one rollout and clear the shared cache once the last
+     * CONCATENATED node is gone; until then entries deleted by one side can still be served by the other, at most
+     * for the expiration of the shared cache.
+     */
+    public enum KeyFormat {
+        /**
+         * {@code <tenant><key>}, the historical format and the default. Clearing still only evicts the keys starting
+         * with the tenant name, but tenants whose names start with it go as well: clearing "t1" also clears "t10".
+         */
+        CONCATENATED,
+        /**
+         * {@code <tenant>:<key>}. Clearing only evicts the namespace of the tenant when the shared cache is an
+         * {@link IPrefixClearableCache}.
+         */
+        SEPARATED
+    }
+
+    private final String prefix;
     private final ICache<String, V> wrapped;
+    private final int maximumSize;
+    private final LinkedHashMap<String, Boolean> tracked = new LinkedHashMap<>(16, 0.75f, true);
 
     public TenantSafeCache(String tenantName, ICache<String, V> wrapped) {
+        this(tenantName, wrapped, 0);
+    }
+
+    /**
+     * @param maximumSize the number of entries the tenant may hold, 0 for no quota
+     */
+    public TenantSafeCache(String tenantName, ICache<String, V> wrapped, int maximumSize) {
+        this(tenantName, wrapped, maximumSize, KeyFormat.CONCATENATED);
+    }
+
+    /**
+     * @param maximumSize the number of entries the tenant may hold, 0 for no quota
+     * @param keyFormat   how keys are namespaced, every node sharing the cache must use the same one
+     */
+    public TenantSafeCache(String tenantName, ICache<String, V> wrapped, int maximumSize, KeyFormat keyFormat) {
         if (StringUtils.isBlank(tenantName))
             throw new NullPointerException("partition name not given");
-        this.tenantName = tenantName;
+        this.prefix = keyFormat == KeyFormat.SEPARATED ? tenantName + SEPARATOR : tenantName;
         this.wrapped = wrapped;
+        this.maximumSize = maximumSize;
     }
 
     @Override
     public void put(String k, V o) {
         wrapped.put(generateKey(k), o);
+        evict(track(Collections.singletonList(k)));
     }
 
     @Override
     public V get(String k) {
-        return wrapped.get(generateKey(k));
+        V value = wrapped.get(generateKey(k));
+        touch(Collections.singletonList(k), value == null ? Collections.emptySet() : Collections.singleton(k));
+        return value;
     }
 
     @Override
     public void delete(String k) {
+        untrack(Collections.singletonList(k));
         wrapped.delete(generateKey(k));
     }
 
+    @Override
+    public Map<String, V> getAll(Collection<String> keys) {
+        Map<String, V> output = stripKeys(wrapped.getAll(generateKeys(keys)));
+        touch(keys, output.keySet());
+        return output;
+    }
+
+    @Override
+    public void putAll(Map<String, V> entries) {
+        wrapped.putAll(generateKeys(entries));
+        evict(track(entries.keySet()));
+    }
+
+    @Override
+    public void deleteAll(Collection<String> keys) {
+        untrack(keys);
+        wrapped.deleteAll(generateKeys(keys));
+    }
+
+    @Override
+    public CompletableFuture<V> getAsync(String k) {
+        return wrapped.getAsync(generateKey(k)).thenApply(value -> {
+            touch(Collections.singletonList(k), value == null ? Collections.emptySet() : Collections.singleton(k));
+            return value;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(String k, V o) {
+        return wrapped.putAsync(generateKey(k), o).thenCompose(done -> evictAsync(track(Collections.singletonList(k))));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(String k) {
+        untrack(Collections.singletonList(k));
+        return wrapped.deleteAsync(generateKey(k));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, V>> getAllAsync(Collection<String> keys) {
+        return wrapped.getAllAsync(generateKeys(keys)).thenApply(entries -> {
+            Map<String, V> output = stripKeys(entries);
+            touch(keys, output.keySet());
+            return output;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> putAllAsync(Map<String, V> entries) {
+        return wrapped.putAllAsync(generateKeys(entries)).thenCompose(done -> evictAsync(track(entries.keySet())));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAllAsync(Collection<String> keys) {
+        untrack(keys);
+        return wrapped.deleteAllAsync(generateKeys(keys));
+    }
+
+    /**
+     * Evicts the keys starting with the prefix of this tenant when the wrapped cache can clear by prefix, see
+     * {@link KeyFormat} for what else that matches, and the whole shared cache otherwise.
+     */
     @Override
     public void clearAll() {
-        this.wrapped.clearAll();
+        synchronized (tracked) {
+            tracked.clear();
+        }
+        IPrefixClearableCache.clearPrefix(this.wrapped, prefix);
     }
 
     private String generateKey(String k) {
-        return tenantName + k;
+        return prefix + k;
+    }
+
+    private List<String> generateKeys(Collection<String> keys) {
+        return keys.stream().map(this::generateKey).collect(Collectors.toList());
+    }
+
+    private Map<String, V> generateKeys(Map<String, V> entries) {
+        Map<String, V> output = new LinkedHashMap<>();
+        entries.forEach((k, v) -> output.put(generateKey(k), v));
+        return output;
+    }
+
+    private Map<String, V> stripKeys(Map<String, V> entries) {
+        Map<String, V> output = new LinkedHashMap<>();
+        entries.forEach((k, v) -> output.put(k.substring(prefix.length()), v));
+        return output;
+    }
+
+    private List<String> track(Collection<String> keys) {
+        if (maximumSize <= 0)
+            return Collections.emptyList();
+        List<String> evicted = new ArrayList<>();
+        synchronized (tracked) {
+            for (String k : keys)
+                tracked.put(k, Boolean.TRUE);
+            Iterator<String> eldest = tracked.keySet().iterator();
+            while (tracked.size() > maximumSize) {
+                evicted.add(eldest.next());
+                eldest.remove();
+            }
+        }
+        return evicted;
+    }
+
+    private void touch(Collection<String> keys, Set<String> found) {
+        if (maximumSize <= 0)
+            return;
+        synchronized (tracked) {
+            for (String k : keys) {
+                // a key the shared cache expired or evicted no longer counts against the quota
+                if (found.contains(k))
+                    tracked.get(k);
+                else
+                    tracked.remove(k);
+            }
+        }
+    }
+
+    private void untrack(Collection<String> keys) {
+        if (maximumSize <= 0)
+            return;
+        synchronized (tracked) {
+            tracked.keySet().removeAll(keys);
+        }
+    }
+
+    private void evict(List<String> keys) {
+        if (!keys.isEmpty())
+            wrapped.deleteAll(generateKeys(keys));
+    }
+
+    private CompletableFuture<Void> evictAsync(List<String> keys) {
+        return keys.isEmpty() ? CompletableFuture.completedFuture(null) : wrapped.deleteAllAsync(generateKeys(keys));
     }
 }
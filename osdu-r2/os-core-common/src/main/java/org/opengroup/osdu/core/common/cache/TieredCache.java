@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near cache reading an in-process cache first and a shared cache, usually {@link RedisCache}, second. Writes go to
+ * both tiers and are broadcast on an {@link ICacheInvalidationChannel} so that the other nodes evict their local
+ * copy. The local tier should expire entries on its own, as a node missing a broadcast keeps serving its copy.
+ */
+public class TieredCache<K, V> implements ICache<K, V>, IPrefixClearableCache, AutoCloseable {
+
+    private static final String NODE = "node";
+    private static final String KEY = "key";
+    private static final String CLEAR = "clear";
+    private static final String PREFIX = "prefix";
+
+    private final ICache<K, V> local;
+    private final ICache<K, V> shared;
+    private final ICacheInvalidationChannel channel;
+    private final Class<K> classOfK;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Gson gson = new Gson();
+    // bumped on every local write and remote invalidation, a shared read that overlaps one is not copied to the local
+    // tier; the bump and the local write it guards happen under the same lock
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Object localLock = new Object();
+
+    public TieredCache(ICache<K, V> local, ICache<K, V> shared, ICacheInvalidationChannel channel, Class<K> classOfK) {
+        this.local = local;
+        this.shared = shared;
+        this.channel = channel;
+        this.classOfK = classOfK;
+        this.channel.subscribe(this::onMessage);
+    }
+
+    public TieredCache(String host, int port, int expTimeSeconds, int localExpirationSeconds, int localMaximumSize,
+                       String channelName, Class<K> classOfK, Class<V> classOfV) {
+        this(new VmCache<>(localExpirationSeconds, localMaximumSize),
+                new RedisCache<>(host, port, expTimeSeconds, classOfK, classOfV),
+                new RedisCacheInvalidationChannel(host, port, channelName), classOfK);
+    }
+
+    @Override
+    public void put(K k, V v) {
+        this.shared.put(k, v);
+        synchronized (this.localLock) {
+            this.invalidations.incrementAndGet();
+            this.local.put(k, v);
+        }
+        this.publishKey(k);
+    }
+
+    @Override
+    public V get(K k) {
+        V value = this.local.get(k);
+        if (value != null) {
+            return value;
+        }
+        long before = this.invalidations.get();
+        value = this.shared.get(k);
+        if (value != null) {
+            synchronized (this.localLock) {
+                if (this.invalidations.get() == before) {
+                    this.local.put(k, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void delete(K k) {
+        this.shared.delete(k);
+        synchronized (this.localLock) {
+            this.invalidations.incrementAndGet();
+            this.local.delete(k);
+        }
+        this.publishKey(k);
+    }
+
+    @Override
+    public void clearAll() {
+        this.shared.clearAll();
+        synchronized (this.localLock) {
+            this.invalidations.incrementAndGet();
+            this.local.clearAll();
+        }
+        JsonObject message = new JsonObject();
+        message.addProperty(NODE, this.nodeId);
+        message.addProperty(CLEAR, true);
+        this.channel.publish(message.toString());
+    }
+
+    @Override
+    public void clearPrefix(String prefix) {
+        IPrefixClearableCache.clearPrefix(this.shared, prefix);
+        synchronized (this.localLock) {
+            this.invalidations.incrementAndGet();
+            IPrefixClearableCache.clearPrefix(this.local, prefix);
+        }
+        JsonObject message = new JsonObject();
+        message.addProperty(NODE, this.nodeId);
+        message.addProperty(PREFIX, prefix);
+        this.channel.publish(message.toString());
+    }
+
+    @Override
+    public void close() throws Exception {
+        this.channel.close();
+        if (this.shared instanceof AutoCloseable) {
+            ((AutoCloseable) this.shared).close();
+        }
+    }
+
+    private void publishKey(K k) {
+        JsonObject message = new JsonObject();
+        message.addProperty(NODE, this.nodeId);
+        message.add(KEY, this.gson.toJsonTree(k));
+        this.channel.publish(message.toString());
+    }
+
+    private void onMessage(String payload) {
+        JsonObject message;
+        try {
+            message = new JsonParser().parse(payload).getAsJsonObject();
+        } catch (JsonSyntaxException | IllegalStateException e) {
+            // not a message of this cache, there is nothing safe to evict
+            return;
+        }
+        JsonElement node = message.get(NODE);
+        if (node != null && this.nodeId.equals(node.getAsString())) {
+            return;
+        }
+        JsonElement key = message.get(KEY);
+        JsonElement prefix = message.get(PREFIX);
+        synchronized (this.localLock) {
+            this.invalidations.incrementAndGet();
+            if (message.has(CLEAR)) {
+                this.local.clearAll();
+            } else if (prefix != null && prefix.isJsonPrimitive()) {
+                IPrefixClearableCache.clearPrefix(this.local, prefix.getAsString());
+            } else if (key != null && !key.isJsonNull()) {
+                this.local.delete(this.gson.fromJson(key, this.classOfK));
+            }
+        }
+    }
+}
@@ -19,17 +19,49 @@ package org.opengroup.osdu.core.common.cache;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
-public class VmCache<K, V> implements ICache<K, V> {
+public class VmCache<K, V> implements ICache<K, V>, IPrefixClearableCache {
 
     private final Cache<K, V> cache;
 
     public VmCache(int cacheExpirationSeconds, int maximumCacheSize) {
+        this(cacheExpirationSeconds, maximumCacheSize, null, ICacheMetrics.NOOP);
+    }
+
+    /**
+     * Also reports the entries evicted for size or expiry under the given cache name.
+     */
+    public VmCache(int cacheExpirationSeconds, int maximumCacheSize, String name, ICacheMetrics metrics) {
 
-        this.cache = CacheBuilder.newBuilder().expireAfterAccess(cacheExpirationSeconds, TimeUnit.SECONDS)
-                .maximumSize(maximumCacheSize).build();
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .expireAfterAccess(cacheExpirationSeconds, TimeUnit.SECONDS)
+                .maximumSize(maximumCacheSize).recordStats();
+        if (metrics == ICacheMetrics.NOOP) {
+            this.cache = builder.build();
+        } else {
+            this.cache = builder.<K, V>removalListener(notification -> {
+                if (notification.wasEvicted()) {
+                    metrics.recordEvictions(name, 1);
+                }
+            }).build();
+        }
+    }
+
+    /**
+     * Hit, miss and eviction counts since creation.
+     */
+    public CacheStats getStats() {
+        return this.cache.stats();
+    }
+
+    public long size() {
+        return this.cache.size();
     }
 
     @Override
@@ -47,8 +79,28 @@ public class VmCache<K, V> implements ICache<K, V> {
         this.cache.invalidate(k);
     }
 
+    @Override
+    public Map<K, V> getAll(Collection<K> keys) {
+        return new LinkedHashMap<>(this.cache.getAllPresent(keys));
+    }
+
+    @Override
+    public void putAll(Map<K, V> entries) {
+        this.cache.putAll(entries);
+    }
+
+    @Override
+    public void deleteAll(Collection<K> keys) {
+        this.cache.invalidateAll(keys);
+    }
+
     @Override
     public void clearAll() {
         this.cache.invalidateAll();
     }
+
+    @Override
+    public void clearPrefix(String prefix) {
+        this.cache.asMap().keySet().removeIf(k -> k instanceof String && ((String) k).startsWith(prefix));
+    }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.model.crs.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Answers point conversions from a shared {@link CrsPointCache} and sends only the missing points, each once, to
+ * the delegate. Trajectory conversions are passed through.
+ */
+public class CachingCrsConverterService implements ICrsConverterService {
+    private final ICrsConverterService delegate;
+    private final CrsPointCache cache;
+
+    CachingCrsConverterService(ICrsConverterService delegate, CrsPointCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public ConvertPointsResponse convertPoints(ConvertPointsRequest request) throws CrsConverterException {
+        Lookup lookup = this.lookup(request);
+        if (lookup.passThrough) {
+            return this.delegate.convertPoints(request);
+        }
+        return lookup.complete(lookup.misses.isEmpty() ? null : this.delegate.convertPoints(lookup.missRequest));
+    }
+
+    @Override
+    public ConvertTrajectoryResponse convertTrajectory(ConvertTrajectoryRequest request) throws CrsConverterException {
+        return this.delegate.convertTrajectory(request);
+    }
+
+    @Override
+    public CompletableFuture<ConvertPointsResponse> convertPointsAsync(ConvertPointsRequest request) {
+        Lookup lookup = this.lookup(request);
+        if (lookup.passThrough) {
+            return this.delegate.convertPointsAsync(request);
+        }
+        if (lookup.misses.isEmpty()) {
+            return lookup.completeAsync(null);
+        }
+        return this.delegate.convertPointsAsync(lookup.missRequest).thenCompose(lookup::completeAsync);
+    }
+
+    @Override
+    public CompletableFuture<ConvertTrajectoryResponse> convertTrajectoryAsync(ConvertTrajectoryRequest request) {
+        return this.delegate.convertTrajectoryAsync(request);
+    }
+
+    private Lookup lookup(ConvertPointsRequest request) {
+        Lookup lookup = new Lookup();
+        List<Point> points = request.getPoints();
+        if (points == null || request.getFromCRS() == null || request.getToCRS() == null) {
+            lookup.passThrough = true;
+            return lookup;
+        }
+        lookup.crsPair = this.cache.getCrsPair(request.getFromCRS(), request.getToCRS());
+        lookup.results = new Point[points.size()];
+        lookup.keys = new CrsPointCache.Key[points.size()];
+        List<Point> missPoints = new ArrayList<>();
+        Map<CrsPointCache.Key, Integer> missIndex = new HashMap<>();
+        for (int i = 0; i < points.size(); i++) {
+            lookup.keys[i] = this.cache.createKey(lookup.crsPair, points.get(i));
+            if (lookup.keys[i] == null) {
+                // invalid or out of range points keep the downstream error handling, send everything as it came
+                lookup.passThrough = true;
+                return lookup;
+            }
+        }
+        for (int i = 0; i < points.size(); i++) {
+            CrsPointCache.Key key = lookup.keys[i];
+            Point cached = this.cache.get(key);
+            if (cached != null) {
+                lookup.results[i] = cached;
+                continue;
+            }
+            lookup.misses.add(i);
+            if (!missIndex.containsKey(key)) {
+                missIndex.put(key, missPoints.size());
+                missPoints.add(points.get(i));
+            }
+        }
+        lookup.missIndex = missIndex;
+        lookup.missRequest = new ConvertPointsRequest(request.getFromCRS(), request.getToCRS(), missPoints);
+        return lookup;
+    }
+
+    private final class Lookup {
+        private final List<Integer> misses = new ArrayList<>();
+        private CrsPointCache.CrsPair crsPair;
+        private CrsPointCache.Key[] keys;
+        private Point[] results;
+        private Map<CrsPointCache.Key, Integer> missIndex;
+        private ConvertPointsRequest missRequest;
+        private boolean passThrough;
+
+        private CompletableFuture<ConvertPointsResponse> completeAsync(ConvertPointsResponse missResponse) {
+            CompletableFuture<ConvertPointsResponse> output = new CompletableFuture<>();
+            try {
+                output.complete(this.complete(missResponse));
+            } catch (CrsConverterException e) {
+                output.completeExceptionally(e);
+            }
+            return output;
+        }
+
+        private ConvertPointsResponse complete(ConvertPointsResponse missResponse) throws CrsConverterException {
+            List<String> operationsApplied = this.crsPair.getOperationsApplied();
+            if (missResponse != null) {
+                List<Point> converted = missResponse.getPoints();
+                int expected = this.missRequest.getPoints().size();
+                if (converted == null || converted.size() != expected) {
+                    // the points cannot be matched to the request, neither cache nor return them
+                    HttpResponse response = new HttpResponse();
+                    response.setResponseCode(HttpStatus.SC_BAD_GATEWAY);
+                    throw new CrsConverterException(String.format("CrsConverter returned %d points for %d requested",
+                            converted == null ? 0 : converted.size(), expected), response);
+                }
+                for (int i : this.misses) {
+                    Point point = converted.get(this.missIndex.get(this.keys[i]));
+                    CachingCrsConverterService.this.cache.put(this.keys[i], point);
+                    this.results[i] = point == null ? null : CrsPointCache.copy(point);
+                }
+                operationsApplied = missResponse.getOperationsApplied();
+                this.crsPair.setOperationsApplied(operationsApplied);
+            }
+            List<Point> points = new ArrayList<>(this.results.length);
+            int successCount = 0;
+            for (Point point : this.results) {
+                points.add(point);
+                if (point != null && point.getX() != null && point.getY() != null && point.getZ() != null
+                        && Point.isValid(point)) {
+                    successCount++;
+                }
+            }
+            return new ConvertPointsResponse(successCount, points, operationsApplied);
+        }
+    }
+}
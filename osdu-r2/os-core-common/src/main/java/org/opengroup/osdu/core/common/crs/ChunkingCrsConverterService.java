@@ -0,0 +1,361 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.model.crs.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Splits large point conversions into chunks of {@link CrsConverterAPIConfig#getChunkSize()} points, keeps at most
+ * {@link CrsConverterAPIConfig#getMaxConcurrentChunks()} of them in flight on the async path of the delegate and
+ * reassembles the responses in request order. A chunk answered with a different number of points than it was sent fails
+ * the whole conversion, since every later point would line up with the wrong input. A chunk failing with a throttling, server or connection error is
+ * retried on its own. Trajectories are not split, the stations are integrated along the well path, but get the same
+ * retries on the async path. Blocking calls that fit in a single chunk, and blocking trajectory calls, go straight to
+ * the blocking methods of the delegate; a blocking call that had to be split waits at most
+ * {@link CrsConverterAPIConfig#getRequestTimeoutMillis()}.
+ */
+public class ChunkingCrsConverterService implements ICrsConverterService {
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+    private static final ScheduledExecutorService RETRY_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("crs-chunk-retry-%d").setDaemon(true).build());
+
+    private final ICrsConverterService delegate;
+    private final int chunkSize;
+    private final int maxConcurrentChunks;
+    private final int maxChunkRetries;
+    private final long chunkRetryDelayMillis;
+    private final long requestTimeoutMillis;
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    ChunkingCrsConverterService(ICrsConverterService delegate, CrsConverterAPIConfig config) {
+        this.delegate = delegate;
+        this.chunkSize = Math.max(1, config.getChunkSize());
+        this.maxConcurrentChunks = Math.max(1, config.getMaxConcurrentChunks());
+        this.maxChunkRetries = Math.max(0, config.getMaxChunkRetries());
+        this.chunkRetryDelayMillis = Math.max(0, config.getChunkRetryDelayMillis());
+        this.requestTimeoutMillis = Math.max(0, config.getRequestTimeoutMillis());
+    }
+
+    @Override
+    public ConvertPointsResponse convertPoints(ConvertPointsRequest request) throws CrsConverterException {
+        List<Point> points = request.getPoints();
+        if (points == null || points.size() <= this.chunkSize) {
+            this.chunks.increment();
+            return this.delegate.convertPoints(request);
+        }
+        return this.join(this.convertPointsAsync(request));
+    }
+
+    @Override
+    public ConvertTrajectoryResponse convertTrajectory(ConvertTrajectoryRequest request) throws CrsConverterException {
+        return this.delegate.convertTrajectory(request);
+    }
+
+    @Override
+    public ConvertPointSetResponse convertPointSet(ConvertPointSetRequest request) throws CrsConverterException {
+        PointSet points = request.getPoints();
+        if (points == null || points.size() <= this.chunkSize) {
+            this.chunks.increment();
+            return this.delegate.convertPointSet(request);
+        }
+        return this.join(this.convertPointSetAsync(request));
+    }
+
+    @Override
+    public CompletableFuture<ConvertPointsResponse> convertPointsAsync(ConvertPointsRequest request) {
+        List<Point> points = request.getPoints();
+        if (points == null || points.size() <= this.chunkSize) {
+            this.chunks.increment();
+            return this.withRetries(() -> this.delegate.convertPointsAsync(request));
+        }
+        return this.dispatch(points.size(), index -> {
+            ConvertPointsRequest chunk = new ConvertPointsRequest(request.getFromCRS(), request.getToCRS(),
+                    new ArrayList<>(points.subList(index * this.chunkSize, Math.min(points.size(), (index + 1) * this.chunkSize))));
+            return this.withRetries(() -> this.delegate.convertPointsAsync(chunk)).thenCompose(response -> checkPointCount(
+                    response, response == null || response.getPoints() == null ? -1 : response.getPoints().size(),
+                    chunk.getPoints().size()));
+        }, results -> mergePoints(results, points.size()));
+    }
+
+    @Override
+    public CompletableFuture<ConvertTrajectoryResponse> convertTrajectoryAsync(ConvertTrajectoryRequest request) {
+        return this.withRetries(() -> this.delegate.convertTrajectoryAsync(request));
+    }
+
+    @Override
+    public CompletableFuture<ConvertPointSetResponse> convertPointSetAsync(ConvertPointSetRequest request) {
+        PointSet points = request.getPoints();
+        if (points == null || points.size() <= this.chunkSize) {
+            this.chunks.increment();
+            return this.withRetries(() -> this.delegate.convertPointSetAsync(request));
+        }
+        return this.dispatch(points.size(), index -> {
+            ConvertPointSetRequest chunk = new ConvertPointSetRequest(request.getFromCRS(), request.getToCRS(),
+                    points.slice(index * this.chunkSize, Math.min(points.size(), (index + 1) * this.chunkSize)));
+            return this.withRetries(() -> this.delegate.convertPointSetAsync(chunk)).thenCompose(response -> checkPointCount(
+                    response, response == null || response.getPoints() == null ? -1 : response.getPoints().size(),
+                    chunk.getPoints().size()));
+        }, results -> mergePointSets(results, points.size()));
+    }
+
+    public long getChunkCount() {
+        return this.chunks.sum();
+    }
+
+    public long getRetryCount() {
+        return this.retries.sum();
+    }
+
+    private <T> CompletableFuture<T> dispatch(int pointCount, IntFunction<CompletableFuture<T>> send,
+                                              Function<List<T>, T> merge) {
+        Dispatch<T> dispatch = new Dispatch<>((pointCount + this.chunkSize - 1) / this.chunkSize, send, merge);
+        for (int i = 0; i < Math.min(this.maxConcurrentChunks, dispatch.results.length()); i++) {
+            this.sendNext(dispatch);
+        }
+        return dispatch.output;
+    }
+
+    /**
+     * Sends chunks until one is still pending, so a delegate answering synchronously does not grow the stack.
+     */
+    private <T> void sendNext(Dispatch<T> dispatch) {
+        while (!dispatch.output.isDone()) {
+            int index = dispatch.next.getAndIncrement();
+            if (index >= dispatch.results.length()) {
+                return;
+            }
+            this.chunks.increment();
+            CompletableFuture<T> result = dispatch.send.apply(index);
+            if (!result.isDone()) {
+                result.whenComplete((response, e) -> {
+                    if (dispatch.complete(index, response, e)) {
+                        this.sendNext(dispatch);
+                    }
+                });
+                return;
+            }
+            T response = null;
+            Throwable failure = null;
+            try {
+                response = result.get();
+            } catch (ExecutionException | InterruptedException e) {
+                failure = e;
+            }
+            if (!dispatch.complete(index, response, failure)) {
+                return;
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> withRetries(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> output = new CompletableFuture<>();
+        this.attempt(call, 0, output);
+        return output;
+    }
+
+    private <T> void attempt(Supplier<CompletableFuture<T>> call, int attempt, CompletableFuture<T> output) {
+        CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+        }
+        result.whenComplete((response, e) -> {
+            if (e == null) {
+                output.complete(response);
+                return;
+            }
+            Throwable cause = unwrap(e);
+            if (attempt < this.maxChunkRetries && isRetryable(cause)) {
+                this.retries.increment();
+                RETRY_SCHEDULER.schedule(() -> this.attempt(call, attempt + 1, output),
+                        this.getBackoffMillis(attempt), TimeUnit.MILLISECONDS);
+            } else {
+                output.completeExceptionally(cause);
+            }
+        });
+    }
+
+    private long getBackoffMillis(int attempt) {
+        if (this.chunkRetryDelayMillis == 0) {
+            return 0;
+        }
+        long ceiling = this.chunkRetryDelayMillis << Math.min(attempt, 20);
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    private static <T> CompletableFuture<T> checkPointCount(T response, int returned, int expected) {
+        CompletableFuture<T> output = new CompletableFuture<>();
+        if (returned == expected) {
+            output.complete(response);
+        } else {
+            HttpResponse httpResponse = new HttpResponse();
+            httpResponse.setResponseCode(HttpStatus.SC_BAD_GATEWAY);
+            output.completeExceptionally(new CrsConverterException(String.format(
+                    "CrsConverter returned %d points for %d requested", Math.max(returned, 0), expected), httpResponse));
+        }
+        return output;
+    }
+
+    private static ConvertPointsResponse mergePoints(List<ConvertPointsResponse> results, int pointCount) {
+        ConvertPointsResponse output = new ConvertPointsResponse();
+        List<Point> points = new ArrayList<>(pointCount);
+        int successCount = 0;
+        for (ConvertPointsResponse result : results) {
+            if (result.getSuccessCount() != null) {
+                successCount += result.getSuccessCount();
+            }
+            if (result.getPoints() != null) {
+                points.addAll(result.getPoints());
+            }
+            if (output.getOperationsApplied() == null) {
+                output.setOperationsApplied(result.getOperationsApplied());
+            }
+        }
+        output.setSuccessCount(successCount);
+        output.setPoints(points);
+        return output;
+    }
+
+    private static ConvertPointSetResponse mergePointSets(List<ConvertPointSetResponse> results, int pointCount) {
+        ConvertPointSetResponse output = new ConvertPointSetResponse();
+        PointSet points = new PointSet(pointCount);
+        int successCount = 0;
+        for (ConvertPointSetResponse result : results) {
+            if (result.getSuccessCount() != null) {
+                successCount += result.getSuccessCount();
+            }
+            if (result.getPoints() != null) {
+                points.addAll(result.getPoints());
+            }
+            if (output.getOperationsApplied() == null) {
+                output.setOperationsApplied(result.getOperationsApplied());
+            }
+        }
+        output.setSuccessCount(successCount);
+        output.setPoints(points);
+        return output;
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        if (!(e instanceof CrsConverterException)) {
+            return false;
+        }
+        HttpResponse response = ((CrsConverterException) e).getHttpResponse();
+        return response != null && (response.getResponseCode() == 0 || response.hasException()
+                || response.getResponseCode() == SC_TOO_MANY_REQUESTS || response.isServerErrorCode());
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    private <T> T join(CompletableFuture<T> future) throws CrsConverterException {
+        try {
+            return this.requestTimeoutMillis > 0 ? future.get(this.requestTimeoutMillis, TimeUnit.MILLISECONDS)
+                    : future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof CrsConverterException) {
+                throw (CrsConverterException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        } catch (TimeoutException e) {
+            // a done future also stops the chunks that have not been sent yet
+            future.cancel(false);
+            throw abandoned(String.format("Conversion did not complete within %d ms", this.requestTimeoutMillis), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw abandoned("Interrupted while waiting for the conversion", e);
+        }
+    }
+
+    private static CrsConverterException abandoned(String message, Exception e) {
+        HttpResponse response = new HttpResponse();
+        response.setException(e);
+        return new CrsConverterException(message, response);
+    }
+
+    private static final class Dispatch<T> {
+        private final AtomicReferenceArray<T> results;
+        private final IntFunction<CompletableFuture<T>> send;
+        private final Function<List<T>, T> merge;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final CompletableFuture<T> output = new CompletableFuture<>();
+
+        private Dispatch(int chunkCount, IntFunction<CompletableFuture<T>> send, Function<List<T>, T> merge) {
+            this.results = new AtomicReferenceArray<>(chunkCount);
+            this.send = send;
+            this.merge = merge;
+            this.remaining = new AtomicInteger(chunkCount);
+        }
+
+        /**
+         * Records the outcome of a chunk and returns whether more chunks should be sent.
+         */
+        private boolean complete(int index, T response, Throwable failure) {
+            if (failure != null) {
+                this.output.completeExceptionally(unwrap(failure));
+                return false;
+            }
+            this.results.set(index, response);
+            if (this.remaining.decrementAndGet() == 0) {
+                List<T> responses = new ArrayList<>(this.results.length());
+                for (int i = 0; i < this.results.length(); i++) {
+                    responses.add(this.results.get(i));
+                }
+                this.output.complete(this.merge.apply(responses));
+                return false;
+            }
+            return true;
+        }
+    }
+}
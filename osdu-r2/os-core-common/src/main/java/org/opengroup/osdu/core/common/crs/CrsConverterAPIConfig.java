@@ -28,6 +28,33 @@ public class CrsConverterAPIConfig {
 
     String apiKey;
 
+    // points per request sent to the converter, 0 sends every request as is
+    @Builder.Default
+    int chunkSize = 10000;
+
+    @Builder.Default
+    int maxConcurrentChunks = 4;
+
+    @Builder.Default
+    int maxChunkRetries = 2;
+
+    @Builder.Default
+    long chunkRetryDelayMillis = 200;
+
+    // upper bound on a blocking conversion that had to be split into chunks, 0 waits without limit
+    @Builder.Default
+    long requestTimeoutMillis = 300000;
+
+    // converted points kept across requests of a factory, 0 disables the cache
+    @Builder.Default
+    long pointCacheSize = 0;
+
+    @Builder.Default
+    double pointCacheQuantum = 1.0e-9;
+
+    @Builder.Default
+    long pointCacheExpirationSeconds = 3600;
+
     public static CrsConverterAPIConfig Default() {
         return CrsConverterAPIConfig.builder().build();
     }
@@ -28,11 +28,31 @@ public class CrsConverterClientFactory extends AbstractFactoryBean<ICrsConverter
 	@Value("${CRS_API:}")
 	public String CRS_API;
 
+	@Value("${CRS_CONVERT_CHUNK_SIZE:10000}")
+	private int chunkSize;
+
+	@Value("${CRS_CONVERT_MAX_CONCURRENT_CHUNKS:4}")
+	private int maxConcurrentChunks;
+
+	@Value("${CRS_CONVERT_MAX_CHUNK_RETRIES:2}")
+	private int maxChunkRetries;
+
+	@Value("${CRS_POINT_CACHE_SIZE:0}")
+	private long pointCacheSize;
+
+	@Value("${CRS_POINT_CACHE_EXPIRATION_SECONDS:3600}")
+	private long pointCacheExpirationSeconds;
+
 	@Override
 	protected ICrsConverterFactory createInstance() throws Exception {
 		return new CrsConverterFactory(CrsConverterAPIConfig
 				.builder()
 				.rootUrl(CRS_API)
+				.chunkSize(chunkSize)
+				.maxConcurrentChunks(maxConcurrentChunks)
+				.maxChunkRetries(maxChunkRetries)
+				.pointCacheSize(pointCacheSize)
+				.pointCacheExpirationSeconds(pointCacheExpirationSeconds)
 				.build());
 	}
 
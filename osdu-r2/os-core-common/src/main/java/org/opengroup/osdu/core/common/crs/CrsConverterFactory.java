@@ -18,17 +18,24 @@
 package org.opengroup.osdu.core.common.crs;
 
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.http.AsyncHttpClient;
+import org.opengroup.osdu.core.common.http.CoalescingHttpClient;
 import org.opengroup.osdu.core.common.http.HttpClient;
+import org.opengroup.osdu.core.common.http.IHttpClient;
 
 public class CrsConverterFactory implements ICrsConverterFactory {
 
     private final CrsConverterAPIConfig config;
+    private final IHttpClient httpClient = new CoalescingHttpClient(new HttpClient());
+    private final CrsPointCache pointCache;
 
     public CrsConverterFactory(CrsConverterAPIConfig config) {
         if (config == null) {
             throw new IllegalArgumentException("CrsConverterAPIConfig cannot be empty");
         }
         this.config = config;
+        this.pointCache = config.getPointCacheSize() > 0 ? new CrsPointCache(config.getPointCacheSize(),
+                config.getPointCacheQuantum(), config.getPointCacheExpirationSeconds()) : null;
     }
 
     @Override
@@ -36,6 +43,17 @@ public class CrsConverterFactory implements ICrsConverterFactory {
         if (headers == null) {
             throw new NullPointerException("headers cannot be null");
         }
-        return new CrsConverterService(this.config, new HttpClient(), headers);
+        ICrsConverterService service = new CrsConverterService(this.config, this.httpClient, new AsyncHttpClient(), headers);
+        if (this.config.getChunkSize() > 0) {
+            service = new ChunkingCrsConverterService(service, this.config);
+        }
+        return this.pointCache == null ? service : new CachingCrsConverterService(service, this.pointCache);
+    }
+
+    /**
+     * The point cache shared by the services of this factory, null when disabled.
+     */
+    public CrsPointCache getPointCache() {
+        return this.pointCache;
     }
 }
@@ -22,19 +22,25 @@ import org.apache.commons.lang3.StringUtils;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.crs.*;
 import org.opengroup.osdu.core.common.http.HttpRequest;
+import org.opengroup.osdu.core.common.http.IAsyncHttpClient;
 import org.opengroup.osdu.core.common.http.HttpResponse;
 import org.opengroup.osdu.core.common.http.IHttpClient;
 
+import java.util.concurrent.CompletableFuture;
+
 public class CrsConverterService implements ICrsConverterService {
     private final String rootUrl;
     private final IHttpClient httpClient;
+    private final IAsyncHttpClient asyncHttpClient;
     private final DpsHeaders headers;
 
     CrsConverterService(CrsConverterAPIConfig config,
                         IHttpClient httpClient,
+                        IAsyncHttpClient asyncHttpClient,
                         DpsHeaders headers) {
         this.rootUrl = config.getRootUrl();
         this.httpClient = httpClient;
+        this.asyncHttpClient = asyncHttpClient;
         this.headers = headers;
         if (config.apiKey != null) {
             headers.put("AppKey", config.apiKey);
@@ -55,6 +61,34 @@ public class CrsConverterService implements ICrsConverterService {
         return this.getResult(result, ConvertTrajectoryResponse.class);
     }
 
+    @Override
+    public CompletableFuture<ConvertPointsResponse> convertPointsAsync(ConvertPointsRequest request) {
+        String url = this.createUrl("/convert");
+        return this.asyncHttpClient.sendAsync(HttpRequest.post(request).url(url).headers(this.headers.getHeaders()).build())
+                .thenCompose(result -> this.getResultAsync(result, ConvertPointsResponse.class));
+    }
+
+    @Override
+    public CompletableFuture<ConvertTrajectoryResponse> convertTrajectoryAsync(ConvertTrajectoryRequest request) {
+        String url = this.createUrl("/convertTrajectory");
+        return this.asyncHttpClient.sendAsync(HttpRequest.post(request).url(url).headers(this.headers.getHeaders()).build())
+                .thenCompose(result -> this.getResultAsync(result, ConvertTrajectoryResponse.class));
+    }
+
+    @Override
+    public ConvertPointSetResponse convertPointSet(ConvertPointSetRequest request) throws CrsConverterException {
+        String url = this.createUrl("/convert");
+        HttpResponse result = this.httpClient.send(HttpRequest.post(request).url(url).headers(this.headers.getHeaders()).build());
+        return this.getResult(result, ConvertPointSetResponse.class);
+    }
+
+    @Override
+    public CompletableFuture<ConvertPointSetResponse> convertPointSetAsync(ConvertPointSetRequest request) {
+        String url = this.createUrl("/convert");
+        return this.asyncHttpClient.sendAsync(HttpRequest.post(request).url(url).headers(this.headers.getHeaders()).build())
+                .thenCompose(result -> this.getResultAsync(result, ConvertPointSetResponse.class));
+    }
+
     private CrsConverterException generateException(HttpResponse result) {
         return new CrsConverterException(
                 "Error making request to CrsConverter service. Check the inner HttpResponse for more info.", result);
@@ -76,4 +110,14 @@ public class CrsConverterService implements ICrsConverterService {
             throw this.generateException(result);
         }
     }
+
+    private <T> CompletableFuture<T> getResultAsync(HttpResponse result, Class<T> type) {
+        CompletableFuture<T> output = new CompletableFuture<>();
+        try {
+            output.complete(this.getResult(result, type));
+        } catch (CrsConverterException e) {
+            output.completeExceptionally(e);
+        }
+        return output;
+    }
 }
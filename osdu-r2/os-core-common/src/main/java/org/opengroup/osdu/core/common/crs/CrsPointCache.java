@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.EqualsAndHashCode;
+import org.opengroup.osdu.core.common.model.crs.Point;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Converted points keyed by source CRS, target CRS and the source coordinate rounded to a multiple of the quantum.
+ * Shared by all {@link CachingCrsConverterService} instances of a {@link CrsConverterFactory}; conversions do not
+ * depend on the caller, so entries are not scoped by tenant.
+ */
+public class CrsPointCache {
+    private static final int MAX_CRS_PAIRS = 1024;
+
+    private final Cache<Key, Point> points;
+    private final Cache<CrsPair, CrsPair> crsPairs = CacheBuilder.newBuilder().maximumSize(MAX_CRS_PAIRS).build();
+    private final double quantum;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CrsPointCache(long maximumSize, double quantum, long expirationSeconds) {
+        if (!(quantum > 0)) {
+            throw new IllegalArgumentException("quantum must be positive");
+        }
+        this.points = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expirationSeconds, TimeUnit.SECONDS)
+                .build();
+        this.quantum = quantum;
+    }
+
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    public double getHitRate() {
+        long hits = this.hits.sum();
+        long total = hits + this.misses.sum();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    public long size() {
+        return this.points.size();
+    }
+
+    public void invalidateAll() {
+        this.points.invalidateAll();
+        this.crsPairs.invalidateAll();
+    }
+
+    /**
+     * Returns the key of the point for the given CRS pair, or null for points that cannot be cached.
+     */
+    Key createKey(CrsPair crsPair, Point point) {
+        if (point == null || point.getX() == null || point.getY() == null || point.getZ() == null || !Point.isValid(point)) {
+            return null;
+        }
+        return new Key(crsPair, this.quantize(point.getX()), this.quantize(point.getY()), this.quantize(point.getZ()));
+    }
+
+    /**
+     * Bits of the coordinate rounded to a multiple of the quantum. Unlike a long count of quanta this cannot
+     * overflow, a coordinate too large for the quantum simply keys on its own value.
+     */
+    private long quantize(double value) {
+        // adding 0.0 turns -0.0 into 0.0, so both round to the same key
+        return Double.doubleToLongBits(Math.rint(value / this.quantum) + 0.0);
+    }
+
+    CrsPair getCrsPair(String fromCRS, String toCRS) {
+        CrsPair pair = new CrsPair(fromCRS, toCRS);
+        try {
+            return this.crsPairs.get(pair, () -> pair);
+        } catch (ExecutionException e) {
+            return pair;
+        }
+    }
+
+    Point get(Key key) {
+        Point point = this.points.getIfPresent(key);
+        if (point == null) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        return copy(point);
+    }
+
+    void put(Key key, Point point) {
+        if (key != null && point != null && point.getX() != null && point.getY() != null && point.getZ() != null
+                && Point.isValid(point)) {
+            this.points.put(key, copy(point));
+        }
+    }
+
+    static Point copy(Point point) {
+        return new Point(point.getX(), point.getY(), point.getZ());
+    }
+
+    @EqualsAndHashCode
+    static final class Key {
+        private final CrsPair crsPair;
+        private final long x;
+        private final long y;
+        private final long z;
+
+        private Key(CrsPair crsPair, long x, long y, long z) {
+            this.crsPair = crsPair;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+
+    /**
+     * One instance per CRS pair, so keys do not each hold a copy of the CRS strings. Also remembers the operations
+     * the converter reported for the pair, to answer requests served entirely from the cache.
+     */
+    @EqualsAndHashCode(of = {"fromCRS", "toCRS"})
+    static final class CrsPair {
+        private final String fromCRS;
+        private final String toCRS;
+        private volatile List<String> operationsApplied;
+
+        private CrsPair(String fromCRS, String toCRS) {
+            this.fromCRS = fromCRS;
+            this.toCRS = toCRS;
+        }
+
+        List<String> getOperationsApplied() {
+            return this.operationsApplied;
+        }
+
+        void setOperationsApplied(List<String> operationsApplied) {
+            this.operationsApplied = operationsApplied;
+        }
+    }
+}
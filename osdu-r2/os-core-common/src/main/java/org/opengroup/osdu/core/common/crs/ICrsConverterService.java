@@ -19,8 +19,47 @@ package org.opengroup.osdu.core.common.crs;
 
 import org.opengroup.osdu.core.common.model.crs.*;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface ICrsConverterService {
     ConvertPointsResponse convertPoints(ConvertPointsRequest request) throws CrsConverterException;
 
     ConvertTrajectoryResponse convertTrajectory(ConvertTrajectoryRequest request) throws CrsConverterException;
+
+    /**
+     * Runs {@link #convertPoints} on the calling thread unless overridden.
+     */
+    default CompletableFuture<ConvertPointsResponse> convertPointsAsync(ConvertPointsRequest request) {
+        CompletableFuture<ConvertPointsResponse> output = new CompletableFuture<>();
+        try {
+            output.complete(this.convertPoints(request));
+        } catch (CrsConverterException | RuntimeException e) {
+            output.completeExceptionally(e);
+        }
+        return output;
+    }
+
+    /**
+     * Runs {@link #convertTrajectory} on the calling thread unless overridden.
+     */
+    default CompletableFuture<ConvertTrajectoryResponse> convertTrajectoryAsync(ConvertTrajectoryRequest request) {
+        CompletableFuture<ConvertTrajectoryResponse> output = new CompletableFuture<>();
+        try {
+            output.complete(this.convertTrajectory(request));
+        } catch (CrsConverterException | RuntimeException e) {
+            output.completeExceptionally(e);
+        }
+        return output;
+    }
+
+    /**
+     * Converts packed points; implementations that do not override it go through {@link #convertPoints}.
+     */
+    default ConvertPointSetResponse convertPointSet(ConvertPointSetRequest request) throws CrsConverterException {
+        return ConvertPointSetResponse.fromPointsResponse(this.convertPoints(request.toPointsRequest()));
+    }
+
+    default CompletableFuture<ConvertPointSetResponse> convertPointSetAsync(ConvertPointSetRequest request) {
+        return this.convertPointsAsync(request.toPointsRequest()).thenApply(ConvertPointSetResponse::fromPointsResponse);
+    }
 }
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.opengroup.osdu.core.common.model.crs.ConversionRecord;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts the unit blocks of a single record to SI without building the record as a Gson tree. The first pass
+ * keeps the meta array and a scalar stand-in for every targeted data property, runs them through
+ * {@link UnitConversionImpl} so that status and messages are the same, and the last pass copies the record token
+ * by token into the output while substituting the converted values. Memory use depends on the meta block, not on
+ * the size of the data.
+ */
+public class StreamingUnitConversion {
+
+    @FunctionalInterface
+    public interface RecordSource {
+        InputStream open() throws IOException;
+    }
+
+    private static final String KIND = "kind";
+    private static final String UNIT = "unit";
+    private static final String META = "meta";
+    private static final String DATA = "data";
+    private static final String PROPERTY_NAMES = "propertyNames";
+
+    private static final Gson GSON = new GsonBuilder().serializeSpecialFloatingPointValues().create();
+
+    private final UnitConversionImpl unitConversion = new UnitConversionImpl(false);
+
+    public ConversionRecord convertToSI(byte[] record, OutputStream output) throws IOException {
+        return this.convertToSI(() -> new ByteArrayInputStream(record), output);
+    }
+
+    public ConversionRecord convertToSI(Path record, OutputStream output) throws IOException {
+        return this.convertToSI(() -> Files.newInputStream(record), output);
+    }
+
+    /**
+     * Reads the record from the source, which is opened two or three times, and writes the converted record to the
+     * output. The returned {@link ConversionRecord} carries the status and messages only.
+     */
+    public ConversionRecord convertToSI(RecordSource source, OutputStream output) throws IOException {
+        Scan scan = new Scan();
+        try (JsonReader reader = openReader(source)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (META.equals(name) && scan.meta == null) {
+                    scan.meta = new JsonParser().parse(reader);
+                } else if (DATA.equals(name) && scan.meta != null && !scan.dataScanned) {
+                    scan.scanData(reader);
+                } else {
+                    scan.dataPending |= DATA.equals(name);
+                    reader.skipValue();
+                }
+            }
+        }
+        if (scan.meta != null && scan.dataPending && !scan.dataScanned) {
+            try (JsonReader reader = openReader(source)) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (DATA.equals(reader.nextName()) && !scan.dataScanned) {
+                        scan.scanData(reader);
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+            }
+        }
+
+        JsonObject stub = new JsonObject();
+        if (scan.meta != null) {
+            stub.add(META, scan.meta);
+        }
+        if (scan.data != null) {
+            stub.add(DATA, scan.data);
+        }
+        Map<JsonElement, Boolean> originals = new IdentityHashMap<>();
+        if (scan.data instanceof JsonObject) {
+            for (Map.Entry<String, JsonElement> entry : ((JsonObject) scan.data).entrySet()) {
+                originals.put(entry.getValue(), Boolean.TRUE);
+            }
+        }
+        ConversionRecord result = ConversionRecord.builder().recordJsonObject(stub).build();
+        this.unitConversion.convertUnitsToSI(Collections.singletonList(result));
+
+        // converted properties were removed and re-added by the conversion, so they now trail the data object
+        Set<String> converted = new LinkedHashSet<>();
+        if (scan.data instanceof JsonObject) {
+            for (Map.Entry<String, JsonElement> entry : ((JsonObject) scan.data).entrySet()) {
+                if (!originals.containsKey(entry.getValue())) {
+                    converted.add(entry.getKey());
+                }
+            }
+        }
+
+        JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+        writer.setLenient(true);
+        try (JsonReader reader = openReader(source)) {
+            reader.beginObject();
+            writer.beginObject();
+            boolean metaWritten = false;
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                writer.name(name);
+                if (META.equals(name) && !metaWritten && scan.meta != null) {
+                    reader.skipValue();
+                    GSON.toJson(scan.meta, writer);
+                    metaWritten = true;
+                } else if (DATA.equals(name) && !converted.isEmpty() && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    writeData(reader, writer, (JsonObject) scan.data, converted);
+                    converted = Collections.emptySet();
+                } else {
+                    copy(reader, writer);
+                }
+            }
+            reader.endObject();
+            writer.endObject();
+        }
+        writer.flush();
+
+        result.setRecordJsonObject(null);
+        return result;
+    }
+
+    private static void writeData(JsonReader reader, JsonWriter writer, JsonObject data, Set<String> converted)
+            throws IOException {
+        reader.beginObject();
+        writer.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (converted.contains(name)) {
+                reader.skipValue();
+            } else {
+                writer.name(name);
+                copy(reader, writer);
+            }
+        }
+        for (String name : converted) {
+            writer.name(name);
+            GSON.toJson(data.get(name), writer);
+        }
+        reader.endObject();
+        writer.endObject();
+    }
+
+    private static void copy(JsonReader reader, JsonWriter writer) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_ARRAY:
+                reader.beginArray();
+                writer.beginArray();
+                while (reader.hasNext()) {
+                    copy(reader, writer);
+                }
+                reader.endArray();
+                writer.endArray();
+                break;
+            case BEGIN_OBJECT:
+                reader.beginObject();
+                writer.beginObject();
+                while (reader.hasNext()) {
+                    writer.name(reader.nextName());
+                    copy(reader, writer);
+                }
+                reader.endObject();
+                writer.endObject();
+                break;
+            case STRING:
+                writer.value(reader.nextString());
+                break;
+            case NUMBER:
+                // the reader already validated the literal, copying it verbatim keeps its exact text
+                writer.jsonValue(reader.nextString());
+                break;
+            case BOOLEAN:
+                writer.value(reader.nextBoolean());
+                break;
+            case NULL:
+                reader.nextNull();
+                writer.nullValue();
+                break;
+            default:
+                throw new IllegalStateException("Unexpected token " + reader.peek());
+        }
+    }
+
+    private static JsonReader openReader(RecordSource source) throws IOException {
+        JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(source.open(), StandardCharsets.UTF_8)));
+        reader.setLenient(true);
+        return reader;
+    }
+
+    /**
+     * Returns an element that behaves like the value at the reader position for {@link JsonElement#getAsDouble()},
+     * without materializing arrays or objects.
+     */
+    private static JsonElement readStandIn(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case NUMBER:
+                return new JsonPrimitive(new BigDecimal(reader.nextString()));
+            case STRING:
+                return new JsonPrimitive(reader.nextString());
+            case BOOLEAN:
+                return new JsonPrimitive(reader.nextBoolean());
+            case NULL:
+                reader.nextNull();
+                return JsonNull.INSTANCE;
+            case BEGIN_ARRAY:
+                JsonArray output = new JsonArray();
+                reader.beginArray();
+                if (reader.hasNext()) {
+                    output.add(readStandIn(reader));
+                }
+                if (reader.hasNext()) {
+                    // only the size matters for arrays longer than one element
+                    output.add(JsonNull.INSTANCE);
+                    while (reader.hasNext()) {
+                        reader.skipValue();
+                    }
+                }
+                reader.endArray();
+                return output;
+            default:
+                reader.skipValue();
+                return new JsonObject();
+        }
+    }
+
+    private static final class Scan {
+        private JsonElement meta;
+        private JsonElement data;
+        private boolean dataScanned;
+        private boolean dataPending;
+
+        private void scanData(JsonReader reader) throws IOException {
+            this.dataScanned = true;
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                this.data = JsonNull.INSTANCE;
+                return;
+            }
+            Set<String> targets = this.getTargets();
+            JsonObject output = new JsonObject();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (targets.contains(name)) {
+                    output.add(name, readStandIn(reader));
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            this.data = output;
+        }
+
+        private Set<String> getTargets() {
+            Set<String> output = new HashSet<>();
+            if (!this.meta.isJsonArray()) {
+                return output;
+            }
+            for (JsonElement element : this.meta.getAsJsonArray()) {
+                if (!element.isJsonObject()) {
+                    continue;
+                }
+                JsonObject block = element.getAsJsonObject();
+                JsonElement kind = block.get(KIND);
+                JsonElement names = block.get(PROPERTY_NAMES);
+                if (kind == null || !kind.isJsonPrimitive() || !UNIT.equalsIgnoreCase(kind.getAsString())
+                        || names == null || !names.isJsonArray()) {
+                    continue;
+                }
+                for (JsonElement name : names.getAsJsonArray()) {
+                    if (name.isJsonPrimitive()) {
+                        output.add(name.getAsString());
+                    }
+                }
+            }
+            return output;
+        }
+    }
+}
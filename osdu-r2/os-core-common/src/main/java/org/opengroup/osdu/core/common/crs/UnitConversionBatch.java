@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import com.google.gson.JsonObject;
+import org.opengroup.osdu.core.common.model.units.IUnit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the values to convert to SI, grouped into primitive columns per unit, converts every column in one pass
+ * and writes the results back in the order the values were added. A property that is added again before
+ * {@link #execute()} is chained through the previous unit, exactly as converting it twice in place would.
+ */
+class UnitConversionBatch {
+    static final int BLOCK_SIZE = 4096;
+    static final int PARALLEL_THRESHOLD = 16 * BLOCK_SIZE;
+
+    private final boolean parallel;
+    private final Map<IUnit, Column> columns = new IdentityHashMap<>();
+    private final Map<JsonObject, Map<String, Slot>> pendingSlots = new IdentityHashMap<>();
+    private final List<Slot> slots = new ArrayList<>();
+
+    UnitConversionBatch(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    void add(JsonObject data, String name, IUnit unit, double value) {
+        Map<String, Slot> pending = this.pendingSlots.computeIfAbsent(data, k -> new HashMap<>());
+        Slot previous = pending.get(name);
+        if (previous != null) {
+            previous.superseded = true;
+            value = previous.column.unit.convertToSI(previous.column.get(previous.index));
+        }
+        Column column = this.columns.computeIfAbsent(unit, Column::new);
+        Slot slot = new Slot(data, name, column, column.add(value));
+        pending.put(name, slot);
+        this.slots.add(slot);
+    }
+
+    void execute() {
+        List<Block> blocks = new ArrayList<>();
+        for (Column column : this.columns.values()) {
+            for (double[] values : column.blocks) {
+                blocks.add(new Block(column.unit, values));
+            }
+        }
+        if (this.parallel && this.slots.size() >= PARALLEL_THRESHOLD) {
+            blocks.parallelStream().forEach(Block::convert);
+        } else {
+            blocks.forEach(Block::convert);
+        }
+
+        for (Slot slot : this.slots) {
+            if (!slot.superseded) {
+                slot.data.remove(slot.name);
+                slot.data.addProperty(slot.name, slot.column.get(slot.index));
+            }
+        }
+    }
+
+    private static final class Column {
+        private final IUnit unit;
+        private final List<double[]> blocks = new ArrayList<>();
+        private int size;
+
+        private Column(IUnit unit) {
+            this.unit = unit;
+        }
+
+        private int add(double value) {
+            int offset = this.size % BLOCK_SIZE;
+            if (offset == 0) {
+                this.blocks.add(new double[BLOCK_SIZE]);
+            }
+            this.blocks.get(this.blocks.size() - 1)[offset] = value;
+            return this.size++;
+        }
+
+        private double get(int index) {
+            return this.blocks.get(index / BLOCK_SIZE)[index % BLOCK_SIZE];
+        }
+    }
+
+    private static final class Block {
+        private final IUnit unit;
+        private final double[] values;
+
+        private Block(IUnit unit, double[] values) {
+            this.unit = unit;
+            this.values = values;
+        }
+
+        private void convert() {
+            this.unit.convertToSI(this.values);
+        }
+    }
+
+    private static final class Slot {
+        private final JsonObject data;
+        private final String name;
+        private final Column column;
+        private final int index;
+        private boolean superseded;
+
+        private Slot(JsonObject data, String name, Column column, int index) {
+            this.data = data;
+            this.name = name;
+            this.column = column;
+            this.index = index;
+        }
+    }
+}
@@ -50,13 +50,29 @@ public class UnitConversionImpl {
     public static final String UNIT_CONVERSION_FAILURE = "Unit conversion: failure";
     public static final String NO_UNIT_CONVERSION = "No unit conversion";
 
+    private final boolean parallel;
+
+    public UnitConversionImpl() {
+        this(true);
+    }
+
+    /**
+     * @param parallel whether large batches may be converted on the common ForkJoin pool
+     */
+    public UnitConversionImpl(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     public void convertUnitsToSI(List<ConversionRecord> conversionRecords) {
+        // values are validated and collected per record first, then converted column by column
+        UnitConversionBatch batch = new UnitConversionBatch(this.parallel);
         for (int i = 0; i < conversionRecords.size(); i++) {
-            this.convertRecordToSIUnits(conversionRecords.get(i));
+            this.convertRecordToSIUnits(conversionRecords.get(i), batch);
         }
+        batch.execute();
     }
 
-    private void convertRecordToSIUnits(ConversionRecord conversionRecord) {
+    private void convertRecordToSIUnits(ConversionRecord conversionRecord, UnitConversionBatch batch) {
         if(null == conversionRecord) {
             return;
         }
@@ -129,9 +145,7 @@ public class UnitConversionImpl {
                     }
                     try {
                         double value = valueElement.getAsDouble();
-                        value = unit.convertToSI(value);
-                        data.remove(name);
-                        data.addProperty(name, value);
+                        batch.add(data, name, unit, value);
                         unitConverted = true;
                         isRecordUpdated = true;
                     }
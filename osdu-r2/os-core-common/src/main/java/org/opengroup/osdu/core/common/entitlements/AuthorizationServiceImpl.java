@@ -27,6 +27,8 @@ import org.opengroup.osdu.core.common.provider.interfaces.IAuthorizationService;
 import org.opengroup.osdu.core.common.http.HeadersUtil;
 import org.opengroup.osdu.core.common.http.HttpResponse;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
@@ -39,10 +41,10 @@ import java.util.stream.Collectors;
 @Lazy
 public class AuthorizationServiceImpl implements IAuthorizationService {
 
-    private static final String TENANT_GROUP_FORMAT = "@%s";
-
     @Inject
     private IEntitlementsFactory factory;
+    @Autowired
+    private ObjectProvider<IEntitlementsAndCacheService> entitlementsCache;
     @Inject
     @Lazy
     private JaxRsDpsLog jaxRsDpsLog;
@@ -50,9 +52,9 @@ public class AuthorizationServiceImpl implements IAuthorizationService {
     @Override
     public AuthorizationResponse authorizeAny(DpsHeaders headers, String... roles) {
         AuthorizationResponse authorizationResponse = null;
-        IEntitlementsService service = factory.create(headers);
         try {
-            authorizationResponse = authorizeAny(headers, service.getGroups(), roles);
+            Groups groups = getGroups(headers);
+            authorizationResponse = authorizeAny(headers, groups, groups != null && groups.any(roles));
         } catch (EntitlementsException e) {
             handleEntitlementsException(e, headers);
         }
@@ -61,28 +63,29 @@ public class AuthorizationServiceImpl implements IAuthorizationService {
 
     @Override
     public AuthorizationResponse authorizeAny(String tenantName, DpsHeaders headers, String... roles) {
-        IEntitlementsService service = factory.create(headers);
         AuthorizationResponse authorizationResponse = null;
         try {
-            Groups groups = service.getGroups();
-            List<GroupInfo> allGroups = new ArrayList<>(groups.getGroups());
-            groups.setGroups(groups.getGroups().stream().filter(groupInfo -> groupInfo.getEmail()
-                    .contains(String.format(TENANT_GROUP_FORMAT, tenantName))).collect(Collectors.toList()));
-
-            authorizationResponse = authorizeAny(headers, groups, roles);
-            groups.setGroups(allGroups);
+            Groups groups = getGroups(headers);
+            authorizationResponse = authorizeAny(headers, groups, groups != null && groups.anyInTenant(tenantName, roles));
         } catch (EntitlementsException e) {
             handleEntitlementsException(e, headers);
         }
         return authorizationResponse;
     }
 
+    private Groups getGroups(DpsHeaders headers) throws EntitlementsException {
+        // a service registering several IEntitlementsAndCacheService beans simply goes without the cache
+        IEntitlementsAndCacheService cache = entitlementsCache == null ? null : entitlementsCache.getIfUnique();
+        Groups groups = cache == null ? null : cache.getGroups(headers);
+        return groups != null ? groups : factory.create(headers).getGroups();
+    }
+
     private void handleEntitlementsException(EntitlementsException e, DpsHeaders headers) {
         HttpResponse response = e.getHttpResponse();
         throw new AppException(response.getResponseCode(), "Access denied", "The user is not authorized to perform this action", HeadersUtil.toLogMsg(headers, null), e);
     }
 
-    private AuthorizationResponse authorizeAny(DpsHeaders headers, Groups groups, String... roles) {
+    private AuthorizationResponse authorizeAny(DpsHeaders headers, Groups groups, boolean authorized) {
         String userEmail = null;
         List<String> logMessages = new ArrayList<>();
         Long curTimeStamp = System.currentTimeMillis();
@@ -92,7 +95,7 @@ public class AuthorizationServiceImpl implements IAuthorizationService {
         logMessages.add(String.format("groups: %s", getEmailFromGroups(groups)));
         if (groups != null) {
             userEmail = groups.getMemberEmail();
-            if (groups.any(roles)) {
+            if (authorized) {
                 return AuthorizationResponse.builder().user(userEmail).groups(groups).build();
             }
         }
@@ -28,6 +28,8 @@ public class EntitlementsAPIConfig {
 
     String apiKey;
 
+    LocalTokenVerifier tokenVerifier;
+
     public static EntitlementsAPIConfig Default() {
         return EntitlementsAPIConfig.builder().build();
     }
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.entitlements;
+
+import com.google.common.base.Strings;
+import com.google.common.hash.Hashing;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.cache.ICache;
+import org.opengroup.osdu.core.common.cache.RedisCache;
+import org.opengroup.osdu.core.common.cache.VmCache;
+import org.opengroup.osdu.core.common.http.HeadersUtil;
+import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.model.entitlements.EntitlementsException;
+import org.opengroup.osdu.core.common.model.entitlements.GroupInfo;
+import org.opengroup.osdu.core.common.model.entitlements.Groups;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the groups of a caller under a hash of its (authorization token, partition) pair. Successful lookups
+ * live until the configured expiration or the token expiry, whichever comes first; 401 and 403 answers from
+ * Entitlements are cached for a shorter period so that invalid tokens do not hit the service on every call.
+ * Concurrent misses for the same key share one call to Entitlements. Only registered when ENTITLEMENTS_CACHE_ENABLED
+ * is true.
+ */
+@Service
+@Lazy
+@ConditionalOnProperty(name = "ENTITLEMENTS_CACHE_ENABLED", havingValue = "true")
+public class EntitlementsAndCacheServiceImpl implements IEntitlementsAndCacheService {
+
+    @Value("${ENTITLEMENTS_CACHE_EXPIRATION_SECONDS:60}")
+    private int expirationSeconds = 60;
+
+    @Value("${ENTITLEMENTS_CACHE_NEGATIVE_EXPIRATION_SECONDS:10}")
+    private int negativeExpirationSeconds = 10;
+
+    @Value("${ENTITLEMENTS_CACHE_MAX_SIZE:10000}")
+    private int maxSize = 10000;
+
+    @Value("${ENTITLEMENTS_CACHE_REDIS_HOST:}")
+    private String redisHost;
+
+    @Value("${ENTITLEMENTS_CACHE_REDIS_PORT:6379}")
+    private int redisPort = 6379;
+
+    @Inject
+    private IEntitlementsFactory factory;
+
+    private ICache<String, GroupCacheEntry> cache;
+    private final ConcurrentMap<String, CompletableFuture<GroupCacheEntry>> loading = new ConcurrentHashMap<>();
+
+    public EntitlementsAndCacheServiceImpl() {
+    }
+
+    public EntitlementsAndCacheServiceImpl(IEntitlementsFactory factory, ICache<String, GroupCacheEntry> cache) {
+        this.factory = factory;
+        this.cache = cache;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (this.cache != null) {
+            return;
+        }
+        if (Strings.isNullOrEmpty(this.redisHost)) {
+            this.cache = new VmCache<>(this.expirationSeconds, this.maxSize);
+        } else {
+            this.cache = new RedisCache<>(this.redisHost, this.redisPort, this.expirationSeconds,
+                    String.class, GroupCacheEntry.class);
+        }
+    }
+
+    @Override
+    public String authorize(DpsHeaders headers, String... roles) {
+        Groups groups = this.getGroupsOrThrow(headers);
+        if (groups.any(roles)) {
+            return groups.getDesId();
+        }
+        throw AppException.createForbidden(HeadersUtil.toLogMsg(headers, groups.getMemberEmail()));
+    }
+
+    @Override
+    public boolean isValidAcl(DpsHeaders headers, Set<String> acls) {
+        Groups groups = this.getGroupsOrThrow(headers);
+        if (groups.getGroups() == null || groups.getGroups().isEmpty()) {
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Unknown error",
+                    "Unknown error happened when validating ACL");
+        }
+        String domain = getDomain(groups.getGroups().get(0));
+        if (domain == null) {
+            throw new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Unknown error",
+                    "Unknown error happened when validating ACL");
+        }
+        for (String acl : acls) {
+            String[] parts = acl.split("@");
+            if (parts.length != 2 || !parts[1].equalsIgnoreCase(domain)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a copy of the caller's groups, from the cache when possible. Cached failures are rethrown as the
+     * original {@link EntitlementsException} status.
+     */
+    @Override
+    public Groups getGroups(DpsHeaders headers) throws EntitlementsException {
+        return copy(this.getCachedGroups(headers));
+    }
+
+    public void invalidate(DpsHeaders headers) {
+        this.getCache().delete(createKey(headers));
+    }
+
+    public void invalidateAll() {
+        this.getCache().clearAll();
+    }
+
+    // the cached instance is shared by every request with the same token, only read it here
+    private Groups getCachedGroups(DpsHeaders headers) throws EntitlementsException {
+        String key = createKey(headers);
+        long now = System.currentTimeMillis();
+        GroupCacheEntry entry = this.getCache().get(key);
+        if (entry == null || entry.isExpired(now)) {
+            entry = this.loadOnce(key, headers, now);
+        }
+        if (entry.isFailure()) {
+            HttpResponse response = new HttpResponse();
+            response.setResponseCode(entry.getErrorCode());
+            throw new EntitlementsException("Cached failure from Entitlements service", response);
+        }
+        return entry.getGroups();
+    }
+
+    private GroupCacheEntry loadOnce(String key, DpsHeaders headers, long now) throws EntitlementsException {
+        CompletableFuture<GroupCacheEntry> future = new CompletableFuture<>();
+        CompletableFuture<GroupCacheEntry> running = this.loading.putIfAbsent(key, future);
+        if (running == null) {
+            try {
+                GroupCacheEntry entry = this.load(headers, now);
+                this.getCache().put(key, entry);
+                future.complete(entry);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                this.loading.remove(key, future);
+            }
+            running = future;
+        }
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof EntitlementsException) {
+                throw (EntitlementsException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+    private GroupCacheEntry load(DpsHeaders headers, long now) throws EntitlementsException {
+        try {
+            Groups groups = this.factory.create(headers).getGroups();
+            return GroupCacheEntry.success(groups, this.getExpiresAt(headers, now));
+        } catch (EntitlementsException e) {
+            int code = e.getHttpResponse() == null ? 0 : e.getHttpResponse().getResponseCode();
+            if (code == HttpStatus.SC_UNAUTHORIZED || code == HttpStatus.SC_FORBIDDEN) {
+                this.getCache().put(createKey(headers),
+                        GroupCacheEntry.failure(code, now + this.negativeExpirationSeconds * 1000L));
+            }
+            throw e;
+        }
+    }
+
+    private long getExpiresAt(DpsHeaders headers, long now) {
+        long expiresAt = now + this.expirationSeconds * 1000L;
+        Date tokenExpiry = HeadersUtil.getExpiresAt(headers.getAuthorization());
+        return tokenExpiry == null ? expiresAt : Math.min(expiresAt, tokenExpiry.getTime());
+    }
+
+    private Groups getGroupsOrThrow(DpsHeaders headers) {
+        try {
+            return this.getCachedGroups(headers);
+        } catch (EntitlementsException e) {
+            HttpResponse response = e.getHttpResponse();
+            int code = response == null || response.getResponseCode() == 0 ?
+                    HttpStatus.SC_INTERNAL_SERVER_ERROR : response.getResponseCode();
+            throw new AppException(code, "Access denied", "The user is not authorized to perform this action",
+                    HeadersUtil.toLogMsg(headers, null), e);
+        }
+    }
+
+    private ICache<String, GroupCacheEntry> getCache() {
+        if (this.cache == null) {
+            this.init();
+        }
+        return this.cache;
+    }
+
+    private static Groups copy(Groups groups) {
+        if (groups == null) {
+            return null;
+        }
+        Groups output = new Groups();
+        output.setMemberEmail(groups.getMemberEmail());
+        output.setDesId(groups.getDesId());
+        if (groups.getGroups() == null) {
+            output.setGroups(null);
+            return output;
+        }
+        List<GroupInfo> infos = new ArrayList<>(groups.getGroups().size());
+        for (GroupInfo group : groups.getGroups()) {
+            GroupInfo info = null;
+            if (group != null) {
+                info = new GroupInfo();
+                info.setName(group.getName());
+                info.setEmail(group.getEmail());
+                info.setDescription(group.getDescription());
+            }
+            infos.add(info);
+        }
+        output.setGroups(infos);
+        return output;
+    }
+
+    private static String getDomain(GroupInfo group) {
+        String email = group.getEmail();
+        if (email == null) {
+            return null;
+        }
+        String[] parts = email.split("@");
+        return parts.length == 2 ? parts[1] : null;
+    }
+
+    static String createKey(DpsHeaders headers) {
+        String token = Strings.nullToEmpty(headers.getAuthorization());
+        String partition = Strings.nullToEmpty(headers.getPartitionIdWithFallbackToAccountId());
+        return Hashing.sha256().newHasher()
+                .putString(token, StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(partition, StandardCharsets.UTF_8)
+                .hash().toString();
+    }
+}
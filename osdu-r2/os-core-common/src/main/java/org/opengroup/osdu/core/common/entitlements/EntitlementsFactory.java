@@ -18,11 +18,15 @@
 package org.opengroup.osdu.core.common.entitlements;
 
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.http.AsyncHttpClient;
+import org.opengroup.osdu.core.common.http.CoalescingHttpClient;
 import org.opengroup.osdu.core.common.http.HttpClient;
+import org.opengroup.osdu.core.common.http.IHttpClient;
 
 public class EntitlementsFactory implements IEntitlementsFactory {
 
     private final EntitlementsAPIConfig config;
+    private final IHttpClient httpClient = new CoalescingHttpClient(new HttpClient());
 
     public EntitlementsFactory(EntitlementsAPIConfig config) {
         if (config == null) {
@@ -37,7 +41,8 @@ public class EntitlementsFactory implements IEntitlementsFactory {
             throw new NullPointerException("headers cannot be null");
         }
         return new EntitlementsService(this.config,
-                new HttpClient(),
+                this.httpClient,
+                new AsyncHttpClient(),
                 headers);
     }
 }
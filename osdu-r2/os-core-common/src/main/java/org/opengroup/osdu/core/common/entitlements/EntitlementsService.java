@@ -19,6 +19,7 @@ package org.opengroup.osdu.core.common.entitlements;
 
 import com.google.gson.JsonSyntaxException;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpStatus;
 import org.opengroup.osdu.core.common.model.entitlements.EntitlementsException;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.entitlements.CreateGroup;
@@ -29,19 +30,27 @@ import org.opengroup.osdu.core.common.model.entitlements.Groups;
 import org.opengroup.osdu.core.common.model.entitlements.MemberInfo;
 import org.opengroup.osdu.core.common.model.entitlements.Members;
 import org.opengroup.osdu.core.common.http.HttpRequest;
+import org.opengroup.osdu.core.common.http.IAsyncHttpClient;
 import org.opengroup.osdu.core.common.http.HttpResponse;
 import org.opengroup.osdu.core.common.http.IHttpClient;
 
+import java.util.concurrent.CompletableFuture;
+
 public class EntitlementsService implements IEntitlementsService {
     private final String rootUrl;
     private final IHttpClient httpClient;
+    private final IAsyncHttpClient asyncHttpClient;
+    private final LocalTokenVerifier tokenVerifier;
     private final DpsHeaders headers;
 
     EntitlementsService(EntitlementsAPIConfig config,
                         IHttpClient httpClient,
+                        IAsyncHttpClient asyncHttpClient,
                         DpsHeaders headers) {
         this.rootUrl = config.getRootUrl();
         this.httpClient = httpClient;
+        this.asyncHttpClient = asyncHttpClient;
+        this.tokenVerifier = config.getTokenVerifier();
         this.headers = headers;
         if (config.apiKey != null) {
             headers.put("AppKey", config.apiKey);
@@ -78,6 +87,13 @@ public class EntitlementsService implements IEntitlementsService {
         return output;
     }
 
+    @Override
+    public CompletableFuture<Groups> getGroupsAsync() {
+        String url = this.createUrl("/groups");
+        HttpRequest rq = HttpRequest.get().url(url).headers(this.headers.getHeaders()).build();
+        return this.asyncHttpClient.sendAsync(rq).thenCompose(result -> this.getResultAsync(result, Groups.class));
+    }
+
     @Override
     public GroupInfo createGroup(CreateGroup group) throws EntitlementsException {
         String url = this.createUrl("/groups");
@@ -110,6 +126,16 @@ public class EntitlementsService implements IEntitlementsService {
 
     @Override
     public void authenticate() throws EntitlementsException {
+        if (this.tokenVerifier != null) {
+            LocalTokenVerifier.Result verification = this.tokenVerifier.verify(this.headers.getAuthorization());
+            if (verification == LocalTokenVerifier.Result.VALID) {
+                return;
+            } else if (verification == LocalTokenVerifier.Result.INVALID) {
+                HttpResponse response = new HttpResponse();
+                response.setResponseCode(HttpStatus.SC_UNAUTHORIZED);
+                throw new EntitlementsException("Token failed local verification", response);
+            }
+        }
         String path = String.format("/auth/validate");
         String url = this.createUrl(path);
         HttpRequest rq = HttpRequest.get().url(url).headers(this.headers.getHeaders()).build();
@@ -139,4 +165,14 @@ public class EntitlementsService implements IEntitlementsService {
         }
     }
 
+    private <T> CompletableFuture<T> getResultAsync(HttpResponse result, Class<T> type) {
+        CompletableFuture<T> output = new CompletableFuture<>();
+        try {
+            output.complete(this.getResult(result, type));
+        } catch (EntitlementsException e) {
+            output.completeExceptionally(e);
+        }
+        return output;
+    }
+
 }
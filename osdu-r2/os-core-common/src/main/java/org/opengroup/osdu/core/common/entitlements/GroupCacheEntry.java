@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.entitlements;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.opengroup.osdu.core.common.model.entitlements.Groups;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupCacheEntry {
+    private Groups groups;
+    private int errorCode;
+    private long expiresAt;
+
+    public static GroupCacheEntry success(Groups groups, long expiresAt) {
+        return new GroupCacheEntry(groups, 0, expiresAt);
+    }
+
+    public static GroupCacheEntry failure(int errorCode, long expiresAt) {
+        return new GroupCacheEntry(null, errorCode, expiresAt);
+    }
+
+    public boolean isExpired(long now) {
+        return now >= this.expiresAt;
+    }
+
+    public boolean isFailure() {
+        return this.errorCode != 0;
+    }
+}
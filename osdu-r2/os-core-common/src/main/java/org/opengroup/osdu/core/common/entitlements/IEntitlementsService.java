@@ -26,6 +26,8 @@ import org.opengroup.osdu.core.common.model.entitlements.Groups;
 import org.opengroup.osdu.core.common.model.entitlements.MemberInfo;
 import org.opengroup.osdu.core.common.model.entitlements.Members;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface IEntitlementsService {
 
     MemberInfo addMember(GroupEmail groupEmail, MemberInfo memberInfo) throws EntitlementsException;
@@ -34,6 +36,19 @@ public interface IEntitlementsService {
 
     Groups getGroups() throws EntitlementsException;
 
+    /**
+     * Runs {@link #getGroups} on the calling thread unless overridden.
+     */
+    default CompletableFuture<Groups> getGroupsAsync() {
+        CompletableFuture<Groups> output = new CompletableFuture<>();
+        try {
+            output.complete(this.getGroups());
+        } catch (EntitlementsException | RuntimeException e) {
+            output.completeExceptionally(e);
+        }
+        return output;
+    }
+
     GroupInfo createGroup(CreateGroup group) throws EntitlementsException;
 
     void deleteMember(String groupEmail, String memberEmail) throws EntitlementsException;
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.entitlements;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.RSAKeyProvider;
+import com.auth0.jwt.interfaces.Verification;
+import com.google.common.base.Strings;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies bearer tokens against a JSON Web Key Set loaded from a file or an http(s) endpoint. The key set is
+ * reloaded once it is older than the refresh interval, or sooner when a token references an unknown key id.
+ * Tokens that cannot be checked locally, such as opaque tokens, tokens signed with a key that is not in the set, or
+ * any token when no key set location is configured, are reported as {@link Result#UNKNOWN_KEY} so callers can fall
+ * back to the remote validation.
+ */
+public class LocalTokenVerifier {
+
+    public enum Result {
+        VALID,
+        INVALID,
+        UNKNOWN_KEY
+    }
+
+    private static final long MIN_RELOAD_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final int LOAD_TIMEOUT_MILLIS = 5000;
+
+    private final String jwksLocation;
+    private final String audience;
+    private final String issuer;
+    private final long refreshIntervalMillis;
+
+    private volatile Map<String, RSAPublicKey> keys = Collections.emptyMap();
+    private volatile long loadedAt;
+    private volatile long lastLoadAttempt;
+
+    public LocalTokenVerifier(String jwksLocation, String audience, String issuer, long refreshIntervalMillis) {
+        this.jwksLocation = jwksLocation;
+        this.audience = audience;
+        this.issuer = issuer;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    public Result verify(String bearerToken) {
+        if (Strings.isNullOrEmpty(bearerToken)) {
+            return Result.INVALID;
+        }
+        String[] parts = bearerToken.trim().split(" ");
+        DecodedJWT jwt;
+        try {
+            jwt = JWT.decode(parts[parts.length - 1]);
+        } catch (JWTDecodeException e) {
+            // not a JWT, only the issuing service can tell whether an opaque token is valid
+            return Result.UNKNOWN_KEY;
+        }
+
+        RSAPublicKey key = jwt.getKeyId() == null ? null : this.getKey(jwt.getKeyId());
+        Algorithm algorithm = key == null ? null : createAlgorithm(jwt.getAlgorithm(), key);
+        if (algorithm == null) {
+            return Result.UNKNOWN_KEY;
+        }
+
+        Verification verification = JWT.require(algorithm);
+        if (!Strings.isNullOrEmpty(this.audience)) {
+            verification.withAudience(this.audience);
+        }
+        if (!Strings.isNullOrEmpty(this.issuer)) {
+            verification.withIssuer(this.issuer);
+        }
+        try {
+            verification.build().verify(jwt);
+            return Result.VALID;
+        } catch (JWTVerificationException e) {
+            return Result.INVALID;
+        }
+    }
+
+    public int getKeyCount() {
+        return this.keys.size();
+    }
+
+    long now() {
+        return System.currentTimeMillis();
+    }
+
+    private RSAPublicKey getKey(String keyId) {
+        if (Strings.isNullOrEmpty(this.jwksLocation)) {
+            return null;
+        }
+        long now = this.now();
+        if (now - this.loadedAt > this.refreshIntervalMillis) {
+            this.reload(now);
+        }
+        RSAPublicKey key = this.keys.get(keyId);
+        if (key == null) {
+            this.reload(now);
+            key = this.keys.get(keyId);
+        }
+        return key;
+    }
+
+    private synchronized void reload(long now) {
+        // bounds the load rate on a failing endpoint or a stream of tokens signed with unknown keys
+        if (this.lastLoadAttempt != 0 && now - this.lastLoadAttempt < MIN_RELOAD_INTERVAL_MILLIS) {
+            return;
+        }
+        this.lastLoadAttempt = now;
+        try (InputStream stream = this.open(); Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            this.keys = parseKeySet(new JsonParser().parse(reader).getAsJsonObject());
+            this.loadedAt = now;
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            // keep serving the previous keys, unknown ones fall back to the remote validation
+        }
+    }
+
+    private InputStream open() throws IOException {
+        URL url = this.jwksLocation.startsWith("http://") || this.jwksLocation.startsWith("https://")
+                || this.jwksLocation.startsWith("file:")
+                ? new URL(this.jwksLocation)
+                : Paths.get(this.jwksLocation).toUri().toURL();
+        URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(LOAD_TIMEOUT_MILLIS);
+        connection.setReadTimeout(LOAD_TIMEOUT_MILLIS);
+        return connection.getInputStream();
+    }
+
+    static Map<String, RSAPublicKey> parseKeySet(JsonObject jwks) throws GeneralSecurityException {
+        Map<String, RSAPublicKey> output = new HashMap<>();
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        for (JsonElement element : jwks.getAsJsonArray("keys")) {
+            JsonObject jwk = element.getAsJsonObject();
+            if (!"RSA".equals(getString(jwk, "kty")) || getString(jwk, "kid") == null
+                    || (jwk.has("use") && !"sig".equals(getString(jwk, "use")))) {
+                continue;
+            }
+            BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(getString(jwk, "n")));
+            BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(getString(jwk, "e")));
+            output.put(getString(jwk, "kid"),
+                    (RSAPublicKey) keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+        }
+        return Collections.unmodifiableMap(output);
+    }
+
+    private static String getString(JsonObject object, String name) {
+        JsonElement element = object.get(name);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+
+    private static Algorithm createAlgorithm(String name, RSAPublicKey key) {
+        RSAKeyProvider provider = new RSAKeyProvider() {
+            @Override
+            public RSAPublicKey getPublicKeyById(String keyId) {
+                return key;
+            }
+
+            @Override
+            public RSAPrivateKey getPrivateKey() {
+                return null;
+            }
+
+            @Override
+            public String getPrivateKeyId() {
+                return null;
+            }
+        };
+        if ("RS256".equals(name)) {
+            return Algorithm.RSA256(provider);
+        } else if ("RS384".equals(name)) {
+            return Algorithm.RSA384(provider);
+        } else if ("RS512".equals(name)) {
+            return Algorithm.RSA512(provider);
+        }
+        return null;
+    }
+}
@@ -18,20 +18,28 @@
 package org.opengroup.osdu.core.common.http;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.ParseException;
+import org.apache.http.entity.ContentType;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Arrays;
 
 abstract class AbstractHttpClient implements IHttpClient {
 
+    private static final int BUFFER_SIZE = 8192;
+    private static final long MAX_PRESIZED_BODY_LENGTH = 64 * 1024 * 1024;
+
     @Override
     public HttpResponse send(HttpRequest request) {
 
@@ -49,12 +57,8 @@ abstract class AbstractHttpClient implements IHttpClient {
             output.setContentType(conn.getContentType());
             output.setHeaders(conn.getHeaderFields());
 
-            if (output.isSuccessCode()) {
-                output.setBody(getBody(conn.getInputStream()).toString());
-
-            } else {
-                output.setBody(getBody(conn.getErrorStream()).toString());
-            }
+            InputStream stream = output.isSuccessCode() ? conn.getInputStream() : conn.getErrorStream();
+            output.setRawBody(readBody(stream, conn.getContentLengthLong()), getCharset(conn.getContentType()));
 
             output.setLatency(System.currentTimeMillis() - start);
         } catch (IOException e) {
@@ -71,14 +75,48 @@ abstract class AbstractHttpClient implements IHttpClient {
         return output;
     }
 
-    private StringBuilder getBody(InputStream stream) throws IOException {
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(stream))) {
-            String inputLine;
-            StringBuilder resp = new StringBuilder();
-            while ((inputLine = in.readLine()) != null) {
-                resp.append(inputLine);
+    private byte[] readBody(InputStream stream, long contentLength) throws IOException {
+        if (stream == null) {
+            return new byte[0];
+        }
+        try (InputStream in = stream) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            ByteArrayOutputStream output;
+            if (contentLength >= 0 && contentLength <= MAX_PRESIZED_BODY_LENGTH) {
+                byte[] presized = new byte[(int) contentLength];
+                int offset = 0;
+                int read;
+                while (offset < presized.length && (read = in.read(presized, offset, presized.length - offset)) != -1) {
+                    offset += read;
+                }
+                if (offset < presized.length) {
+                    return Arrays.copyOf(presized, offset);
+                }
+                int next = in.read();
+                if (next == -1) {
+                    return presized;
+                }
+                // the declared Content-Length was wrong, keep reading until the end of the stream
+                output = new ByteArrayOutputStream(presized.length + BUFFER_SIZE);
+                output.write(presized, 0, presized.length);
+                output.write(next);
+            } else {
+                output = new ByteArrayOutputStream(BUFFER_SIZE);
             }
-            return resp;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        }
+    }
+
+    private Charset getCharset(String contentType) {
+        try {
+            ContentType type = StringUtils.isBlank(contentType) ? null : ContentType.parse(contentType);
+            return type == null || type.getCharset() == null ? StandardCharsets.UTF_8 : type.getCharset();
+        } catch (ParseException | UnsupportedCharsetException e) {
+            return StandardCharsets.UTF_8;
         }
     }
 
@@ -112,7 +150,7 @@ abstract class AbstractHttpClient implements IHttpClient {
         }
     }
 
-    private String encodeUrl(String url) throws MalformedURLException, URISyntaxException {
+    static String encodeUrl(String url) throws MalformedURLException, URISyntaxException {
         URL temp = new URL(url);
         URI uri = new URI(temp.getProtocol(), temp.getUserInfo(), temp.getHost(), temp.getPort(),
                 temp.getPath(), temp.getQuery(), temp.getRef());
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking {@link IAsyncHttpClient} backed by a single NIO engine and connection pool shared by all instances,
+ * so creating one per service (as the factories do) is cheap.
+ */
+public class AsyncHttpClient implements IAsyncHttpClient {
+
+    private static final int MAX_CONNECTIONS = 200;
+    private static final int MAX_CONNECTIONS_PER_ROUTE = 50;
+    static final int DEFAULT_SOCKET_TIMEOUT_MILLIS = 60000;
+
+    // a stalled peer must not hold a future forever; set by HttpClientPool from its own timeout setting so the sync
+    // and async clients follow the same configuration
+    private static volatile int socketTimeoutMillis = DEFAULT_SOCKET_TIMEOUT_MILLIS;
+
+    private final CloseableHttpAsyncClient client;
+
+    public AsyncHttpClient() {
+        this(EngineHolder.ENGINE);
+    }
+
+    AsyncHttpClient(CloseableHttpAsyncClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> sendAsync(HttpRequest request) {
+        CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+        HttpResponse output = new HttpResponse();
+        output.setRequest(request);
+
+        HttpRequestBase httpRequest;
+        try {
+            request.setUrl(AbstractHttpClient.encodeUrl(request.getUrl()));
+            httpRequest = this.createRequest(request);
+        } catch (MalformedURLException | URISyntaxException e) {
+            output.setException(e);
+            future.complete(output);
+            return future;
+        }
+
+        long start = System.currentTimeMillis();
+        this.client.execute(httpRequest, new FutureCallback<org.apache.http.HttpResponse>() {
+            @Override
+            public void completed(org.apache.http.HttpResponse response) {
+                try {
+                    output.setResponseCode(response.getStatusLine().getStatusCode());
+                    output.setHeaders(toHeaderMap(response.getAllHeaders()));
+                    if (response.getEntity() != null) {
+                        ContentType contentType = ContentType.get(response.getEntity());
+                        output.setContentType(contentType == null ? "" : contentType.toString());
+                        output.setRawBody(EntityUtils.toByteArray(response.getEntity()),
+                                contentType == null ? null : contentType.getCharset());
+                    }
+                } catch (IOException | RuntimeException e) {
+                    output.setException(e);
+                }
+                output.setLatency(System.currentTimeMillis() - start);
+                future.complete(output);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                System.err.println(String.format("Unexpected error sending to URL %s METHOD %s. error %s", request.getUrl(),
+                        request.getHttpMethod(), e));
+                output.setException(e);
+                output.setLatency(System.currentTimeMillis() - start);
+                future.complete(output);
+            }
+
+            @Override
+            public void cancelled() {
+                future.cancel(false);
+            }
+        });
+        return future;
+    }
+
+    private HttpRequestBase createRequest(HttpRequest request) {
+        RequestBuilder builder = RequestBuilder.create(request.getHttpMethod()).setUri(request.getUrl());
+        request.getHeaders().forEach(builder::setHeader);
+        if (!StringUtils.isBlank(request.getBody()) && (request.getHttpMethod().equals(HttpRequest.POST) ||
+                request.getHttpMethod().equals(HttpRequest.PUT) ||
+                request.getHttpMethod().equals(HttpRequest.PATCH))) {
+            builder.setEntity(new ByteArrayEntity(request.getBody().getBytes(StandardCharsets.UTF_8)));
+        }
+        builder.setConfig(RequestConfig.custom()
+                .setConnectTimeout(request.getConnectionTimeout())
+                .setConnectionRequestTimeout(request.getConnectionTimeout())
+                .setSocketTimeout(socketTimeoutMillis)
+                .setRedirectsEnabled(request.isFollowRedirects())
+                .build());
+        return (HttpRequestBase) builder.build();
+    }
+
+    static int getSocketTimeoutMillis() {
+        return socketTimeoutMillis;
+    }
+
+    static void setSocketTimeoutMillis(int timeoutMillis) {
+        socketTimeoutMillis = timeoutMillis;
+    }
+
+    private static Map<String, List<String>> toHeaderMap(Header[] headers) {
+        Map<String, List<String>> output = new HashMap<>();
+        for (Header header : headers) {
+            output.computeIfAbsent(header.getName(), k -> new ArrayList<>()).add(header.getValue());
+        }
+        return output;
+    }
+
+    private static class EngineHolder {
+        private static final CloseableHttpAsyncClient ENGINE = createEngine();
+
+        private static CloseableHttpAsyncClient createEngine() {
+            CloseableHttpAsyncClient engine = HttpAsyncClients.custom()
+                    .setMaxConnTotal(MAX_CONNECTIONS)
+                    .setMaxConnPerRoute(MAX_CONNECTIONS_PER_ROUTE)
+                    .build();
+            engine.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    engine.close();
+                } catch (IOException ignored) {
+                    // shutting down
+                }
+            }));
+            return engine;
+        }
+    }
+}
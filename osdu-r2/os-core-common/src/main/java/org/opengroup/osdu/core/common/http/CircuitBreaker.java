@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+/**
+ * Consecutive-failure circuit breaker guarding a single downstream destination.
+ * After {@code failureThreshold} failures in a row calls are rejected for {@code openMillis}, then one probe
+ * is let through; its outcome closes or re-opens the breaker.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean probeInFlight = false;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public synchronized boolean allowRequest() {
+        switch (this.state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (this.now() - this.openedAt < this.openMillis) {
+                    return false;
+                }
+                this.state = State.HALF_OPEN;
+                this.probeInFlight = true;
+                return true;
+            default:
+                if (this.probeInFlight) {
+                    return false;
+                }
+                this.probeInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        this.consecutiveFailures = 0;
+        this.probeInFlight = false;
+        this.state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        this.consecutiveFailures++;
+        this.probeInFlight = false;
+        if (this.state == State.HALF_OPEN || this.consecutiveFailures >= this.failureThreshold) {
+            this.state = State.OPEN;
+            this.openedAt = this.now();
+        }
+    }
+
+    public synchronized State getState() {
+        if (this.state == State.OPEN && this.now() - this.openedAt >= this.openMillis) {
+            return State.HALF_OPEN;
+        }
+        return this.state;
+    }
+
+    long now() {
+        return System.currentTimeMillis();
+    }
+}
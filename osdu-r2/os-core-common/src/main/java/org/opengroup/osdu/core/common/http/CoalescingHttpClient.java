@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link IHttpClient} decorator letting concurrent identical GET requests share a single in-flight call.
+ * Requests are identical when method, url and the caller identifying headers match; the headers are only kept
+ * as a hash. Every coalesced caller receives its own copy of the response. Other methods are passed straight
+ * through.
+ */
+public class CoalescingHttpClient implements IHttpClient {
+
+    private static final String[] IDENTITY_HEADERS = {DpsHeaders.AUTHORIZATION, DpsHeaders.DATA_PARTITION_ID,
+            DpsHeaders.ACCOUNT_ID, DpsHeaders.ON_BEHALF_OF, "AppKey"};
+
+    private final IHttpClient wrapped;
+    private final ConcurrentMap<String, CompletableFuture<HttpResponse>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public CoalescingHttpClient(IHttpClient wrapped) {
+        this.wrapped = wrapped;
+    }
+
+    @Override
+    public HttpResponse send(HttpRequest request) {
+        if (!HttpRequest.GET.equals(request.getHttpMethod())) {
+            return this.wrapped.send(request);
+        }
+
+        String key = createKey(request);
+        CompletableFuture<HttpResponse> call = new CompletableFuture<>();
+        CompletableFuture<HttpResponse> existing = this.inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            this.coalesced.increment();
+            try {
+                return existing.join().copy();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        try {
+            HttpResponse response = this.wrapped.send(request);
+            // waiters copy a snapshot taken before the owner gets the chance to change its response
+            call.complete(response.copy());
+            return response;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.inFlight.remove(key, call);
+        }
+    }
+
+    public long getCoalescedCount() {
+        return this.coalesced.sum();
+    }
+
+    static String createKey(HttpRequest request) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        Map<String, String> headers = request.getHeaders();
+        if (headers != null) {
+            for (String name : IDENTITY_HEADERS) {
+                String value = headers.get(name);
+                hasher.putString(name, StandardCharsets.UTF_8).putByte((byte) 0)
+                        .putString(value == null ? "" : value, StandardCharsets.UTF_8).putByte((byte) 0);
+            }
+        }
+        return String.format("%s %s %s", request.getHttpMethod(), request.getUrl(), hasher.hash());
+    }
+}
@@ -25,6 +25,7 @@ import com.google.common.base.Strings;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 
 import java.util.ArrayList;
+import java.util.Date;
 
 public class HeadersUtil {
 
@@ -66,4 +67,15 @@ public class HeadersUtil {
         }
         return email;
     }
+
+    public static Date getExpiresAt(String bearerToken) {
+        if (Strings.isNullOrEmpty(bearerToken)) return null;
+        try {
+            String[] parts = bearerToken.trim().split(" ");
+            DecodedJWT jwt = JWT.decode(parts[parts.length - 1]);
+            return jwt.getExpiresAt();
+        } catch (JWTDecodeException ignored) {
+            return null;
+        }
+    }
 }
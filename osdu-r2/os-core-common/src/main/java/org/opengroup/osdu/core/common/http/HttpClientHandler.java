@@ -17,19 +17,14 @@
 
 package org.opengroup.osdu.core.common.http;
 
-import org.apache.http.Header;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
 import org.apache.http.ParseException;
-import org.apache.http.client.ServiceUnavailableRetryStrategy;
-import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.entity.ContentType;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.message.BasicHeader;
-import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.http.AppException;
 import org.opengroup.osdu.core.common.model.http.HttpResponse;
@@ -41,68 +36,97 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.RequestScope;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.SocketTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
 
 @Component
 @RequestScope
 public class HttpClientHandler {
 
-    private final int RETRY_COUNT = 3;
-
     @Autowired
     @Lazy
     private JaxRsDpsLog log;
 
-    private final RequestConfig REQUEST_CONFIG = RequestConfig.custom()
-            .setConnectTimeout(60000)
-            .setConnectionRequestTimeout(60000)
-            .setSocketTimeout(60000).build();
+    @Autowired
+    private HttpClientPool httpClientPool;
+
+    @Autowired
+    private HttpRetryPolicy httpRetryPolicy;
 
     public HttpResponse sendRequest(HttpRequestBase request, DpsHeaders requestHeaders) {
 
         Long curTimeStamp = System.currentTimeMillis();
 
-        List<Header> httpHeaders = new ArrayList<>();
-        for (String key : requestHeaders.getHeaders().keySet()) {
-            httpHeaders.add(new BasicHeader(key, requestHeaders.getHeaders().get(key)));
+        for (Map.Entry<String, String> header : requestHeaders.getHeaders().entrySet()) {
+            if (!request.containsHeader(header.getKey())) {
+                request.addHeader(header.getKey(), header.getValue());
+            }
         }
-        if (!requestHeaders.getHeaders().containsKey(HttpHeaders.ACCEPT)) {
-            httpHeaders.add(new BasicHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString()));
+        if (!request.containsHeader(HttpHeaders.ACCEPT)) {
+            request.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
         }
 
+        String destination = request.getURI().getHost();
+        CircuitBreaker circuitBreaker = this.httpRetryPolicy.getCircuitBreaker(destination);
+        this.httpRetryPolicy.recordRequest();
+
+        if (!circuitBreaker.allowRequest()) {
+            this.httpRetryPolicy.recordRejection(destination);
+            throw new AppException(HttpStatus.SC_SERVICE_UNAVAILABLE, "Service unavailable",
+                    String.format("Circuit breaker is open for %s", destination));
+        }
         try {
-            CloseableHttpClient httpclient = HttpClients.custom()
-                    .setDefaultHeaders(httpHeaders)
-                    .setDefaultRequestConfig(REQUEST_CONFIG)
-                    .setServiceUnavailableRetryStrategy(getRetryStrategy()).build();
-            try (CloseableHttpResponse response = httpclient.execute(request)) {
-
-                StringBuilder responseBuilder = new StringBuilder();
-                try (BufferedReader br = new BufferedReader(new InputStreamReader(response.getEntity().getContent()))) {
-                    String responsePayloadLine;
-                    while ((responsePayloadLine = br.readLine()) != null) {
-                        responseBuilder.append(responsePayloadLine);
+            for (int attempt = 1; ; attempt++) {
+                boolean recorded = false;
+                try (CloseableHttpResponse response = this.httpClientPool.getClient().execute(request)) {
+                    int statusCode = response.getStatusLine().getStatusCode();
+                    if (this.httpRetryPolicy.isFailureStatus(statusCode)) {
+                        circuitBreaker.recordFailure();
+                    } else {
+                        circuitBreaker.recordSuccess();
+                    }
+                    recorded = true;
+                    // a breaker opened by this very call ends the retries with the upstream response
+                    if (this.httpRetryPolicy.shouldRetry(request, statusCode, attempt)
+                            && this.allowRetry(circuitBreaker, destination)) {
+                        EntityUtils.consumeQuietly(response.getEntity());
+                        this.backoff(destination, attempt, response);
+                        continue;
                     }
-                }
 
-                String responseBody = responseBuilder.toString();
+                    HttpEntity entity = response.getEntity();
+                    HttpResponse output = new HttpResponse();
+                    output.setResponseCode(statusCode);
+                    // reading the whole entity also releases the connection back to the pool
+                    output.setRawBody(entity == null ? new byte[0] : EntityUtils.toByteArray(entity), getCharset(entity));
 
-                // handle case where upstream server is running out of resources and throwing generic exception
-                checkResponseMediaType(response, responseBody);
+                    // handle case where upstream server is running out of resources and throwing generic exception
+                    checkResponseMediaType(response, output);
 
-                HttpResponse output = new HttpResponse();
-                output.setResponseCode(response.getStatusLine().getStatusCode());
-                output.setBody(responseBody);
-                if (output.getResponseCode() != 200) {
-                    log.info(String.format("method: %s | response code: %s | url: %s | error message: %s", request.getMethod(), output.getResponseCode(), request.getURI().toString(), responseBody));
+                    if (output.getResponseCode() != 200) {
+                        log.info(String.format("method: %s | response code: %s | url: %s | error message: %s", request.getMethod(), output.getResponseCode(), request.getURI().toString(), output.getBody()));
+                    }
+                    return output;
+                } catch (SocketTimeoutException e) {
+                    circuitBreaker.recordFailure();
+                    throw e;
+                } catch (RuntimeException e) {
+                    // e.g. a shut down pool, an unrecorded half-open probe would keep the breaker rejecting forever
+                    if (!recorded) {
+                        circuitBreaker.recordFailure();
+                    }
+                    throw e;
+                } catch (IOException e) {
+                    circuitBreaker.recordFailure();
+                    if (!this.httpRetryPolicy.shouldRetry(request, attempt) || !this.allowRetry(circuitBreaker, destination)) {
+                        throw e;
+                    }
+                    this.backoff(destination, attempt, null);
                 }
-                return output;
             }
         } catch (SocketTimeoutException e) {
             throw new AppException(RequestStatus.SOCKET_TIMEOUT, "Socket time out", "Request cannot be completed in specified time", e);
@@ -114,23 +138,36 @@ public class HttpClientHandler {
         }
     }
 
-    private ServiceUnavailableRetryStrategy getRetryStrategy() {
-        return new ServiceUnavailableRetryStrategy() {
-            @Override
-            public boolean retryRequest(
-                    final org.apache.http.HttpResponse response, final int executionCount, final HttpContext context) {
-                int statusCode = response.getStatusLine().getStatusCode();
-                return statusCode >= 501 && executionCount <= RETRY_COUNT;
-            }
+    private boolean allowRetry(CircuitBreaker circuitBreaker, String destination) {
+        if (circuitBreaker.allowRequest()) {
+            return true;
+        }
+        this.httpRetryPolicy.recordRejection(destination);
+        return false;
+    }
 
-            @Override
-            public long getRetryInterval() {
-                return 1000;
-            }
-        };
+    // sleeps on the request thread, at most HttpRetryPolicy#maxDelayMillis per retry
+    private void backoff(String destination, int attempt, org.apache.http.HttpResponse response) {
+        this.httpRetryPolicy.recordRetry(destination);
+        long delay = this.httpRetryPolicy.getBackoffMillis(attempt, response);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(HttpStatus.SC_SERVICE_UNAVAILABLE, "Service unavailable", "Interrupted while waiting to retry", e);
+        }
+    }
+
+    private Charset getCharset(HttpEntity entity) {
+        try {
+            ContentType contentType = ContentType.get(entity);
+            return contentType == null || contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset();
+        } catch (ParseException | UnsupportedCharsetException e) {
+            return StandardCharsets.UTF_8;
+        }
     }
 
-    private boolean checkResponseMediaType(CloseableHttpResponse response, String responseBody) {
+    private boolean checkResponseMediaType(CloseableHttpResponse response, HttpResponse output) {
         try {
             String contentMimeType = ContentType.getOrDefault(response.getEntity()).getMimeType();
             if (ContentType.APPLICATION_JSON.getMimeType().equalsIgnoreCase(contentMimeType)) {
@@ -140,13 +177,13 @@ public class HttpClientHandler {
                     HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE,
                     "Unsupported media type",
                     String.format("upstream server responded with unsupported media type: %s", contentMimeType),
-                    String.format("upstream server response: %s", responseBody));
+                    String.format("upstream server response: %s", output.getBody()));
         } catch (ParseException | UnsupportedCharsetException e) {
             throw new AppException(
                     HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE,
                     "Unsupported media type",
                     "error parsing upstream server response entity content type",
-                    String.format("upstream server response: %s", responseBody), e);
+                    String.format("upstream server response: %s", output.getBody()), e);
         }
     }
 }
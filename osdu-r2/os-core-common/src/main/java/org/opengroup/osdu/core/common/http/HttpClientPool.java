@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process wide pool of HTTP connections shared by every outgoing call, regardless of tenant.
+ * Request specific headers must be set on the request itself, never on the client. Retries are left to
+ * {@link HttpRetryPolicy}.
+ */
+@Component
+public class HttpClientPool implements AutoCloseable {
+
+    @Value("${HTTP_CLIENT_MAX_CONNECTIONS:200}")
+    private int maxConnections = 200;
+
+    @Value("${HTTP_CLIENT_MAX_CONNECTIONS_PER_ROUTE:50}")
+    private int maxConnectionsPerRoute = 50;
+
+    @Value("${HTTP_CLIENT_TIMEOUT_MILLIS:60000}")
+    private int timeoutMillis = 60000;
+
+    @Value("${HTTP_CLIENT_KEEP_ALIVE_SECONDS:30}")
+    private int keepAliveSeconds = 30;
+
+    @Value("${HTTP_CLIENT_IDLE_EVICTION_SECONDS:60}")
+    private int idleEvictionSeconds = 60;
+
+    // volatile so that the double checked lazy init in getClient publishes a fully built client
+    private volatile PoolingHttpClientConnectionManager connectionManager;
+    private volatile CloseableHttpClient client;
+
+    public HttpClientPool() {
+    }
+
+    HttpClientPool(int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @PostConstruct
+    public synchronized void init() {
+        if (this.client != null) {
+            return;
+        }
+        AsyncHttpClient.setSocketTimeoutMillis(this.timeoutMillis);
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        this.connectionManager.setMaxTotal(this.maxConnections);
+        this.connectionManager.setDefaultMaxPerRoute(this.maxConnectionsPerRoute);
+        this.connectionManager.setValidateAfterInactivity(2000);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(this.timeoutMillis)
+                .setConnectionRequestTimeout(this.timeoutMillis)
+                .setSocketTimeout(this.timeoutMillis).build();
+
+        this.client = HttpClients.custom()
+                .setConnectionManager(this.connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(this.getKeepAliveStrategy())
+                .disableAutomaticRetries()
+                .evictExpiredConnections()
+                .evictIdleConnections(this.idleEvictionSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    public CloseableHttpClient getClient() {
+        CloseableHttpClient output = this.client;
+        if (output == null) {
+            synchronized (this) {
+                this.init();
+                output = this.client;
+            }
+        }
+        return output;
+    }
+
+    public PoolStats getTotalStats() {
+        PoolingHttpClientConnectionManager manager = this.connectionManager;
+        return manager == null ? null : manager.getTotalStats();
+    }
+
+    public Map<String, PoolStats> getRouteStats() {
+        Map<String, PoolStats> output = new HashMap<>();
+        PoolingHttpClientConnectionManager manager = this.connectionManager;
+        if (manager == null) {
+            return output;
+        }
+        for (HttpRoute route : manager.getRoutes()) {
+            output.put(route.getTargetHost().toURI(), manager.getStats(route));
+        }
+        return output;
+    }
+
+    @PreDestroy
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.client != null) {
+            this.client.close();
+            this.client = null;
+            this.connectionManager = null;
+        }
+    }
+
+    private ConnectionKeepAliveStrategy getKeepAliveStrategy() {
+        return (HttpResponse response, HttpContext context) -> {
+            HeaderElementIterator it = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (it.hasNext()) {
+                HeaderElement element = it.nextElement();
+                if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return Math.min(Long.parseLong(element.getValue()), this.keepAliveSeconds) * 1000L;
+                    } catch (NumberFormatException ignored) {
+                        // fall back to the configured keep alive
+                    }
+                }
+            }
+            return this.keepAliveSeconds * 1000L;
+        };
+    }
+}
@@ -20,16 +20,29 @@ package org.opengroup.osdu.core.common.http;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class HttpResponse {
     static final Gson gson = new Gson();
@@ -41,6 +54,66 @@ public class HttpResponse {
     private Exception exception;
     private HttpRequest request;
     private long latency = 0;
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private byte[] rawBody;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Charset charset = StandardCharsets.UTF_8;
+
+    public HttpResponse(Map<String, List<String>> headers, String body, String contentType, int responseCode,
+                        Exception exception, HttpRequest request, long latency) {
+        this.headers = headers;
+        this.body = body;
+        this.contentType = contentType;
+        this.responseCode = responseCode;
+        this.exception = exception;
+        this.request = request;
+        this.latency = latency;
+    }
+
+    /**
+     * Keeps the undecoded response payload; {@link #getBody()} only builds the String when somebody asks for it.
+     */
+    public void setRawBody(byte[] rawBody, Charset charset) {
+        this.rawBody = rawBody == null ? new byte[0] : rawBody;
+        this.charset = charset == null ? StandardCharsets.UTF_8 : charset;
+        this.body = null;
+    }
+
+    public String getBody() {
+        if (this.body == null && this.rawBody != null) {
+            this.body = new String(this.rawBody, this.charset);
+        }
+        return this.body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+        this.rawBody = null;
+    }
+
+    /**
+     * Copy with its own header map, so callers sharing one downstream response cannot see each other's changes.
+     * The undecoded payload is shared as it is never exposed.
+     */
+    HttpResponse copy() {
+        Map<String, List<String>> headersCopy = null;
+        if (this.headers != null) {
+            headersCopy = new LinkedHashMap<>();
+            for (Map.Entry<String, List<String>> header : this.headers.entrySet()) {
+                headersCopy.put(header.getKey(), header.getValue() == null ? null : new ArrayList<>(header.getValue()));
+            }
+        }
+        HttpResponse output = new HttpResponse(headersCopy, this.body, this.contentType, this.responseCode,
+                this.exception, this.request, this.latency);
+        output.rawBody = this.rawBody;
+        output.charset = this.charset;
+        return output;
+    }
 
     public Boolean isSuccessCode() {
         return responseCode >= 200 && responseCode <= 299;
@@ -71,16 +144,34 @@ public class HttpResponse {
     }
 
     public JsonObject getAsJsonObject() {
-        if (StringUtils.isBlank(body))
+        if (this.body == null && this.rawBody != null) {
+            return this.rawBody.length == 0 ? null : parser.parse(this.openReader()).getAsJsonObject();
+        }
+        if (StringUtils.isBlank(this.getBody()))
             return null;
 
-        return parser.parse(body).getAsJsonObject();
+        return parser.parse(this.getBody()).getAsJsonObject();
     }
 
     public <T> T parseBody(Class<T> type) {
-        if (StringUtils.isBlank(body))
+        if (this.body == null && this.rawBody != null) {
+            return this.rawBody.length == 0 ? null : gson.fromJson(this.openReader(), type);
+        }
+        if (StringUtils.isBlank(this.getBody()))
             return null;
 
-        return gson.fromJson(body, type);
+        return gson.fromJson(this.getBody(), type);
+    }
+
+    public static <T> T parseBody(InputStream stream, Charset charset, Class<T> type) {
+        try (Reader reader = new InputStreamReader(stream, charset == null ? StandardCharsets.UTF_8 : charset)) {
+            return gson.fromJson(reader, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Reader openReader() {
+        return new InputStreamReader(new ByteArrayInputStream(this.rawBody), this.charset);
     }
 }
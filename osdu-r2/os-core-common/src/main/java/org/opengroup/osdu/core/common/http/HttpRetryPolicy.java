@@ -0,0 +1,209 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.utils.DateUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether and when a downstream call handled by {@link HttpClientHandler} is retried, and keeps one
+ * {@link CircuitBreaker} per destination host. Shared by all requests of the process.
+ */
+@Component
+public class HttpRetryPolicy {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+    private static final long RETRY_BUDGET_WINDOW_MILLIS = 10000;
+
+    @Value("${HTTP_RETRY_MAX_ATTEMPTS:3}")
+    private int maxAttempts = 3;
+
+    @Value("${HTTP_RETRY_BASE_DELAY_MILLIS:100}")
+    private long baseDelayMillis = 100;
+
+    // longest single backoff; retries sleep on the request thread, so one call can stall it for up to
+    // (maxAttempts - 1) * maxDelayMillis on top of its attempts, 10 seconds with the defaults
+    @Value("${HTTP_RETRY_MAX_DELAY_MILLIS:5000}")
+    private long maxDelayMillis = 5000;
+
+    @Value("${HTTP_RETRY_BUDGET_RATIO:0.1}")
+    private double retryBudgetRatio = 0.1;
+
+    @Value("${HTTP_RETRY_BUDGET_MIN_PER_WINDOW:10}")
+    private int retryBudgetMinPerWindow = 10;
+
+    @Value("${HTTP_CIRCUIT_BREAKER_FAILURE_THRESHOLD:20}")
+    private int breakerFailureThreshold = 20;
+
+    @Value("${HTTP_CIRCUIT_BREAKER_OPEN_MILLIS:30000}")
+    private long breakerOpenMillis = 30000;
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> retries = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+    private final LongAdder budgetExhausted = new LongAdder();
+    private volatile RetryBudget retryBudget;
+
+    public CircuitBreaker getCircuitBreaker(String destination) {
+        return this.breakers.computeIfAbsent(destination,
+                k -> new CircuitBreaker(this.breakerFailureThreshold, this.breakerOpenMillis));
+    }
+
+    public void recordRequest() {
+        this.getRetryBudget().recordRequest();
+    }
+
+    public void recordRejection(String destination) {
+        this.rejections.computeIfAbsent(destination, k -> new LongAdder()).increment();
+    }
+
+    public boolean isRetryableStatus(int statusCode) {
+        return statusCode == SC_TOO_MANY_REQUESTS
+                || statusCode == HttpStatus.SC_BAD_GATEWAY
+                || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE
+                || statusCode == HttpStatus.SC_GATEWAY_TIMEOUT;
+    }
+
+    /**
+     * A response status only counts against the breaker when the destination itself is unhealthy.
+     */
+    public boolean isFailureStatus(int statusCode) {
+        return statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR || statusCode == SC_TOO_MANY_REQUESTS;
+    }
+
+    public boolean shouldRetry(HttpRequest request, int statusCode, int attempt) {
+        if (attempt >= this.maxAttempts || !this.isRetryableStatus(statusCode)) {
+            return false;
+        }
+        // 429 and 503 mean the upstream rejected the call without processing it, so even a POST is safe to repeat
+        boolean rejected = statusCode == SC_TOO_MANY_REQUESTS || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE;
+        return (rejected || this.isIdempotent(request)) && this.acquireRetry();
+    }
+
+    public boolean shouldRetry(HttpRequest request, int attempt) {
+        return attempt < this.maxAttempts && this.isIdempotent(request) && this.acquireRetry();
+    }
+
+    public boolean isIdempotent(HttpRequest request) {
+        String method = request.getRequestLine().getMethod();
+        switch (method) {
+            case "GET":
+            case "HEAD":
+            case "OPTIONS":
+            case "PUT":
+            case "DELETE":
+                return true;
+            default:
+                return request.containsHeader(IDEMPOTENCY_KEY);
+        }
+    }
+
+    /**
+     * Exponential backoff with full jitter, or the server provided Retry-After, capped at the maximum delay.
+     */
+    public long getBackoffMillis(int attempt, HttpResponse response) {
+        long retryAfter = response == null ? -1 : this.getRetryAfterMillis(response);
+        if (retryAfter >= 0) {
+            return Math.min(retryAfter, this.maxDelayMillis);
+        }
+        long ceiling = Math.min(this.maxDelayMillis, this.baseDelayMillis << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    public void recordRetry(String destination) {
+        this.retries.computeIfAbsent(destination, k -> new LongAdder()).increment();
+    }
+
+    public Map<String, DestinationStats> getDestinationStats() {
+        Map<String, DestinationStats> output = new HashMap<>();
+        for (Map.Entry<String, CircuitBreaker> entry : this.breakers.entrySet()) {
+            String destination = entry.getKey();
+            output.put(destination, new DestinationStats(destination, entry.getValue().getState(),
+                    sum(this.retries.get(destination)), sum(this.rejections.get(destination))));
+        }
+        return output;
+    }
+
+    public long getRetryBudgetExhaustedCount() {
+        return this.budgetExhausted.sum();
+    }
+
+    private boolean acquireRetry() {
+        if (this.getRetryBudget().tryAcquireRetry()) {
+            return true;
+        }
+        this.budgetExhausted.increment();
+        return false;
+    }
+
+    private long getRetryAfterMillis(HttpResponse response) {
+        Header header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+        if (header == null || StringUtils.isBlank(header.getValue())) {
+            return -1;
+        }
+        String value = header.getValue().trim();
+        if (StringUtils.isNumeric(value)) {
+            return Long.parseLong(value) * 1000L;
+        }
+        Date date = DateUtils.parseDate(value);
+        return date == null ? -1 : Math.max(0, date.getTime() - System.currentTimeMillis());
+    }
+
+    private RetryBudget getRetryBudget() {
+        if (this.retryBudget == null) {
+            synchronized (this) {
+                if (this.retryBudget == null) {
+                    this.retryBudget = new RetryBudget(this.retryBudgetRatio, this.retryBudgetMinPerWindow,
+                            RETRY_BUDGET_WINDOW_MILLIS);
+                }
+            }
+        }
+        return this.retryBudget;
+    }
+
+    private static long sum(LongAdder adder) {
+        return adder == null ? 0 : adder.sum();
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class DestinationStats {
+        private String destination;
+        private CircuitBreaker.State circuitBreakerState;
+        private long retries;
+        private long rejections;
+    }
+}
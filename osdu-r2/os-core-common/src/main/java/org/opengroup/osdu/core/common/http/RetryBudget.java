@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+/**
+ * Caps retries to a fraction of the requests seen in a sliding time window, so that retries cannot multiply
+ * the load on an upstream that is already struggling. A small number of retries per window is always allowed
+ * to keep low traffic callers working.
+ */
+public class RetryBudget {
+
+    private final double retryRatio;
+    private final int minRetriesPerWindow;
+    private final long windowMillis;
+
+    private long windowStart;
+    private long requests = 0;
+    private long retries = 0;
+
+    public RetryBudget(double retryRatio, int minRetriesPerWindow, long windowMillis) {
+        this.retryRatio = retryRatio;
+        this.minRetriesPerWindow = minRetriesPerWindow;
+        this.windowMillis = windowMillis;
+        this.windowStart = this.now();
+    }
+
+    public synchronized void recordRequest() {
+        this.rollWindow();
+        this.requests++;
+    }
+
+    public synchronized boolean tryAcquireRetry() {
+        this.rollWindow();
+        if (this.retries >= Math.max(this.minRetriesPerWindow, (long) (this.requests * this.retryRatio))) {
+            return false;
+        }
+        this.retries++;
+        return true;
+    }
+
+    private void rollWindow() {
+        long now = this.now();
+        if (now - this.windowStart >= this.windowMillis) {
+            this.windowStart = now;
+            this.requests = 0;
+            this.retries = 0;
+        }
+    }
+
+    long now() {
+        return System.currentTimeMillis();
+    }
+}
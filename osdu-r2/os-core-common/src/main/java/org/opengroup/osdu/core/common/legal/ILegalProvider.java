@@ -22,6 +22,8 @@ import org.opengroup.osdu.core.common.model.legal.LegalException;
 import org.opengroup.osdu.core.common.model.legal.LegalTag;
 import org.opengroup.osdu.core.common.model.legal.LegalTagProperties;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface ILegalProvider {
 
     LegalTag create(LegalTag lt) throws LegalException;
@@ -30,7 +32,33 @@ public interface ILegalProvider {
 
     LegalTag get(String name) throws LegalException;
 
+    /**
+     * Runs {@link #get} on the calling thread unless overridden.
+     */
+    default CompletableFuture<LegalTag> getAsync(String name) {
+        CompletableFuture<LegalTag> output = new CompletableFuture<>();
+        try {
+            output.complete(this.get(name));
+        } catch (LegalException | RuntimeException e) {
+            output.completeExceptionally(e);
+        }
+        return output;
+    }
+
     LegalTagProperties getLegalTagProperties() throws LegalException;
 
     InvalidTagsWithReason validate(String... names) throws LegalException;
+
+    /**
+     * Runs {@link #validate} on the calling thread unless overridden.
+     */
+    default CompletableFuture<InvalidTagsWithReason> validateAsync(String... names) {
+        CompletableFuture<InvalidTagsWithReason> output = new CompletableFuture<>();
+        try {
+            output.complete(this.validate(names));
+        } catch (LegalException | RuntimeException e) {
+            output.completeExceptionally(e);
+        }
+        return output;
+    }
 }
@@ -28,6 +28,8 @@ public class LegalAPIConfig {
 
     String apiKey;
 
+    LegalTagValidityCache validityCache;
+
     public static LegalAPIConfig Default() {
         return LegalAPIConfig.builder().build();
     }
@@ -18,17 +18,37 @@
 package org.opengroup.osdu.core.common.legal;
 
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.http.AsyncHttpClient;
+import org.opengroup.osdu.core.common.http.CoalescingHttpClient;
 import org.opengroup.osdu.core.common.http.HttpClient;
+import org.opengroup.osdu.core.common.http.IHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
 
 public class LegalFactory implements ILegalFactory {
 
     private final LegalAPIConfig config;
+    private final ObjectProvider<LegalTagValidityCache> validityCache;
+    private final IHttpClient httpClient;
 
     public LegalFactory(LegalAPIConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * When the config carries no validity cache the {@link LegalTagValidityCache} bean is used, which is the
+     * instance the compliance change receiver invalidates.
+     */
+    public LegalFactory(LegalAPIConfig config, ObjectProvider<LegalTagValidityCache> validityCache) {
+        this(config, validityCache, new CoalescingHttpClient(new HttpClient()));
+    }
+
+    LegalFactory(LegalAPIConfig config, ObjectProvider<LegalTagValidityCache> validityCache, IHttpClient httpClient) {
         if (config == null) {
             throw new IllegalArgumentException("LegalAPIConfig cannot be empty");
         }
         this.config = config;
+        this.validityCache = validityCache;
+        this.httpClient = httpClient;
     }
 
     @Override
@@ -36,6 +56,10 @@ public class LegalFactory implements ILegalFactory {
         if (headers == null) {
             throw new NullPointerException("headers cannot be null");
         }
-        return new LegalService(this.config, new HttpClient(), headers);
+        LegalTagValidityCache cache = this.config.getValidityCache();
+        if (cache == null && this.validityCache != null) {
+            cache = this.validityCache.getIfAvailable();
+        }
+        return new LegalService(this.config, cache, this.httpClient, new AsyncHttpClient(), headers);
     }
 }
@@ -22,19 +22,36 @@ import org.apache.commons.lang3.StringUtils;
 import org.opengroup.osdu.core.common.model.legal.*;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.http.HttpRequest;
+import org.opengroup.osdu.core.common.http.IAsyncHttpClient;
 import org.opengroup.osdu.core.common.http.HttpResponse;
 import org.opengroup.osdu.core.common.http.IHttpClient;
 
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
 public class LegalService implements ILegalProvider {
     private final String rootUrl;
     private final IHttpClient httpClient;
+    private final IAsyncHttpClient asyncHttpClient;
+    private final LegalTagValidityCache validityCache;
     private final DpsHeaders headers;
 
     LegalService(LegalAPIConfig config,
                  IHttpClient httpClient,
+                 IAsyncHttpClient asyncHttpClient,
+                 DpsHeaders headers) {
+        this(config, config.getValidityCache(), httpClient, asyncHttpClient, headers);
+    }
+
+    LegalService(LegalAPIConfig config,
+                 LegalTagValidityCache validityCache,
+                 IHttpClient httpClient,
+                 IAsyncHttpClient asyncHttpClient,
                  DpsHeaders headers) {
         this.rootUrl = config.getRootUrl();
         this.httpClient = httpClient;
+        this.asyncHttpClient = asyncHttpClient;
+        this.validityCache = validityCache;
         this.headers = headers;
         if (config.apiKey != null) {
             headers.put("AppKey", config.apiKey);
@@ -57,6 +74,15 @@ public class LegalService implements ILegalProvider {
         return result.IsNotFoundCode() ? null : this.getResult(result, LegalTag.class);
     }
 
+    @Override
+    public CompletableFuture<LegalTag> getAsync(String name) {
+        String url = this.createUrl(String.format("/legaltags/%s", name));
+        return this.asyncHttpClient.sendAsync(
+                HttpRequest.get().url(url).headers(this.headers.getHeaders()).build())
+                .thenCompose(result -> result.IsNotFoundCode() ?
+                        CompletableFuture.completedFuture(null) : this.getResultAsync(result, LegalTag.class));
+    }
+
     @Override
     public void delete(String name) throws LegalException {
         String url = this.createUrl(String.format("/legaltags/%s", name));
@@ -67,6 +93,17 @@ public class LegalService implements ILegalProvider {
 
     @Override
     public InvalidTagsWithReason validate(String... names) throws LegalException {
+        if (this.validityCache == null) {
+            return this.validateRemote(names);
+        }
+        InvalidTagsWithReason output = new InvalidTagsWithReason();
+        output.setInvalidLegalTags(this.validityCache.getInvalidLegalTags(
+                this.headers.getPartitionIdWithFallbackToAccountId(), Arrays.asList(names),
+                misses -> this.validateRemote(misses.toArray(new String[0])).getInvalidLegalTags()));
+        return output;
+    }
+
+    private InvalidTagsWithReason validateRemote(String... names) throws LegalException {
         String url = this.createUrl(String.format("/legaltags:validate"));
         RequestLegalTags rlt = new RequestLegalTags();
         rlt.setNames(names);
@@ -75,6 +112,16 @@ public class LegalService implements ILegalProvider {
         return this.getResult(result, InvalidTagsWithReason.class);
     }
 
+    @Override
+    public CompletableFuture<InvalidTagsWithReason> validateAsync(String... names) {
+        String url = this.createUrl("/legaltags:validate");
+        RequestLegalTags rlt = new RequestLegalTags();
+        rlt.setNames(names);
+        return this.asyncHttpClient.sendAsync(
+                HttpRequest.post(rlt).url(url).headers(this.headers.getHeaders()).build())
+                .thenCompose(result -> this.getResultAsync(result, InvalidTagsWithReason.class));
+    }
+
     @Override
     public LegalTagProperties getLegalTagProperties() throws LegalException {
         String url = this.createUrl("/legaltags:properties");
@@ -103,4 +150,14 @@ public class LegalService implements ILegalProvider {
             throw this.generateException(result);
         }
     }
+
+    private <T> CompletableFuture<T> getResultAsync(HttpResponse result, Class<T> type) {
+        CompletableFuture<T> output = new CompletableFuture<>();
+        try {
+            output.complete(this.getResult(result, type));
+        } catch (LegalException e) {
+            output.completeExceptionally(e);
+        }
+        return output;
+    }
 }
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.legal;
+
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import org.opengroup.osdu.core.common.cache.ICacheInvalidationChannel;
+import org.opengroup.osdu.core.common.cache.RedisCacheInvalidationChannel;
+import org.opengroup.osdu.core.common.model.legal.InvalidTagWithReason;
+import org.opengroup.osdu.core.common.model.legal.LegalException;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChanged;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChangedCollection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per partition cache of legal tag validity. Misses are resolved with a single call to the loader and entries are
+ * dropped as soon as a compliance change message names them. Compliance messages reach a single node, so when
+ * LEGAL_TAG_CACHE_REDIS_HOST is set invalidations are broadcast to the other nodes over an
+ * {@link ICacheInvalidationChannel}; the expiration only bounds staleness when a broadcast is lost, or on nodes
+ * running without one.
+ */
+@Component
+@Lazy
+public class LegalTagValidityCache {
+
+    @FunctionalInterface
+    public interface Loader {
+        InvalidTagWithReason[] getInvalidLegalTags(Set<String> names) throws LegalException;
+    }
+
+    private static final String COMPLIANT = "compliant";
+    private static final String CHANNEL_NAME = "legal-tag-validity";
+    private static final String NODE = "node";
+    private static final String PARTITION = "partition";
+    private static final String TAGS = "tags";
+
+    @Value("${LEGAL_TAG_CACHE_EXPIRATION_SECONDS:60}")
+    private int expirationSeconds = 60;
+
+    @Value("${LEGAL_TAG_CACHE_MAX_SIZE:10000}")
+    private int maxSize = 10000;
+
+    @Value("${LEGAL_TAG_CACHE_REDIS_HOST:}")
+    private String redisHost;
+
+    @Value("${LEGAL_TAG_CACHE_REDIS_PORT:6379}")
+    private int redisPort = 6379;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private ICacheInvalidationChannel channel;
+    private final ConcurrentMap<String, Cache<String, Validity>> partitions = new ConcurrentHashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public LegalTagValidityCache() {
+    }
+
+    public LegalTagValidityCache(int expirationSeconds, int maxSize) {
+        this.expirationSeconds = expirationSeconds;
+        this.maxSize = maxSize;
+    }
+
+    public LegalTagValidityCache(int expirationSeconds, int maxSize, ICacheInvalidationChannel channel) {
+        this(expirationSeconds, maxSize);
+        this.channel = channel;
+        this.channel.subscribe(this::onMessage);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (this.channel == null && !Strings.isNullOrEmpty(this.redisHost)) {
+            this.channel = new RedisCacheInvalidationChannel(this.redisHost, this.redisPort, CHANNEL_NAME);
+            this.channel.subscribe(this::onMessage);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (this.channel != null) {
+            this.channel.close();
+        }
+    }
+
+    public InvalidTagWithReason[] getInvalidLegalTags(String partition, Collection<String> names, Loader loader)
+            throws LegalException {
+        Cache<String, Validity> cache = this.getPartition(partition);
+        List<InvalidTagWithReason> output = new ArrayList<>();
+        Set<String> requested = new LinkedHashSet<>(names);
+        Set<String> misses = new LinkedHashSet<>();
+        for (String name : requested) {
+            Validity validity = cache.getIfPresent(name);
+            if (validity == null) {
+                misses.add(name);
+            } else if (!validity.valid) {
+                output.add(toInvalidTag(name, validity.reason));
+            }
+        }
+        this.hitCount.addAndGet(requested.size() - misses.size());
+        this.missCount.addAndGet(misses.size());
+
+        if (!misses.isEmpty()) {
+            InvalidTagWithReason[] invalidTags = loader.getInvalidLegalTags(Collections.unmodifiableSet(misses));
+            Map<String, Validity> loaded = new HashMap<>();
+            for (String name : misses) {
+                loaded.put(name, Validity.VALID);
+            }
+            if (invalidTags != null) {
+                for (InvalidTagWithReason invalidTag : invalidTags) {
+                    loaded.replace(invalidTag.getName(), new Validity(false, invalidTag.getReason()));
+                    output.add(invalidTag);
+                }
+            }
+            cache.putAll(loaded);
+        }
+        return output.toArray(new InvalidTagWithReason[0]);
+    }
+
+    /**
+     * Applies a compliance change that has been confirmed with the Legal service: compliant tags are marked valid,
+     * incompliant ones are dropped so that the next lookup fetches the reason.
+     */
+    public void apply(String partition, LegalTagChangedCollection changes) {
+        if (changes == null || changes.getStatusChangedTags() == null) {
+            return;
+        }
+        Cache<String, Validity> cache = this.getPartition(partition);
+        for (LegalTagChanged change : changes.getStatusChangedTags()) {
+            if (COMPLIANT.equalsIgnoreCase(change.getChangedTagStatus())) {
+                cache.put(change.getChangedTagName(), Validity.VALID);
+            } else {
+                cache.invalidate(change.getChangedTagName());
+            }
+        }
+    }
+
+    public void invalidate(String partition, LegalTagChangedCollection changes) {
+        if (changes == null || changes.getStatusChangedTags() == null) {
+            return;
+        }
+        List<String> names = new ArrayList<>();
+        for (LegalTagChanged change : changes.getStatusChangedTags()) {
+            names.add(change.getChangedTagName());
+        }
+        this.invalidate(partition, names);
+    }
+
+    public void invalidate(String partition, Collection<String> names) {
+        this.getPartition(partition).invalidateAll(names);
+        this.publish(partition, names);
+    }
+
+    public void invalidateAll(String partition) {
+        this.dropPartition(partition);
+        this.publish(partition, null);
+    }
+
+    public void invalidateAll() {
+        this.partitions.clear();
+        this.publish(null, null);
+    }
+
+    public long getHitCount() {
+        return this.hitCount.get();
+    }
+
+    public long getMissCount() {
+        return this.missCount.get();
+    }
+
+    public double getHitRate() {
+        long hits = this.hitCount.get();
+        long total = hits + this.missCount.get();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    private void dropPartition(String partition) {
+        Cache<String, Validity> cache = this.partitions.remove(Strings.nullToEmpty(partition));
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    private void publish(String partition, Collection<String> names) {
+        if (this.channel == null) {
+            return;
+        }
+        JsonObject message = new JsonObject();
+        message.addProperty(NODE, this.nodeId);
+        if (partition != null) {
+            message.addProperty(PARTITION, partition);
+        }
+        if (names != null) {
+            JsonArray tags = new JsonArray();
+            names.forEach(tags::add);
+            message.add(TAGS, tags);
+        }
+        this.channel.publish(message.toString());
+    }
+
+    private void onMessage(String payload) {
+        JsonObject message;
+        try {
+            message = new JsonParser().parse(payload).getAsJsonObject();
+        } catch (JsonSyntaxException | IllegalStateException e) {
+            // not a message of this cache, there is nothing safe to evict
+            return;
+        }
+        JsonElement node = message.get(NODE);
+        if (node != null && this.nodeId.equals(node.getAsString())) {
+            return;
+        }
+        JsonElement partition = message.get(PARTITION);
+        JsonElement tags = message.get(TAGS);
+        if (partition == null || !partition.isJsonPrimitive()) {
+            this.partitions.clear();
+        } else if (tags == null || !tags.isJsonArray()) {
+            this.dropPartition(partition.getAsString());
+        } else {
+            Cache<String, Validity> cache = this.partitions.get(Strings.nullToEmpty(partition.getAsString()));
+            if (cache != null) {
+                for (JsonElement tag : tags.getAsJsonArray()) {
+                    cache.invalidate(tag.getAsString());
+                }
+            }
+        }
+    }
+
+    private Cache<String, Validity> getPartition(String partition) {
+        return this.partitions.computeIfAbsent(Strings.nullToEmpty(partition), k -> CacheBuilder.newBuilder()
+                .expireAfterWrite(this.expirationSeconds, TimeUnit.SECONDS)
+                .maximumSize(this.maxSize)
+                .build());
+    }
+
+    private static InvalidTagWithReason toInvalidTag(String name, String reason) {
+        InvalidTagWithReason output = new InvalidTagWithReason();
+        output.setName(name);
+        output.setReason(reason);
+        return output;
+    }
+
+    private static final class Validity {
+        private static final Validity VALID = new Validity(true, null);
+
+        private final boolean valid;
+        private final String reason;
+
+        private Validity(boolean valid, String reason) {
+            this.valid = valid;
+            this.reason = reason;
+        }
+    }
+}
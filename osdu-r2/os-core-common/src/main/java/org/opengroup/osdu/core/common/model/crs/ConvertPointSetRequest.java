@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.crs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Same payload as {@link ConvertPointsRequest} with the points packed in a {@link PointSet}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConvertPointSetRequest {
+    private String fromCRS;
+    private String toCRS;
+    private PointSet points;
+
+    public static ConvertPointSetRequest fromPointsRequest(ConvertPointsRequest request) {
+        return new ConvertPointSetRequest(request.getFromCRS(), request.getToCRS(),
+                request.getPoints() == null ? null : PointSet.fromPoints(request.getPoints()));
+    }
+
+    public ConvertPointsRequest toPointsRequest() {
+        return new ConvertPointsRequest(this.fromCRS, this.toCRS, this.points == null ? null : this.points.toPoints());
+    }
+}
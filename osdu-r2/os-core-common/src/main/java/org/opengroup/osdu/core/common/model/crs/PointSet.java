@@ -0,0 +1,345 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.crs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Points packed as interleaved x, y, z values in one double[], so that large conversions do not allocate a
+ * {@link Point} and three boxed doubles per point. Serializes to the same JSON as a list of {@link Point}, with
+ * missing or null coordinates read as NaN.
+ */
+@JsonAdapter(PointSet.GsonAdapter.class)
+@JsonSerialize(using = PointSet.JacksonSerializer.class)
+@JsonDeserialize(using = PointSet.JacksonDeserializer.class)
+public final class PointSet {
+    private static final String X = "x";
+    private static final String Y = "y";
+    private static final String Z = "z";
+
+    private double[] coordinates;
+    private int size;
+
+    public PointSet() {
+        this(16);
+    }
+
+    public PointSet(int capacity) {
+        this.coordinates = new double[3 * Math.max(1, capacity)];
+    }
+
+    private PointSet(double[] coordinates, int size) {
+        this.coordinates = coordinates;
+        this.size = size;
+    }
+
+    /**
+     * Uses the given array of interleaved x, y, z values without copying it.
+     */
+    public static PointSet wrap(double[] coordinates) {
+        if (coordinates.length % 3 != 0) {
+            throw new IllegalArgumentException("coordinates must hold x, y and z for every point");
+        }
+        return new PointSet(coordinates, coordinates.length / 3);
+    }
+
+    public static PointSet fromPoints(List<Point> points) {
+        PointSet output = new PointSet(points.size());
+        for (Point point : points) {
+            if (point == null) {
+                output.add(Double.NaN, Double.NaN, Double.NaN);
+            } else {
+                output.add(valueOf(point.getX()), valueOf(point.getY()), valueOf(point.getZ()));
+            }
+        }
+        return output;
+    }
+
+    public List<Point> toPoints() {
+        List<Point> output = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            output.add(new Point(this.getX(i), this.getY(i), this.getZ(i)));
+        }
+        return output;
+    }
+
+    /**
+     * A read only {@link Point} view that creates points on access.
+     */
+    public List<Point> asPoints() {
+        return new AbstractList<Point>() {
+            @Override
+            public Point get(int index) {
+                checkIndex(index);
+                return new Point(PointSet.this.getX(index), PointSet.this.getY(index), PointSet.this.getZ(index));
+            }
+
+            @Override
+            public int size() {
+                return PointSet.this.size;
+            }
+        };
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public double getX(int index) {
+        return this.coordinates[3 * this.checkIndex(index)];
+    }
+
+    public double getY(int index) {
+        return this.coordinates[3 * this.checkIndex(index) + 1];
+    }
+
+    public double getZ(int index) {
+        return this.coordinates[3 * this.checkIndex(index) + 2];
+    }
+
+    public boolean isValid(int index) {
+        return !(Double.isNaN(this.getX(index)) || Double.isNaN(this.getY(index)) || Double.isNaN(this.getZ(index)));
+    }
+
+    public void set(int index, double x, double y, double z) {
+        int offset = 3 * this.checkIndex(index);
+        this.coordinates[offset] = x;
+        this.coordinates[offset + 1] = y;
+        this.coordinates[offset + 2] = z;
+    }
+
+    public void add(double x, double y, double z) {
+        this.ensureCapacity(this.size + 1);
+        int offset = 3 * this.size++;
+        this.coordinates[offset] = x;
+        this.coordinates[offset + 1] = y;
+        this.coordinates[offset + 2] = z;
+    }
+
+    public void addAll(PointSet other) {
+        this.ensureCapacity(this.size + other.size);
+        System.arraycopy(other.coordinates, 0, this.coordinates, 3 * this.size, 3 * other.size);
+        this.size += other.size;
+    }
+
+    /**
+     * Copies the points from fromIndex, inclusive, to toIndex, exclusive.
+     */
+    public PointSet slice(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > this.size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(String.format("slice %d to %d of %d points", fromIndex, toIndex, this.size));
+        }
+        return new PointSet(Arrays.copyOfRange(this.coordinates, 3 * fromIndex, 3 * toIndex), toIndex - fromIndex);
+    }
+
+    /**
+     * Returns the interleaved x, y, z values as a new array.
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(this.coordinates, 3 * this.size);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PointSet)) return false;
+        PointSet other = (PointSet) o;
+        return this.size == other.size && Arrays.equals(this.toArray(), other.toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < 3 * this.size; i++) {
+            long bits = Double.doubleToLongBits(this.coordinates[i]);
+            result = 31 * result + (int) (bits ^ (bits >>> 32));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PointSet(size=" + this.size + ")";
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException(String.format("index %d of %d points", index, this.size));
+        }
+        return index;
+    }
+
+    private void ensureCapacity(int points) {
+        if (3 * points > this.coordinates.length) {
+            int capacity = Math.max(points, this.coordinates.length / 3 * 2);
+            this.coordinates = Arrays.copyOf(this.coordinates, 3 * capacity);
+        }
+    }
+
+    private static double valueOf(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    static final class GsonAdapter extends TypeAdapter<PointSet> {
+        @Override
+        public void write(JsonWriter out, PointSet value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginArray();
+            for (int i = 0; i < value.size; i++) {
+                out.beginObject();
+                writeCoordinate(out, X, value.coordinates[3 * i]);
+                writeCoordinate(out, Y, value.coordinates[3 * i + 1]);
+                writeCoordinate(out, Z, value.coordinates[3 * i + 2]);
+                out.endObject();
+            }
+            out.endArray();
+        }
+
+        /**
+         * A missing coordinate is stored as NaN, which is no valid JSON number: it is left out like the null of a
+         * {@link Point} and read back as NaN.
+         */
+        private static void writeCoordinate(JsonWriter out, String name, double value) throws IOException {
+            if (Double.isFinite(value)) {
+                out.name(name).value(value);
+            }
+        }
+
+        @Override
+        public PointSet read(JsonReader in) throws IOException {
+            if (in.peek() == com.google.gson.stream.JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            PointSet output = new PointSet();
+            in.beginArray();
+            while (in.hasNext()) {
+                if (in.peek() == com.google.gson.stream.JsonToken.NULL) {
+                    in.nextNull();
+                    output.add(Double.NaN, Double.NaN, Double.NaN);
+                    continue;
+                }
+                double x = Double.NaN;
+                double y = Double.NaN;
+                double z = Double.NaN;
+                in.beginObject();
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    if (in.peek() == com.google.gson.stream.JsonToken.NULL) {
+                        in.nextNull();
+                    } else if (X.equals(name)) {
+                        x = in.nextDouble();
+                    } else if (Y.equals(name)) {
+                        y = in.nextDouble();
+                    } else if (Z.equals(name)) {
+                        z = in.nextDouble();
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                in.endObject();
+                output.add(x, y, z);
+            }
+            in.endArray();
+            return output;
+        }
+    }
+
+    static final class JacksonSerializer extends JsonSerializer<PointSet> {
+        @Override
+        public void serialize(PointSet value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartArray();
+            for (int i = 0; i < value.size; i++) {
+                gen.writeStartObject();
+                writeCoordinate(gen, X, value.coordinates[3 * i]);
+                writeCoordinate(gen, Y, value.coordinates[3 * i + 1]);
+                writeCoordinate(gen, Z, value.coordinates[3 * i + 2]);
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+
+        private static void writeCoordinate(JsonGenerator gen, String name, double value) throws IOException {
+            if (Double.isFinite(value)) {
+                gen.writeNumberField(name, value);
+            }
+        }
+    }
+
+    static final class JacksonDeserializer extends JsonDeserializer<PointSet> {
+        @Override
+        public PointSet deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                return (PointSet) context.handleUnexpectedToken(PointSet.class, parser);
+            }
+            PointSet output = new PointSet();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                double x = Double.NaN;
+                double y = Double.NaN;
+                double z = Double.NaN;
+                if (token == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String name = parser.getCurrentName();
+                        token = parser.nextToken();
+                        if (token == JsonToken.VALUE_NULL) {
+                            continue;
+                        } else if (X.equals(name)) {
+                            x = parser.getValueAsDouble(Double.NaN);
+                        } else if (Y.equals(name)) {
+                            y = parser.getValueAsDouble(Double.NaN);
+                        } else if (Z.equals(name)) {
+                            z = parser.getValueAsDouble(Double.NaN);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else if (token != JsonToken.VALUE_NULL) {
+                    return (PointSet) context.handleUnexpectedToken(PointSet.class, parser);
+                }
+                output.add(x, y, z);
+            }
+            return output;
+        }
+    }
+}
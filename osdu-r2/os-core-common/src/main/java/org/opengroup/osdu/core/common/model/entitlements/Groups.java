@@ -17,10 +17,21 @@
 
 package org.opengroup.osdu.core.common.model.entitlements;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Data
@@ -29,6 +40,17 @@ public class Groups {
     private String memberEmail;
     private String desId;
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient volatile MembershipIndex index;
+
+    public void setGroups(List<GroupInfo> groups) {
+        this.groups = groups;
+        this.index = null;
+    }
+
     public List<String> getGroupNames() {
         if (this.groups == null) {
             return new ArrayList<>();
@@ -38,19 +60,17 @@ public class Groups {
     }
 
     public Boolean any(String... groupNames) {
-        Boolean output = false;
-        if (this.groups != null) {
-            for (String groupName : groupNames) {
-                if (this.groups.stream()
-                        .map(GroupInfo::getName)
-                        .anyMatch(p -> p.equals(groupName))) {
-                    output = true;
-                    break;
-                }
-            }
+        if (this.groups == null) {
+            return false;
         }
+        return MembershipIndex.containsAny(getIndex().names, groupNames);
+    }
 
-        return output;
+    public Boolean anyInTenant(String tenantName, String... groupNames) {
+        if (this.groups == null) {
+            return false;
+        }
+        return MembershipIndex.containsAny(getIndex().getTenantNames(tenantName), groupNames);
     }
 
     public GroupInfo getGroup(String groupName) {
@@ -61,4 +81,72 @@ public class Groups {
         }
         return null;
     }
+
+    private MembershipIndex getIndex() {
+        List<GroupInfo> current = this.groups;
+        MembershipIndex output = this.index;
+        // the list is exposed through getGroups, so rebuild if it was replaced or resized in place
+        if (output == null || output.source != current || output.size != current.size()) {
+            output = new MembershipIndex(current);
+            this.index = output;
+        }
+        return output;
+    }
+
+    /**
+     * Immutable lookup structure over the group names, partitioned by the email domain of each group so that
+     * tenant scoped checks do not have to scan the whole list.
+     */
+    private static final class MembershipIndex {
+        private final List<GroupInfo> source;
+        private final int size;
+        private final Set<String> names;
+        private final Map<String, Set<String>> namesByDomain;
+        private final Map<String, Set<String>> namesByTenant = new ConcurrentHashMap<>();
+
+        private MembershipIndex(List<GroupInfo> groups) {
+            this.source = groups;
+            this.size = groups.size();
+            Set<String> allNames = new HashSet<>();
+            Map<String, Set<String>> byDomain = new HashMap<>();
+            for (GroupInfo group : groups) {
+                if (group == null || group.getName() == null) {
+                    continue;
+                }
+                allNames.add(group.getName());
+                String email = group.getEmail();
+                int at = email == null ? -1 : email.indexOf('@');
+                if (at >= 0) {
+                    byDomain.computeIfAbsent(email.substring(at + 1), k -> new HashSet<>()).add(group.getName());
+                }
+            }
+            this.names = Collections.unmodifiableSet(allNames);
+            this.namesByDomain = Collections.unmodifiableMap(byDomain);
+        }
+
+        // matches the historical email.contains("@" + tenantName) filter, i.e. every domain starting with the tenant
+        private Set<String> getTenantNames(String tenantName) {
+            if (tenantName == null) {
+                return Collections.emptySet();
+            }
+            return this.namesByTenant.computeIfAbsent(tenantName, tenant -> {
+                Set<String> output = new HashSet<>();
+                this.namesByDomain.forEach((domain, domainNames) -> {
+                    if (domain.startsWith(tenant)) {
+                        output.addAll(domainNames);
+                    }
+                });
+                return Collections.unmodifiableSet(output);
+            });
+        }
+
+        private static boolean containsAny(Set<String> candidates, String... groupNames) {
+            for (String groupName : groupNames) {
+                if (candidates.contains(groupName)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
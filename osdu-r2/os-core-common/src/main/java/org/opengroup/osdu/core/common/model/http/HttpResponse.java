@@ -18,33 +18,94 @@
 package org.opengroup.osdu.core.common.model.http;
 
 import com.google.common.base.Strings;
+import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.web.context.annotation.RequestScope;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 @RequestScope
 public class HttpResponse {
 
+    private static final Gson gson = new Gson();
+
     private String body;
     private String contentType;
     private int responseCode;
     private Exception exception;
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private byte[] rawBody;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Charset charset = StandardCharsets.UTF_8;
+
+    public HttpResponse(String body, String contentType, int responseCode, Exception exception) {
+        this.body = body;
+        this.contentType = contentType;
+        this.responseCode = responseCode;
+        this.exception = exception;
+    }
+
+    public void setRawBody(byte[] rawBody, Charset charset) {
+        this.rawBody = rawBody == null ? new byte[0] : rawBody;
+        this.charset = charset == null ? StandardCharsets.UTF_8 : charset;
+        this.body = null;
+    }
+
+    public String getBody() {
+        if (this.body == null && this.rawBody != null) {
+            this.body = new String(this.rawBody, this.charset);
+        }
+        return this.body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+        this.rawBody = null;
+    }
 
     public Boolean isSuccessCode() {
         return responseCode >= 200 && responseCode <= 204;
     }
 
     public JsonObject getAsJsonObject() {
+        if (this.body == null && this.rawBody != null) {
+            return this.rawBody.length == 0 ? null : new JsonParser().parse(
+                    new InputStreamReader(new ByteArrayInputStream(this.rawBody), this.charset)).getAsJsonObject();
+        }
         if (Strings.isNullOrEmpty(body)) {
             return null;
         }
 
         return new JsonParser().parse(body).getAsJsonObject();
     }
+
+    public <T> T parseBody(Class<T> type) {
+        if (this.body == null && this.rawBody != null) {
+            return this.rawBody.length == 0 ? null : gson.fromJson(
+                    new InputStreamReader(new ByteArrayInputStream(this.rawBody), this.charset), type);
+        }
+        if (Strings.isNullOrEmpty(body)) {
+            return null;
+        }
+
+        return gson.fromJson(body, type);
+    }
 }
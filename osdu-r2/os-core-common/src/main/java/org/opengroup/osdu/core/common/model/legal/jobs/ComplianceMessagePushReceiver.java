@@ -20,6 +20,9 @@ package org.opengroup.osdu.core.common.model.legal.jobs;
 import com.google.gson.Gson;
 import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.http.RequestBodyExtractor;
+import org.opengroup.osdu.core.common.legal.LegalAPIConfig;
+import org.opengroup.osdu.core.common.legal.LegalTagValidityCache;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.RequestScope;
@@ -40,10 +43,44 @@ public class ComplianceMessagePushReceiver {
 	@Autowired
 	private ILegalComplianceChangeService legalComplianceChangeService;
 
+	@Autowired
+	private ObjectProvider<LegalAPIConfig> legalAPIConfig;
+
+	@Autowired
+	private ObjectProvider<LegalTagValidityCache> legalTagValidityCache;
+
+	@Autowired
+	private ObjectProvider<LegalComplianceChangeProcessor> legalComplianceChangeProcessor;
+
 	public void receiveMessageFromHttpRequest() {
 		LegalTagChangedCollection dto = new Gson().fromJson(this.requestBodyExtractor.extractDataFromRequestBody(),
 				LegalTagChangedCollection.class);
+		String partition = this.dpsHeaders.getPartitionIdWithFallbackToAccountId();
+		LegalTagValidityCache validityCache = this.getValidityCache();
+		if (validityCache != null) {
+			// drop the entries first so the consistency check below sees the Legal service state, this also
+			// evicts them on the other nodes
+			validityCache.invalidate(partition, dto);
+		}
 		LegalTagChangedCollection validDto = this.legalTagConsistencyValidator.checkLegalTagStatusWithLegalService(dto);
-		this.legalComplianceChangeService.updateComplianceOnRecords(validDto, this.dpsHeaders);
+		if (validityCache != null) {
+			validityCache.apply(partition, validDto);
+		}
+		LegalComplianceChangeProcessor processor = this.legalComplianceChangeProcessor == null ? null
+				: this.legalComplianceChangeProcessor.getIfAvailable();
+		if (processor != null && processor.isEnabled()) {
+			processor.process(validDto, this.dpsHeaders);
+		} else {
+			this.legalComplianceChangeService.updateComplianceOnRecords(validDto, this.dpsHeaders);
+		}
+	}
+
+	// same lookup as LegalFactory so that the entries dropped here are the ones LegalService reads
+	private LegalTagValidityCache getValidityCache() {
+		LegalAPIConfig config = this.legalAPIConfig == null ? null : this.legalAPIConfig.getIfAvailable();
+		if (config != null && config.getValidityCache() != null) {
+			return config.getValidityCache();
+		}
+		return this.legalTagValidityCache == null ? null : this.legalTagValidityCache.getIfAvailable();
 	}
 }
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.legal.jobs;
+
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+
+/**
+ * Updates the compliance of the records carrying a changed legal tag one page at a time, so that a tag shared by
+ * millions of records never has to be held in memory at once. A null or empty next cursor ends the iteration.
+ */
+public interface IPagedLegalComplianceChangeService {
+    ComplianceChangePage updateComplianceOnRecords(LegalTagChanged legalTagChanged, String cursor, int limit,
+                                                   DpsHeaders headers);
+}
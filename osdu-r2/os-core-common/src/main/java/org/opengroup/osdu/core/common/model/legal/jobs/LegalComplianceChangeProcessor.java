@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.legal.jobs;
+
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.http.HttpStatus;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Applies confirmed legal tag changes through {@link IPagedLegalComplianceChangeService}. Each changed tag is paged
+ * through on a shared, fixed size pool and the cursor is checkpointed after every page, so a redelivered message
+ * resumes where the previous attempt stopped.
+ */
+@Component
+@Lazy
+public class LegalComplianceChangeProcessor {
+
+    @Value("${LEGAL_COMPLIANCE_UPDATE_PAGE_SIZE:500}")
+    private int pageSize = 500;
+
+    @Value("${LEGAL_COMPLIANCE_UPDATE_PARALLELISM:4}")
+    private int parallelism = 4;
+
+    @Autowired(required = false)
+    private IPagedLegalComplianceChangeService complianceChangeService;
+
+    @Autowired(required = false)
+    private IComplianceChangeCheckpointStore checkpointStore;
+
+    private ExecutorService executor;
+
+    public LegalComplianceChangeProcessor() {
+    }
+
+    public LegalComplianceChangeProcessor(IPagedLegalComplianceChangeService complianceChangeService,
+                                          IComplianceChangeCheckpointStore checkpointStore,
+                                          int pageSize, int parallelism) {
+        this.complianceChangeService = complianceChangeService;
+        this.checkpointStore = checkpointStore;
+        this.pageSize = pageSize;
+        this.parallelism = parallelism;
+    }
+
+    public boolean isEnabled() {
+        return this.complianceChangeService != null;
+    }
+
+    /**
+     * Returns the number of updated records per legal tag. The first failure is rethrown once every tag has been
+     * attempted, its checkpoint is kept for the retry.
+     */
+    public Map<String, Long> process(LegalTagChangedCollection changes, DpsHeaders headers) {
+        // the caller's headers are usually request scoped and cannot be read from the worker threads
+        DpsHeaders workerHeaders = DpsHeaders.createFromMap(headers.getHeaders());
+        String partition = workerHeaders.getPartitionIdWithFallbackToAccountId();
+
+        Map<String, LegalTagChanged> latestChanges = new LinkedHashMap<>();
+        for (LegalTagChanged change : changes.getStatusChangedTags()) {
+            latestChanges.put(change.getChangedTagName(), change);
+        }
+
+        Map<String, Future<Long>> futures = new LinkedHashMap<>();
+        for (LegalTagChanged change : latestChanges.values()) {
+            futures.put(change.getChangedTagName(),
+                    this.getExecutor().submit(() -> this.processTag(partition, change, workerHeaders)));
+        }
+
+        Map<String, Long> output = new LinkedHashMap<>();
+        RuntimeException failure = null;
+        for (Map.Entry<String, Future<Long>> future : futures.entrySet()) {
+            try {
+                output.put(future.getKey(), future.getValue().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AppException(HttpStatus.SC_SERVICE_UNAVAILABLE, "Compliance update interrupted",
+                        "Interrupted while updating record compliance", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() :
+                            new AppException(HttpStatus.SC_INTERNAL_SERVER_ERROR, "Compliance update failed",
+                                    "Failed to update record compliance for " + future.getKey(), e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return output;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    private long processTag(String partition, LegalTagChanged change, DpsHeaders headers) {
+        IComplianceChangeCheckpointStore checkpoints = this.getCheckpointStore();
+        String cursor = checkpoints.getCursor(partition, change);
+        long updated = 0;
+        do {
+            ComplianceChangePage page = this.complianceChangeService.updateComplianceOnRecords(
+                    change, cursor, this.pageSize, headers);
+            updated += page.getUpdatedRecords();
+            cursor = page.getNextCursor();
+            if (!Strings.isNullOrEmpty(cursor)) {
+                checkpoints.saveCursor(partition, change, cursor);
+            }
+        } while (!Strings.isNullOrEmpty(cursor));
+        checkpoints.deleteCursor(partition, change);
+        return updated;
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (this.executor == null) {
+            this.executor = Executors.newFixedThreadPool(this.parallelism, new ThreadFactoryBuilder()
+                    .setNameFormat("legal-compliance-%d").setDaemon(true).build());
+        }
+        return this.executor;
+    }
+
+    private synchronized IComplianceChangeCheckpointStore getCheckpointStore() {
+        if (this.checkpointStore == null) {
+            this.checkpointStore = new InMemoryCheckpointStore();
+        }
+        return this.checkpointStore;
+    }
+
+    private static final class InMemoryCheckpointStore implements IComplianceChangeCheckpointStore {
+        private final Map<String, String> cursors = new ConcurrentHashMap<>();
+
+        @Override
+        public String getCursor(String partition, LegalTagChanged legalTagChanged) {
+            return this.cursors.get(createKey(partition, legalTagChanged));
+        }
+
+        @Override
+        public void saveCursor(String partition, LegalTagChanged legalTagChanged, String cursor) {
+            this.cursors.put(createKey(partition, legalTagChanged), cursor);
+        }
+
+        @Override
+        public void deleteCursor(String partition, LegalTagChanged legalTagChanged) {
+            this.cursors.remove(createKey(partition, legalTagChanged));
+        }
+
+        private static String createKey(String partition, LegalTagChanged legalTagChanged) {
+            return String.join("\n", Strings.nullToEmpty(partition), legalTagChanged.getChangedTagName(),
+                    Strings.nullToEmpty(legalTagChanged.getChangedTagStatus()));
+        }
+    }
+}
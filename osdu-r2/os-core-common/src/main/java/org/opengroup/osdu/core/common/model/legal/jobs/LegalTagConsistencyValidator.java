@@ -33,6 +33,9 @@ import java.util.Set;
 @RequestScope
 public class LegalTagConsistencyValidator {
 
+	private static final String COMPLIANT = "compliant";
+	private static final String INCOMPLIANT = "incompliant";
+
 	@Autowired
 	private ILegalService legalService;
 
@@ -49,27 +52,24 @@ public class LegalTagConsistencyValidator {
 
 		InvalidTagWithReason[] invalidLegalTags = this.legalService.getInvalidLegalTags(requestedLegalTagNames);
 
-		List<String> invalidLegalTagsNames = new ArrayList<>();
+		Set<String> invalidLegalTagsNames = new HashSet<>();
 		for (InvalidTagWithReason legaltag : invalidLegalTags) {
 			invalidLegalTagsNames.add(legaltag.getName());
 		}
 
-		for (int i = 0; i < statusChangedTags.size(); i++) {
-			LegalTagChanged lt = statusChangedTags.get(i);
-			if (lt.getChangedTagStatus().equalsIgnoreCase("incompliant")
-					&& !invalidLegalTagsNames.contains(lt.getChangedTagName())) {
-				this.logger.warning("Inconsistency between pubsub message and legal: " + lt.getChangedTagName());
-				statusChangedTags.remove(lt);
-			}
-			if (lt.getChangedTagStatus().equalsIgnoreCase("compliant")
-					&& invalidLegalTagsNames.contains(lt.getChangedTagName())) {
+		List<LegalTagChanged> consistentTags = new ArrayList<>(statusChangedTags.size());
+		for (LegalTagChanged lt : statusChangedTags) {
+			boolean invalid = invalidLegalTagsNames.contains(lt.getChangedTagName());
+			if ((INCOMPLIANT.equalsIgnoreCase(lt.getChangedTagStatus()) && !invalid)
+					|| (COMPLIANT.equalsIgnoreCase(lt.getChangedTagStatus()) && invalid)) {
 				this.logger.warning("Inconsistency between pubsub message and legal: " + lt.getChangedTagName());
-				statusChangedTags.remove(lt);
+				continue;
 			}
+			consistentTags.add(lt);
 		}
 
 		LegalTagChangedCollection validOutput = new LegalTagChangedCollection();
-		validOutput.setStatusChangedTags(statusChangedTags);
+		validOutput.setStatusChangedTags(consistentTags);
 
 		return validOutput;
 	}
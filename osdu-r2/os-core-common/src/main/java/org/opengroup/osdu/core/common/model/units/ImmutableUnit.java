@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.units;
+
+/**
+ * Read only view over a parsed {@link Unit}, safe to share between threads and callers.
+ */
+final class ImmutableUnit implements IUnit {
+    private final Unit unit;
+    private volatile String persistableReference;
+
+    ImmutableUnit(Unit unit) {
+        this.unit = unit;
+    }
+
+    @Override
+    public String getSymbol() {
+        return this.unit.getSymbol();
+    }
+
+    @Override
+    public String getAncestry() {
+        return this.unit.getAncestry();
+    }
+
+    @Override
+    public double getScale() {
+        return this.unit.getScale();
+    }
+
+    @Override
+    public double getOffset() {
+        return this.unit.getOffset();
+    }
+
+    @Override
+    public boolean isValid() {
+        return this.unit.isValid();
+    }
+
+    @Override
+    public boolean isConvertible(IUnit other) {
+        return this.unit.isConvertible(other);
+    }
+
+    @Override
+    public boolean isEqualInBehavior(IUnit other) {
+        return this.unit.isEqualInBehavior(other);
+    }
+
+    @Override
+    public double convertToUnit(IUnit toUnit, double fromValue) {
+        return this.unit.convertToUnit(toUnit, fromValue);
+    }
+
+    @Override
+    public double[] convertToUnit(IUnit toUnit, double[] fromValue) {
+        return this.unit.convertToUnit(toUnit, fromValue);
+    }
+
+    @Override
+    public double convertToSI(double fromValue) {
+        return this.unit.convertToSI(fromValue);
+    }
+
+    @Override
+    public void convertToSI(double[] values) {
+        this.unit.convertToSI(values);
+    }
+
+    @Override
+    public double convertFromSI(double fromValue) {
+        return this.unit.convertFromSI(fromValue);
+    }
+
+    @Override
+    public void convertFromSI(double[] values) {
+        this.unit.convertFromSI(values);
+    }
+
+    int getAncestryId() {
+        return this.unit.getAncestryId();
+    }
+
+    @Override
+    public String getBaseUnit() {
+        return this.unit.getBaseUnit();
+    }
+
+    @Override
+    public String createPersistableReference() {
+        // Unit.createPersistableReference updates its V2 implementation, so compute it once under the lock
+        String output = this.persistableReference;
+        if (output == null && this.unit.isValid()) {
+            synchronized (this) {
+                output = this.persistableReference;
+                if (output == null) {
+                    output = this.unit.createPersistableReference();
+                    this.persistableReference = output;
+                }
+            }
+        }
+        return output;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ImmutableUnit && this.unit.equals(((ImmutableUnit) other).unit);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.unit.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.unit.toString();
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.units;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.java.Log;
+import org.opengroup.osdu.core.common.model.units.impl.PersistableReference;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Compiled form of the measurement snapshots in {@link MeasurementMap} and {@link MeasurementToBaseUnit}. Every
+ * measurement ancestry is given an integer id once, so that convertibility checks compare ids instead of looking up
+ * strings. The catalog can be replaced at runtime from a JSON file with a "measurementMap" object (ancestry to
+ * equivalent ancestry) and a "baseUnits" object (ancestry to base unit persistable reference); a missing section
+ * keeps the built-in snapshot. The file named by the UNIT_CATALOG_FILE system property or environment variable is
+ * loaded at startup; if it cannot be loaded the error is logged and the built-in snapshot is used.
+ */
+@Log
+public final class MeasurementCatalog {
+    static final int UNKNOWN = -1;
+
+    private static final String CATALOG_FILE = "UNIT_CATALOG_FILE";
+    private static final String MEASUREMENT_MAP = "measurementMap";
+    private static final String BASE_UNITS = "baseUnits";
+
+    // ids are never reused, so units resolved against an older catalog stay comparable after a reload
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static volatile MeasurementCatalog current = compile(MeasurementMap.snapshot(), MeasurementToBaseUnit.snapshot(), false);
+
+    private final int[] equivalents;
+    private final String[] baseUnits;
+
+    static {
+        loadConfigured(System.getProperty(CATALOG_FILE, System.getenv(CATALOG_FILE)));
+    }
+
+    private MeasurementCatalog(int[] equivalents, String[] baseUnits) {
+        this.equivalents = equivalents;
+        this.baseUnits = baseUnits;
+    }
+
+    /**
+     * Replaces the current catalog with the one in the given file. The current catalog is kept if the file cannot
+     * be read or contains an invalid base unit.
+     */
+    public static void load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            load(reader);
+        }
+    }
+
+    public static void load(Reader reader) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(reader);
+        if (root == null || !root.isObject()) {
+            throw new IllegalArgumentException("Unit catalog must be a JSON object");
+        }
+        Map<String, String> measurements = readSection(root, MEASUREMENT_MAP, MeasurementMap.snapshot());
+        Map<String, String> baseUnits = readSection(root, BASE_UNITS, MeasurementToBaseUnit.snapshot());
+        current = compile(measurements, baseUnits, true);
+    }
+
+    /**
+     * Loads the configured catalog file at class initialization. Failing there would leave the class unusable for
+     * the rest of the process, so a bad file is logged and the built-in snapshot kept instead.
+     */
+    static boolean loadConfigured(String file) {
+        if (file == null || file.isEmpty()) {
+            return false;
+        }
+        try {
+            load(Paths.get(file));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.log(Level.SEVERE, String.format("Unit catalog %s could not be loaded, using the built-in catalog", file), e);
+            return false;
+        }
+    }
+
+    /**
+     * Restores the built-in snapshot.
+     */
+    public static void reset() {
+        current = compile(MeasurementMap.snapshot(), MeasurementToBaseUnit.snapshot(), false);
+    }
+
+    static int idOf(String ancestry) {
+        if (ancestry == null) return UNKNOWN;
+        Integer id = IDS.get(ancestry);
+        return id == null ? UNKNOWN : id;
+    }
+
+    /**
+     * Same result as comparing ancestry1 and ancestry2 or the measurement ancestry1 maps to with ancestry2; note
+     * that the mapping is not symmetric.
+     */
+    static boolean matches(int id1, String ancestry1, int id2, String ancestry2) {
+        if (id1 == UNKNOWN || id2 == UNKNOWN) {
+            // an ancestry missing from every catalog can only be equal to itself
+            return ancestry1.equals(ancestry2);
+        }
+        if (id1 == id2) return true;
+        int[] equivalents = current.equivalents;
+        return id1 < equivalents.length && equivalents[id1] == id2;
+    }
+
+    static String getBaseUnit(int id) {
+        String[] baseUnits = current.baseUnits;
+        return id == UNKNOWN || id >= baseUnits.length ? null : baseUnits[id];
+    }
+
+    private static Map<String, String> readSection(JsonNode root, String name, Map<String, String> defaults) {
+        JsonNode section = root.get(name);
+        if (section == null) {
+            return defaults;
+        }
+        if (!section.isObject()) {
+            throw new IllegalArgumentException(String.format("Unit catalog section %s must be a JSON object", name));
+        }
+        Map<String, String> output = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = section.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            output.put(field.getKey(), value.isTextual() ? value.asText() : value.toString());
+        }
+        return output;
+    }
+
+    private static synchronized MeasurementCatalog compile(Map<String, String> measurements, Map<String, String> baseUnits,
+                                                           boolean validate) {
+        Map<Integer, Integer> equivalents = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : measurements.entrySet()) {
+            equivalents.put(register(entry.getKey()), register(entry.getValue()));
+        }
+        Map<Integer, String> references = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : baseUnits.entrySet()) {
+            if (validate) {
+                validateBaseUnit(entry.getKey(), entry.getValue());
+            }
+            references.put(register(entry.getKey()), entry.getValue());
+        }
+
+        int[] equivalentTable = new int[IDS.size()];
+        Arrays.fill(equivalentTable, UNKNOWN);
+        equivalents.forEach((id, equivalent) -> equivalentTable[id] = equivalent);
+        String[] baseUnitTable = new String[IDS.size()];
+        references.forEach((id, reference) -> baseUnitTable[id] = reference);
+        return new MeasurementCatalog(equivalentTable, baseUnitTable);
+    }
+
+    private static void validateBaseUnit(String ancestry, String reference) {
+        // the built-in snapshot is trusted, parsing it would only add to the first unit lookup
+        IItem parsed = ItemFactory.createModel(PersistableReference.createInstance(reference));
+        if (!(parsed instanceof Unit) || !((Unit) parsed).isValid() || !ancestry.equals(((Unit) parsed).getAncestry())) {
+            throw new IllegalArgumentException(String.format("Invalid base unit for measurement %s", ancestry));
+        }
+    }
+
+    private static int register(String ancestry) {
+        return IDS.computeIfAbsent(ancestry, key -> IDS.size());
+    }
+}
@@ -218,8 +218,7 @@ class MeasurementMap {
         theMapSnapshot = Collections.unmodifiableMap(mMap);
     }
 
-    static String map(String inMeasurement) {
-        if (theMapSnapshot.containsKey(inMeasurement)) return theMapSnapshot.get(inMeasurement);
-        return null;
+    static Map<String, String> snapshot() {
+        return theMapSnapshot;
     }
 }
@@ -296,8 +296,7 @@ class MeasurementToBaseUnit {
         theMapSnapshot = Collections.unmodifiableMap(mMap);
     }
 
-    static String map(String inMeasurement) {
-        if (theMapSnapshot.containsKey(inMeasurement)) return theMapSnapshot.get(inMeasurement);
-        return null;
+    static Map<String, String> snapshot() {
+        return theMapSnapshot;
     }
 }
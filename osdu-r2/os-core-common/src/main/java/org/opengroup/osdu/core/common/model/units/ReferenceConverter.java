@@ -17,6 +17,8 @@
 
 package org.opengroup.osdu.core.common.model.units;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.opengroup.osdu.core.common.model.units.impl.PersistableReference;
 
 import static org.opengroup.osdu.core.common.model.units.ItemFactory.createModel;
@@ -29,6 +31,12 @@ public final class ReferenceConverter {
     private static final String V1_START = "%7B";
     private static final String V2_STOP = "}";
     private static final String V1_STOP = "%7D";
+    private static final int MAX_CACHED_UNITS = 4096;
+
+    private static final IUnit INVALID_UNIT = new ImmutableUnit(new Unit());
+    private static final Cache<String, IUnit> UNITS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_UNITS)
+            .build();
 
     private ReferenceConverter() {
     }
@@ -38,21 +46,33 @@ public final class ReferenceConverter {
      *
      * @param reference the persitable reference {@link String}.
      * @return the created {@link IUnit} instance, which is always non-null. To test whether the instance is valid, check IUnit.isValid().
+     * Instances are immutable and shared between callers parsing the same reference.
      */
     public static IUnit parseUnitReference(String reference) {
+        if (reference == null) {
+            return INVALID_UNIT;
+        }
+        String cleaned = reference.trim();
+        IUnit result = UNITS.getIfPresent(cleaned);
+        if (result == null) {
+            IUnit parsed = new ImmutableUnit(parse(cleaned));
+            result = UNITS.asMap().putIfAbsent(cleaned, parsed);
+            if (result == null) result = parsed;
+        }
+        return result;
+    }
+
+    private static Unit parse(String cleaned) {
         IItem raw;
-        IUnit result = new Unit();
-        if (reference != null) {
-            String cleaned = reference.trim();
-            if (cleaned.startsWith(V1_START) && cleaned.endsWith(V1_STOP)) {
-                org.opengroup.osdu.core.common.model.units.impl.Unit instance = org.opengroup.osdu.core.common.model.units.impl.Unit.createInstance(cleaned);
-                raw = createModel(instance);
-                if (raw != null) result = (IUnit) raw;
-            } else if (cleaned.startsWith(V2_START) && cleaned.endsWith(V2_STOP)) {
-                PersistableReference instance = PersistableReference.createInstance(cleaned);
-                raw = createModel(instance);
-                if (raw instanceof IUnit) result = (IUnit) raw;
-            }
+        Unit result = new Unit();
+        if (cleaned.startsWith(V1_START) && cleaned.endsWith(V1_STOP)) {
+            org.opengroup.osdu.core.common.model.units.impl.Unit instance = org.opengroup.osdu.core.common.model.units.impl.Unit.createInstance(cleaned);
+            raw = createModel(instance);
+            if (raw != null) result = (Unit) raw;
+        } else if (cleaned.startsWith(V2_START) && cleaned.endsWith(V2_STOP)) {
+            PersistableReference instance = PersistableReference.createInstance(cleaned);
+            raw = createModel(instance);
+            if (raw instanceof Unit) result = (Unit) raw;
         }
         return result;
     }
@@ -17,7 +17,12 @@
 
 package org.opengroup.osdu.core.common.model.units;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.opengroup.osdu.core.common.model.units.impl.Measurement;
 import org.opengroup.osdu.core.common.model.units.impl.ScaleOffset;
 import org.opengroup.osdu.core.common.model.units.impl.UnitEnergistics;
@@ -34,6 +39,11 @@ public class Unit implements IUnit {
     private String ancestry;
     private double scale;
     private double offset;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private int ancestryId = MeasurementCatalog.UNKNOWN;
 
     public Unit() {
         initialize();
@@ -91,25 +101,39 @@ public class Unit implements IUnit {
         this.implementationV2E = null;
         this.implementationV2S = null;
         this.ancestry = null;
+        this.ancestryId = MeasurementCatalog.UNKNOWN;
         this.valid = false;
         this.scale = Double.NaN;
         this.offset = Double.NaN;
     }
 
-    private boolean measurementMatches(String measurement1, String measurement2) {
-        boolean match = false;
-        if (measurement1.equals(measurement2)) match = true;
-        else {
-            String other = MeasurementMap.map(measurement1);
-            if (other != null && other.equals(measurement2)) match = true;
+    static int ancestryIdOf(IUnit unit) {
+        if (unit instanceof Unit) return ((Unit) unit).getAncestryId();
+        if (unit instanceof ImmutableUnit) return ((ImmutableUnit) unit).getAncestryId();
+        return MeasurementCatalog.idOf(unit.getAncestry());
+    }
+
+    int getAncestryId() {
+        // unknown ancestries are looked up again, a reloaded catalog may know them
+        if (this.ancestryId == MeasurementCatalog.UNKNOWN) {
+            this.ancestryId = MeasurementCatalog.idOf(this.ancestry);
         }
-        return match;
+        return this.ancestryId;
+    }
+
+    public void setAncestry(String ancestry) {
+        this.ancestry = ancestry;
+        this.ancestryId = MeasurementCatalog.UNKNOWN;
+    }
+
+    private boolean measurementMatches(IUnit other) {
+        return MeasurementCatalog.matches(this.getAncestryId(), this.ancestry, ancestryIdOf(other), other.getAncestry());
     }
 
     @Override
     public boolean isConvertible(IUnit other) {
         if (this.valid && other.isValid()) {
-            return measurementMatches(this.ancestry, other.getAncestry());
+            return measurementMatches(other);
         }
         return false;
     }
@@ -124,7 +148,7 @@ public class Unit implements IUnit {
     @Override
     public double convertToUnit(IUnit toUnit, double fromValue) {
         if (toUnit != null && this.isValid() && toUnit.isValid() &&
-                measurementMatches(this.ancestry, toUnit.getAncestry())) {
+                measurementMatches(toUnit)) {
             double scale = this.getScale() / toUnit.getScale();
             double offset = this.getOffset() - toUnit.getOffset() / scale;
             return scale * (fromValue - offset);
@@ -135,7 +159,7 @@ public class Unit implements IUnit {
     @Override
     public double[] convertToUnit(IUnit toUnit, double[] fromValue) {
         if (toUnit != null && this.isValid() && toUnit.isValid() &&
-                measurementMatches(this.ancestry, toUnit.getAncestry())) {
+                measurementMatches(toUnit)) {
             double scale = this.getScale() / toUnit.getScale();
             double offset = this.getOffset() - toUnit.getOffset() / scale;
             for (int i = 0; i < fromValue.length; i++) fromValue[i] = scale * (fromValue[i] - offset);
@@ -206,7 +230,7 @@ public class Unit implements IUnit {
     public String getBaseUnit() {
         String pr = null;
         if (this.isValid()) {
-            pr = MeasurementToBaseUnit.map(this.ancestry);
+            pr = MeasurementCatalog.getBaseUnit(this.getAncestryId());
             if (pr == null) { // this is a custom unit
                 UnitScaleOffset u = new UnitScaleOffset();
                 Measurement m = new Measurement();
@@ -23,9 +23,9 @@ import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -45,6 +45,14 @@ import java.io.IOException;
 })
 public class PersistableReference {
 
+    // ObjectMapper is thread safe once configured, creating one per call dominated unit parsing
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true)
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    private static final ObjectReader READER = MAPPER.readerFor(PersistableReference.class);
+
     @JsonProperty("type")
     @NotEmpty
     private String typeOfPersistableReference;
@@ -53,11 +61,7 @@ public class PersistableReference {
     public static PersistableReference createInstance(String json) {
         PersistableReference result;
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            JsonNode node = mapper.readTree(json);
-            result = mapper.treeToValue(node, PersistableReference.class);
+            result = READER.readValue(json);
         } catch (IOException e) {
             return null;
         }
@@ -66,12 +70,8 @@ public class PersistableReference {
 
     public String toJsonString() {
         String result;
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-        mapper.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
-        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         try {
-            result = mapper.writeValueAsString(this);
+            result = MAPPER.writeValueAsString(this);
         } catch (JsonProcessingException e) {
             return null;
         }
@@ -20,53 +20,179 @@
 package org.opengroup.osdu.core.common.multitenancy;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.opengroup.osdu.core.common.cache.ICache;
+import org.opengroup.osdu.core.common.cache.LoadingCache;
 import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
 
+/**
+ * Resolves tenants from an index of account id to tenant built over the cached tenant list. The index is rebuilt in
+ * the background once it is older than the index age. An unknown id triggers a background reload from the wrapped
+ * repo, at most once per reload interval, and is remembered for a short while once that reload is scheduled, so
+ * requests with bogus partition ids neither reload the list themselves nor drop it for everyone else. An id arriving
+ * while no reload can be scheduled is not remembered, and the next request for it tries again.
+ */
 public class TenantInfoMemoryRepo implements ITenantInfoRepo {
 
 	public static final String TENANT_INFO_LIST = "Dps-Service-Utils-TenantList";
 
+	private static final int LIST_REFRESH_SECONDS = 300;
+	private static final int LIST_EXPIRATION_SECONDS = 600;
+	private static final int LIST_STALE_SECONDS = 3600;
+
+	private static final ExecutorService RELOAD_EXECUTOR = Executors.newSingleThreadExecutor(
+			new ThreadFactoryBuilder().setNameFormat("tenant-info-reload-%d").setDaemon(true).build());
+
 	public TenantInfoMemoryRepo(ICache<String, Collection<TenantInfo>> cache, ITenantInfoRepo wrapped) {
-		this.cache = cache;
+		this(cache, wrapped, 60, 30, 10);
+	}
+
+	public TenantInfoMemoryRepo(ICache<String, Collection<TenantInfo>> cache, ITenantInfoRepo wrapped,
+								int indexMaxAgeSeconds, int unknownIdExpirationSeconds, int minReloadIntervalSeconds) {
+		this(cache, wrapped, indexMaxAgeSeconds * 1000L, unknownIdExpirationSeconds * 1000L,
+				minReloadIntervalSeconds * 1000L, RELOAD_EXECUTOR, System::currentTimeMillis);
+	}
+
+	TenantInfoMemoryRepo(ICache<String, Collection<TenantInfo>> cache, ITenantInfoRepo wrapped, long indexMaxAgeMillis,
+						 long unknownIdExpirationMillis, long minReloadIntervalMillis, Executor executor,
+						 LongSupplier clock) {
 		this.wrapped = wrapped;
+		this.tenants = new LoadingCache<>(cache, key -> this.loadList(), LIST_REFRESH_SECONDS,
+				LIST_EXPIRATION_SECONDS, LIST_STALE_SECONDS);
+		this.indexMaxAgeMillis = indexMaxAgeMillis;
+		this.minReloadIntervalMillis = minReloadIntervalMillis;
+		this.unknownIds = CacheBuilder.newBuilder()
+				.expireAfterWrite(unknownIdExpirationMillis, TimeUnit.MILLISECONDS).build();
+		this.executor = executor;
+		this.clock = clock;
 	}
 
-	private final ICache<String, Collection<TenantInfo>> cache;
 	private final ITenantInfoRepo wrapped;
+	private final LoadingCache<String, Collection<TenantInfo>> tenants;
+	private final long indexMaxAgeMillis;
+	private final long minReloadIntervalMillis;
+	private final Cache<String, Boolean> unknownIds;
+	private final Executor executor;
+	private final LongSupplier clock;
+	private final AtomicBoolean rebuilding = new AtomicBoolean();
+	private final AtomicBoolean reloading = new AtomicBoolean();
+	private final AtomicLong lastReload = new AtomicLong(Long.MIN_VALUE);
+	private volatile TenantIndex index;
 
 	@Override
 	public TenantInfo get(String tenantName) {
-		TenantInfo ti = getTenantInfoFromCache(tenantName);
-		if(ti == null) {
-			this.cache.delete(TENANT_INFO_LIST);
-			ti = getTenantInfoFromCache(tenantName);
+		TenantInfo ti = this.getIndex().byAccountId.get(tenantName);
+		if (ti != null || tenantName == null) {
+			return ti;
 		}
-		return ti;
+		if (this.unknownIds.getIfPresent(tenantName) == null && this.requestReload()) {
+			this.unknownIds.put(tenantName, Boolean.TRUE);
+		}
+		return null;
 	}
 
 	@Override
 	public Collection<TenantInfo> list() {
-		Collection<TenantInfo> output = this.cache.get(TENANT_INFO_LIST);
+		Collection<TenantInfo> output = this.tenants.get(TENANT_INFO_LIST);
+		return output == null ? Collections.emptyList() : output;
+	}
 
-		if (output == null) {
-			output = this.wrapped.list();
-			if (output != null && output.size() > 0) {
-				this.cache.put(TENANT_INFO_LIST, output);
+	private Collection<TenantInfo> loadList() {
+		Collection<TenantInfo> output = this.wrapped.list();
+		// an empty answer is not cached, the next lookup asks the wrapped repo again
+		return output != null && output.size() > 0 ? output : null;
+	}
+
+	private TenantIndex getIndex() {
+		TenantIndex current = this.index;
+		if (current == null) {
+			synchronized (this) {
+				if (this.index == null) {
+					this.rebuild(this.list());
+				}
+				return this.index;
 			}
 		}
+		if (this.clock.getAsLong() - current.builtAt >= this.indexMaxAgeMillis) {
+			this.runInBackground(this.rebuilding, () -> this.rebuild(this.list()));
+		}
+		return current;
+	}
+
+	private boolean requestReload() {
+		long now = this.clock.getAsLong();
+		long last = this.lastReload.get();
+		if (last != Long.MIN_VALUE && now - last < this.minReloadIntervalMillis) {
+			return false;
+		}
+		boolean started = this.runInBackground(this.reloading, () -> {
+			Collection<TenantInfo> output = this.loadList();
+			if (output != null) {
+				this.tenants.put(TENANT_INFO_LIST, output);
+				this.rebuild(output);
+			}
+		});
+		if (started) {
+			this.lastReload.set(now);
+		}
+		return started;
+	}
 
-		return output;
+	// one task per guard at a time, a request made while one runs is dropped
+	private boolean runInBackground(AtomicBoolean guard, Runnable task) {
+		if (!guard.compareAndSet(false, true)) {
+			return false;
+		}
+		try {
+			this.executor.execute(() -> {
+				try {
+					task.run();
+				} finally {
+					guard.set(false);
+				}
+			});
+			return true;
+		} catch (RuntimeException e) {
+			guard.set(false);
+			return false;
+		}
+	}
+
+	private void rebuild(Collection<TenantInfo> tenantInfos) {
+		this.index = new TenantIndex(tenantInfos, this.clock.getAsLong());
+		this.unknownIds.invalidateAll();
 	}
 
-	private TenantInfo getTenantInfoFromCache(String tenantName) {
-		Collection<TenantInfo> tenantInfoList = this.list();
-		for (TenantInfo tenantInfo : tenantInfoList) {
-			if (tenantInfo.getCrmAccountIds().contains(tenantName)) {
-				return tenantInfo;
+	private static final class TenantIndex {
+		private final Map<String, TenantInfo> byAccountId;
+		private final long builtAt;
+
+		private TenantIndex(Collection<TenantInfo> tenantInfos, long builtAt) {
+			Map<String, TenantInfo> output = new HashMap<>();
+			for (TenantInfo tenantInfo : tenantInfos) {
+				if (tenantInfo == null || tenantInfo.getCrmAccountIds() == null) {
+					continue;
+				}
+				for (String accountId : tenantInfo.getCrmAccountIds()) {
+					// the first tenant listing an account wins, as with the former linear scan
+					output.putIfAbsent(accountId, tenantInfo);
+				}
 			}
+			this.byAccountId = Collections.unmodifiableMap(output);
+			this.builtAt = builtAt;
 		}
-		return null;
 	}
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import com.lambdaworks.redis.codec.CompressionCodec;
+import com.lambdaworks.redis.codec.RedisCodec;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.entitlements.GroupInfo;
+import org.opengroup.osdu.core.common.model.entitlements.Groups;
+import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CacheValueCodecTest {
+
+    @Test
+    public void should_storeSmallValuesUncompressed_andRoundTrip() {
+        CacheValueCodec<String, Groups> sut = new CacheValueCodec<>(String.class, Groups.class);
+        Groups groups = groups(2);
+
+        ByteBuffer encoded = sut.encodeValue(groups);
+
+        assertEquals(SmileCacheSerializer.ID << 4 | CacheCompression.NONE.getId(), encoded.get(0));
+        assertEquals(groups, sut.decodeValue(encoded));
+    }
+
+    @Test
+    public void should_compressValues_when_aboveThreshold() {
+        CacheValueCodec<String, Groups> sut = new CacheValueCodec<>(String.class, Groups.class);
+        Groups groups = groups(200);
+
+        ByteBuffer encoded = sut.encodeValue(groups);
+
+        assertEquals(SmileCacheSerializer.ID << 4 | CacheCompression.DEFLATE.getId(), encoded.get(0));
+        assertEquals(groups, sut.decodeValue(encoded));
+    }
+
+    @Test
+    public void should_readEntries_writtenByLegacyCodec() {
+        RedisCodec<String, TenantInfo> legacy = CompressionCodec.valueCompressor(
+                new JsonCodec<>(String.class, TenantInfo.class), CompressionCodec.CompressionType.GZIP);
+        CacheValueCodec<String, TenantInfo> sut = new CacheValueCodec<>(String.class, TenantInfo.class);
+        TenantInfo tenant = tenant(1);
+
+        assertEquals(tenant, sut.decodeValue(legacy.encodeValue(tenant)));
+        assertEquals(legacy.encodeKey("key"), sut.encodeKey("key"));
+    }
+
+    @Test
+    public void should_readEntries_writtenInAnotherConfiguredFormat() {
+        CacheValueCodec<String, TenantInfo> gson = new CacheValueCodec<>(String.class, TenantInfo.class,
+                new GsonCacheSerializer(), CacheCompression.GZIP, 0);
+        CacheValueCodec<String, TenantInfo> sut = new CacheValueCodec<>(String.class, TenantInfo.class);
+        TenantInfo tenant = tenant(1);
+
+        ByteBuffer encoded = gson.encodeValue(tenant);
+
+        assertEquals(GsonCacheSerializer.ID << 4 | CacheCompression.GZIP.getId(), encoded.get(0));
+        assertEquals(tenant, sut.decodeValue(encoded));
+    }
+
+    @Test
+    public void should_roundTripCollections() {
+        CacheValueCodec<String, ArrayList> sut = new CacheValueCodec<>(String.class, ArrayList.class);
+        List<String> names = Arrays.asList("a", "b");
+
+        assertEquals(names, sut.decodeValue(sut.encodeValue(new ArrayList<>(names))));
+    }
+
+    @Test
+    public void should_returnNull_when_valueIsEmptyOrHeaderIsUnknown() {
+        CacheValueCodec<String, Groups> sut = new CacheValueCodec<>(String.class, Groups.class);
+
+        assertNull(sut.decodeValue(ByteBuffer.wrap(new byte[0])));
+        assertNull(sut.decodeValue(ByteBuffer.wrap(new byte[]{(byte) 0xf0, 1, 2})));
+        assertTrue(sut.encodeValue(null).remaining() == 0);
+    }
+
+    private static Groups groups(int count) {
+        List<GroupInfo> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            GroupInfo group = new GroupInfo();
+            group.setName("service.storage.viewer" + i);
+            group.setEmail("service.storage.viewer" + i + "@tenant1.osdu.com");
+            group.setDescription("group " + i);
+            list.add(group);
+        }
+        Groups groups = new Groups();
+        groups.setGroups(list);
+        groups.setMemberEmail("member@osdu.com");
+        groups.setDesId("member@osdu.com");
+        return groups;
+    }
+
+    private static TenantInfo tenant(long id) {
+        TenantInfo tenant = new TenantInfo();
+        tenant.setId(id);
+        tenant.setName("tenant" + id);
+        tenant.setProjectId("project" + id);
+        tenant.setServiceAccount("sa@project" + id + ".iam.gserviceaccount.com");
+        tenant.setComplianceRuleSet(TenantInfo.ComplianceRuleSets.SHARED);
+        tenant.setDataPartitionId("tenant" + id);
+        tenant.setCrmAccountIds(Arrays.asList("crm1", "crm2"));
+        return tenant;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InstrumentedCacheTest {
+
+    private final CacheMetricsRegistry metrics = new CacheMetricsRegistry();
+    private final InstrumentedCache<String, String> sut =
+            new InstrumentedCache<>(new VmCache<>(60, 10), "test", metrics);
+
+    @Test
+    public void should_countHitsAndMisses_forSingleAndBulkReads() {
+        sut.put("1", "a");
+
+        sut.get("1");
+        sut.get("2");
+        sut.getAll(Arrays.asList("1", "2", "3"));
+        sut.getAsync("1").join();
+
+        CacheMetricsRegistry.CacheMetrics result = metrics.getMetrics("test");
+        assertEquals(3, result.getHitCount());
+        assertEquals(3, result.getMissCount());
+        assertEquals(0.5, result.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void should_recordLatency_perOperation() {
+        sut.put("1", "a");
+        sut.get("1");
+        sut.get("1");
+        sut.putAllAsync(Collections.singletonMap("2", "b")).join();
+
+        CacheMetricsRegistry.CacheMetrics result = metrics.getMetrics("test");
+        assertEquals(1, result.getLatencies().get("put").getCount());
+        assertEquals(2, result.getLatencies().get("get").getCount());
+        assertEquals(1, result.getLatencies().get("putAll").getCount());
+        assertTrue(result.getLatencies().get("get").getPercentile(0.99) > 0);
+    }
+
+    @Test
+    public void should_recordEncodedValueSizes() {
+        InstrumentedCodec<String, String> codec =
+                new InstrumentedCodec<>(new JsonCodec<>(String.class, String.class), "redis", metrics);
+
+        ByteBuffer encoded = codec.encodeValue("abc");
+        codec.decodeValue(encoded);
+
+        CacheMetricsRegistry.Histogram sizes = metrics.getMetrics("redis").getValueSizes();
+        assertEquals(2, sizes.getCount());
+        assertEquals(10, sizes.getSum());
+        assertEquals(8, sizes.getPercentile(0.5));
+    }
+
+    @Test
+    public void should_boundPercentiles_byPowersOfTwo() {
+        CacheMetricsRegistry.Histogram histogram = new CacheMetricsRegistry.Histogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(64, histogram.getPercentile(0.5));
+        assertEquals(128, histogram.getPercentile(0.99));
+        assertEquals(50.5, histogram.getMean(), 0.0001);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LoadingCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1000);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private final VmCache<String, String> cache = new VmCache<>(60, 100);
+    private volatile boolean failing;
+
+    private final LoadingCache<String, String> sut = new LoadingCache<>(cache, this::load, 10, 20, 30,
+            refreshes::add, now::get);
+
+    private String load(String key) throws IOException {
+        if (this.failing) {
+            throw new IOException("unavailable");
+        }
+        return key + this.loads.incrementAndGet();
+    }
+
+    @Test
+    public void should_loadOnce_andServeFromCache_when_fresh() {
+        assertEquals("k1", sut.get("k"));
+        now.addAndGet(5);
+
+        assertEquals("k1", sut.get("k"));
+        assertEquals("k1", cache.get("k"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void should_returnCurrentValue_andRefreshInBackground_when_pastRefreshAge() {
+        sut.get("k");
+        now.addAndGet(15);
+
+        assertEquals("k1", sut.get("k"));
+        assertEquals("k1", sut.get("k"));
+        assertEquals(1, refreshes.size());
+
+        refreshes.get(0).run();
+
+        assertEquals("k2", sut.get("k"));
+    }
+
+    @Test
+    public void should_refreshInBackground_when_ageIsUnknown() {
+        cache.put("k", "other node");
+
+        assertEquals("other node", sut.get("k"));
+        assertEquals(1, refreshes.size());
+
+        refreshes.get(0).run();
+
+        assertEquals("k1", sut.get("k"));
+    }
+
+    @Test
+    public void should_reloadOnCallerThread_when_refreshOfUnknownAgeFailedUntilExpiry() {
+        cache.put("k", "other node");
+        sut.get("k");
+        failing = true;
+        refreshes.get(0).run();
+        failing = false;
+        now.addAndGet(15);
+
+        assertEquals("k1", sut.get("k"));
+        assertEquals(1, refreshes.size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void should_reloadOnCallerThread_when_expired() {
+        sut.get("k");
+        now.addAndGet(25);
+
+        assertEquals("k2", sut.get("k"));
+        assertTrue(refreshes.isEmpty());
+    }
+
+    @Test
+    public void should_serveStaleValue_when_reloadFailsWithinStaleWindow() {
+        sut.get("k");
+        now.addAndGet(45);
+        failing = true;
+
+        assertEquals("k1", sut.get("k"));
+    }
+
+    @Test
+    public void should_throw_when_reloadFailsPastStaleWindow() {
+        sut.get("k");
+        now.addAndGet(55);
+        failing = true;
+
+        try {
+            sut.get("k");
+            fail("expected the load failure");
+        } catch (UncheckedExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void should_notCacheNull_when_loaderReturnsNothing() {
+        LoadingCache<String, String> empty = new LoadingCache<>(cache, key -> null, 10, 20, 30,
+                refreshes::add, now::get);
+
+        assertNull(empty.get("k"));
+        assertNull(cache.get("k"));
+    }
+
+    @Test
+    public void should_deleteExpiredEntry_when_loaderReturnsNothing() {
+        AtomicInteger calls = new AtomicInteger();
+        LoadingCache<String, String> removable = new LoadingCache<>(cache, key -> calls.incrementAndGet() == 1 ? "v" : null,
+                10, 20, 30, refreshes::add, now::get);
+        removable.get("k");
+        now.addAndGet(25);
+
+        assertNull(removable.get("k"));
+        assertNull(cache.get("k"));
+    }
+
+    @Test
+    public void should_loadOncePerKey_when_requestedConcurrently() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        LoadingCache<String, String> slow = new LoadingCache<>(cache, key -> {
+            calls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return "v";
+        }, 10, 20, 30);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> slow.get("k")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("v", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -19,8 +19,17 @@ package org.opengroup.osdu.core.common.cache;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 public class MultiTenantCacheTest {
 
@@ -35,4 +44,35 @@ public class MultiTenantCacheTest {
         assertEquals(sut.get(t2), sut.get(t2));
         assertNotEquals(sut.get(t1), sut.get(t2));
     }
+
+    @Test
+    public void should_returnSameCache_when_requestedConcurrently() throws Exception {
+        MultiTenantCache<String> sut = new MultiTenantCache<>(new VmCache<String, String>(60, 10));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<ICache<String, String>>> tasks = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                tasks.add(() -> sut.get("t1"));
+            }
+            ICache<String, String> expected = sut.get("t1");
+            for (Future<ICache<String, String>> result : executor.invokeAll(tasks)) {
+                assertSame(expected, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void should_keepOtherTenantsWarm_when_oneTenantIsInvalidated() {
+        MultiTenantCache<String> sut = new MultiTenantCache<>(new VmCache<String, String>(60, 10), 0,
+                TenantSafeCache.KeyFormat.SEPARATED);
+        sut.get("t1").put("key", "1");
+        sut.get("t2").put("key", "2");
+
+        sut.invalidate("t1");
+
+        assertNull(sut.get("t1").get("key"));
+        assertEquals("2", sut.get("t2").get("key"));
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1000);
+    private final CacheMetricsRegistry metrics = new CacheMetricsRegistry();
+
+    private OffHeapCache<String, ArrayList> create(long maximumBytes) {
+        return new OffHeapCache<>(maximumBytes, 60000, ArrayList.class, new SmileCacheSerializer(), 16, "offheap",
+                metrics, now::get);
+    }
+
+    @Test
+    public void should_returnCachedItem_andThen_returnUpdateItem_andThen_notReturnDeletedItem() {
+        OffHeapCache<String, ArrayList> sut = create(4096);
+        ArrayList<String> value = new ArrayList<>(Arrays.asList("a value spanning several blocks", "b"));
+
+        assertNull(sut.get("1"));
+
+        sut.put("1", value);
+        assertEquals(value, sut.get("1"));
+
+        sut.put("1", new ArrayList<>(Arrays.asList("c")));
+        assertEquals(Arrays.asList("c"), sut.get("1"));
+
+        sut.delete("1");
+        assertNull(sut.get("1"));
+        assertEquals(0, sut.getUsedBytes());
+    }
+
+    @Test
+    public void should_invalidateItem_after_expirationHasPassed() {
+        OffHeapCache<String, ArrayList> sut = create(4096);
+        sut.put("1", new ArrayList<>(Arrays.asList("a")));
+
+        now.addAndGet(60000);
+
+        assertNull(sut.get("1"));
+        assertEquals(0, sut.size());
+    }
+
+    @Test
+    public void should_evictLeastRecentlyUsed_when_bytesRunOut() {
+        OffHeapCache<String, ArrayList> sut = create(64);
+        List<String> value = Arrays.asList("0123456789");
+
+        sut.put("1", new ArrayList<>(value));
+        sut.put("2", new ArrayList<>(value));
+        sut.get("1");
+        sut.put("3", new ArrayList<>(value));
+
+        assertEquals(value, sut.get("1"));
+        assertNull(sut.get("2"));
+        assertEquals(value, sut.get("3"));
+        assertEquals(1, metrics.getMetrics("offheap").getEvictionCount());
+        assertTrue(sut.getReservedBytes() <= 64);
+    }
+
+    @Test
+    public void should_notStoreItem_when_largerThanCache() {
+        OffHeapCache<String, ArrayList> sut = create(32);
+        sut.put("1", new ArrayList<>(Arrays.asList("a")));
+
+        sut.put("1", new ArrayList<>(Arrays.asList("a value that does not fit in two blocks")));
+
+        assertNull(sut.get("1"));
+    }
+
+    @Test
+    public void should_clearOnlyPrefix_when_clearingByPrefix() {
+        OffHeapCache<String, ArrayList> sut = create(4096);
+        sut.put("t1:a", new ArrayList<>(Arrays.asList("1")));
+        sut.put("t2:a", new ArrayList<>(Arrays.asList("2")));
+
+        sut.clearPrefix("t1:");
+
+        assertNull(sut.get("t1:a"));
+        assertEquals(Arrays.asList("2"), sut.get("t2:a"));
+    }
+}
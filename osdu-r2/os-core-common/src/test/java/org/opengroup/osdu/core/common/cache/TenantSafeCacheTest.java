@@ -19,6 +19,12 @@ package org.opengroup.osdu.core.common.cache;
 
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.*;
 
 public class TenantSafeCacheTest {
@@ -68,4 +74,87 @@ public class TenantSafeCacheTest {
 
         verify(wrapped, times(1)).clearAll();
     }
+
+    @Test
+    public void should_addTenantNameToKeys_andStripItFromResults_when_usingBulkOperations() {
+        VmCache<String, String> wrapped = new VmCache<>(2, 10);
+        TenantSafeCache<String> sut = new TenantSafeCache<String>("tenant1", wrapped);
+
+        sut.putAll(Collections.singletonMap("key", "value"));
+        Map<String, String> result = sut.getAll(Arrays.asList("key", "other"));
+
+        assertEquals("value", wrapped.get("tenant1key"));
+        assertEquals(Collections.singletonMap("key", "value"), result);
+        assertEquals(result, sut.getAllAsync(Arrays.asList("key")).join());
+
+        sut.deleteAll(Arrays.asList("key"));
+
+        assertNull(wrapped.get("tenant1key"));
+    }
+
+    @Test
+    public void should_clearOnlyOwnEntries_when_wrappedCacheClearsByPrefix() {
+        VmCache<String, String> wrapped = new VmCache<>(60, 10);
+        TenantSafeCache<String> t1 = new TenantSafeCache<String>("t1", wrapped, 0, TenantSafeCache.KeyFormat.SEPARATED);
+        TenantSafeCache<String> t10 = new TenantSafeCache<String>("t10", wrapped, 0, TenantSafeCache.KeyFormat.SEPARATED);
+        t1.put("key", "1");
+        t10.put("key", "10");
+
+        t1.clearAll();
+
+        assertEquals("10", wrapped.get("t10:key"));
+        assertNull(t1.get("key"));
+        assertEquals("10", t10.get("key"));
+    }
+
+    @Test
+    public void should_clearTenantPrefixOnly_when_keysAreConcatenated() {
+        VmCache<String, String> wrapped = new VmCache<>(60, 10);
+        TenantSafeCache<String> t1 = new TenantSafeCache<String>("t1", wrapped);
+        TenantSafeCache<String> t10 = new TenantSafeCache<String>("t10", wrapped);
+        TenantSafeCache<String> t2 = new TenantSafeCache<String>("t2", wrapped);
+        t1.put("0x", "1");
+        t10.put("y", "10");
+        t2.put("z", "2");
+
+        t1.clearAll();
+
+        assertNull(t1.get("0x"));
+        assertNull(t10.get("y"));
+        assertEquals("2", t2.get("z"));
+    }
+
+    @Test
+    public void should_dropTrackedKey_when_sharedCacheNoLongerHasIt() {
+        VmCache<String, String> wrapped = new VmCache<>(60, 10);
+        TenantSafeCache<String> sut = new TenantSafeCache<String>("tenant1", wrapped, 2);
+        sut.put("a", "1");
+        sut.put("b", "2");
+
+        // as if the shared cache expired b on its own
+        wrapped.delete("tenant1b");
+        assertNull(sut.get("b"));
+        sut.put("c", "3");
+
+        assertEquals("1", sut.get("a"));
+        assertEquals("3", sut.get("c"));
+    }
+
+    @Test
+    public void should_evictLeastRecentlyUsedOwnEntry_when_quotaIsExceeded() {
+        VmCache<String, String> wrapped = new VmCache<>(60, 10);
+        TenantSafeCache<String> other = new TenantSafeCache<String>("other", wrapped);
+        TenantSafeCache<String> sut = new TenantSafeCache<String>("tenant1", wrapped, 2);
+        other.put("key", "value");
+
+        sut.put("a", "1");
+        sut.put("b", "2");
+        sut.get("a");
+        sut.put("c", "3");
+
+        assertEquals("1", sut.get("a"));
+        assertNull(sut.get("b"));
+        assertEquals("3", sut.get("c"));
+        assertEquals("value", other.get("key"));
+    }
 }
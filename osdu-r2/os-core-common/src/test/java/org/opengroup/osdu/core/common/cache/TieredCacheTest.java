@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.cache;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TieredCacheTest {
+
+    private final LocalChannel bus = new LocalChannel();
+    private final VmCache<String, String> shared = new VmCache<>(60, 100);
+    private final VmCache<String, String> local1 = new VmCache<>(60, 100);
+    private final VmCache<String, String> local2 = new VmCache<>(60, 100);
+    private final TieredCache<String, String> node1 = new TieredCache<>(local1, shared, bus, String.class);
+    private final TieredCache<String, String> node2 = new TieredCache<>(local2, shared, bus, String.class);
+
+    @Test
+    public void should_populateLocalTier_when_readFromSharedTier() {
+        shared.put("k", "v");
+
+        assertEquals("v", node1.get("k"));
+
+        assertEquals("v", local1.get("k"));
+    }
+
+    @Test
+    public void should_serveLocalCopy_when_sharedTierChangesWithoutBroadcast() {
+        node1.put("k", "v1");
+        shared.put("k", "v2");
+
+        assertEquals("v1", node1.get("k"));
+    }
+
+    @Test
+    public void should_evictOtherNodes_when_keyIsPut() {
+        node1.put("k", "v1");
+        assertEquals("v1", node2.get("k"));
+
+        node1.put("k", "v2");
+
+        assertNull(local2.get("k"));
+        assertEquals("v2", local1.get("k"));
+        assertEquals("v2", node2.get("k"));
+    }
+
+    @Test
+    public void should_evictOtherNodes_when_keyIsDeleted() {
+        node1.put("k", "v");
+        node2.get("k");
+
+        node2.delete("k");
+
+        assertNull(node1.get("k"));
+        assertNull(shared.get("k"));
+    }
+
+    @Test
+    public void should_clearOtherNodes_when_cacheIsCleared() {
+        node1.put("a", "1");
+        node1.put("b", "2");
+        node2.get("a");
+
+        node1.clearAll();
+
+        assertNull(local2.get("a"));
+        assertNull(node2.get("b"));
+    }
+
+    @Test
+    public void should_clearOnlyPrefixOnOtherNodes_when_prefixIsCleared() {
+        node1.put("t1:a", "1");
+        node1.put("t2:a", "2");
+        node2.get("t1:a");
+        node2.get("t2:a");
+
+        node1.clearPrefix("t1:");
+
+        assertNull(local2.get("t1:a"));
+        assertNull(shared.get("t1:a"));
+        assertEquals("2", local2.get("t2:a"));
+    }
+
+    @Test
+    public void should_notCacheOldValueLocally_when_keyIsWrittenOnSameNodeDuringSharedRead() throws Exception {
+        shared.put("k", "v1");
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        VmCache<String, String> slowShared = new VmCache<String, String>(60, 100) {
+            @Override
+            public String get(String key) {
+                String value = shared.get(key);
+                reading.countDown();
+                try {
+                    written.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return value;
+            }
+
+            @Override
+            public void put(String key, String value) {
+                shared.put(key, value);
+            }
+        };
+        VmCache<String, String> local = new VmCache<>(60, 100);
+        TieredCache<String, String> sut = new TieredCache<>(local, slowShared, new LocalChannel(), String.class);
+
+        CompletableFuture<String> read = CompletableFuture.supplyAsync(() -> sut.get("k"));
+        reading.await(5, TimeUnit.SECONDS);
+        sut.put("k", "v2");
+        written.countDown();
+
+        assertEquals("v1", read.get(5, TimeUnit.SECONDS));
+        assertEquals("v2", local.get("k"));
+    }
+
+    @Test
+    public void should_ignoreForeignMessages() {
+        node1.put("k", "v");
+
+        bus.publish("not json");
+
+        assertEquals("v", local1.get("k"));
+    }
+
+    private static class LocalChannel implements ICacheInvalidationChannel {
+        private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(String message) {
+            listeners.forEach(listener -> listener.accept(message));
+        }
+
+        @Override
+        public void subscribe(Consumer<String> listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void close() {
+            listeners.clear();
+        }
+    }
+}
@@ -19,8 +19,13 @@ package org.opengroup.osdu.core.common.cache;
 
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class VmCacheTest {
     @Test
@@ -82,4 +87,51 @@ public class VmCacheTest {
 
         assertNull(sut.get(id));
     }
+
+    @Test
+    public void should_returnOnlyPresentItems_when_gettingInBulk() {
+        VmCache<String, String> sut = new VmCache<>(2, 10);
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("1", "a");
+        entries.put("2", "b");
+
+        sut.putAll(entries);
+        Map<String, String> result = sut.getAll(Arrays.asList("1", "2", "3"));
+
+        assertEquals(entries, result);
+
+        sut.deleteAll(Arrays.asList("1", "3"));
+
+        assertNull(sut.get("1"));
+        assertEquals("b", sut.get("2"));
+    }
+
+    @Test
+    public void should_completeAsyncOperations_onCallingThread() {
+        VmCache<String, String> sut = new VmCache<>(2, 10);
+
+        assertTrue(sut.putAsync("1", "a").isDone());
+        assertEquals("a", sut.getAsync("1").join());
+        assertEquals("a", sut.getAllAsync(Arrays.asList("1", "2")).join().get("1"));
+
+        sut.deleteAllAsync(Arrays.asList("1")).join();
+
+        assertNull(sut.getAsync("1").join());
+    }
+
+    @Test
+    public void should_recordStats_andReportEvictions() {
+        CacheMetricsRegistry metrics = new CacheMetricsRegistry();
+        VmCache<String, String> sut = new VmCache<>(60, 1, "vm", metrics);
+
+        sut.put("1", "a");
+        sut.get("1");
+        sut.get("2");
+        sut.put("3", "c");
+
+        assertEquals(1, sut.getStats().hitCount());
+        assertEquals(1, sut.getStats().missCount());
+        assertEquals(1, sut.getStats().evictionCount());
+        assertEquals(1, metrics.getMetrics("vm").getEvictionCount());
+    }
 }
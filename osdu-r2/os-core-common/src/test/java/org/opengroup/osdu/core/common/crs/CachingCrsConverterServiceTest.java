@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsRequest;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsResponse;
+import org.opengroup.osdu.core.common.model.crs.ConvertTrajectoryRequest;
+import org.opengroup.osdu.core.common.model.crs.ConvertTrajectoryResponse;
+import org.opengroup.osdu.core.common.model.crs.CrsConverterException;
+import org.opengroup.osdu.core.common.model.crs.Point;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.fail;
+
+public class CachingCrsConverterServiceTest {
+
+    private final LocalCrsConverterService delegate = new LocalCrsConverterService(0);
+    private final CrsPointCache cache = new CrsPointCache(1000, 1.0e-9, 3600);
+    private final CachingCrsConverterService sut = new CachingCrsConverterService(delegate, cache);
+
+    @Test
+    public void should_serveFromCache_when_pointsRepeat() throws CrsConverterException {
+        sut.convertPoints(request("a", "b", new Point(1.0, 2.0, 3.0)));
+
+        ConvertPointsResponse response = sut.convertPoints(request("a", "b", new Point(1.0, 2.0, 3.0)));
+
+        assertEquals(1, delegate.getCalls());
+        assertEquals(new Point(2.0, 4.0, 6.0), response.getPoints().get(0));
+        assertEquals(1, response.getSuccessCount().intValue());
+        assertEquals(Collections.singletonList(LocalCrsConverterService.OPERATION), response.getOperationsApplied());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void should_sendOnlyDistinctMisses_and_keepOrder() throws CrsConverterException {
+        sut.convertPoints(request("a", "b", new Point(1.0, 1.0, 1.0)));
+
+        ConvertPointsResponse response = sut.convertPoints(request("a", "b",
+                new Point(5.0, 5.0, 5.0), new Point(1.0, 1.0, 1.0), new Point(5.0, 5.0, 5.0), new Point(7.0, 7.0, 7.0)));
+
+        assertEquals(3, delegate.getPoints());
+        assertEquals(Arrays.asList(new Point(6.0, 7.0, 8.0), new Point(2.0, 3.0, 4.0), new Point(6.0, 7.0, 8.0),
+                new Point(8.0, 9.0, 10.0)), response.getPoints());
+        assertNotSame(response.getPoints().get(0), response.getPoints().get(2));
+        assertEquals(4, response.getSuccessCount().intValue());
+    }
+
+    @Test
+    public void should_notShareEntries_when_crsPairDiffers() throws CrsConverterException {
+        sut.convertPoints(request("a", "b", new Point(1.0, 1.0, 1.0)));
+        sut.convertPoints(request("a", "c", new Point(1.0, 1.0, 1.0)));
+
+        assertEquals(2, delegate.getCalls());
+    }
+
+    @Test
+    public void should_passRequestThrough_when_pointIsInvalid() throws CrsConverterException {
+        sut.convertPoints(request("a", "b", new Point(1.0, 1.0, 1.0)));
+
+        sut.convertPoints(request("a", "b", new Point(1.0, 1.0, 1.0), new Point(Double.NaN, 1.0, 1.0)));
+
+        assertEquals(3, delegate.getPoints());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void should_fillCache_when_convertingAsync() throws CrsConverterException {
+        sut.convertPointsAsync(request("a", "b", new Point(1.0, 1.0, 1.0))).join();
+
+        ConvertPointsResponse response = sut.convertPointsAsync(request("a", "b", new Point(1.0, 1.0, 1.0))).join();
+
+        assertEquals(1, delegate.getCalls());
+        assertEquals(new Point(2.0, 3.0, 4.0), response.getPoints().get(0));
+    }
+
+    @Test
+    public void should_returnCopies_when_callerChangesPoints() throws CrsConverterException {
+        sut.convertPoints(request("a", "b", new Point(1.0, 1.0, 1.0))).getPoints().get(0).setX(100.0);
+
+        ConvertPointsResponse response = sut.convertPoints(request("a", "b", new Point(1.0, 1.0, 1.0)));
+
+        assertEquals(2.0, response.getPoints().get(0).getX(), 0.0);
+    }
+
+    @Test
+    public void should_serveFromCache_when_coordinatesAreUtmSized() throws CrsConverterException {
+        sut.convertPoints(request("a", "b", new Point(500000.0, 9500000.0, -3000.0)));
+
+        ConvertPointsResponse response = sut.convertPoints(request("a", "b", new Point(500000.0, 9500000.0, -3000.0)));
+
+        assertEquals(1, delegate.getCalls());
+        assertEquals(new Point(500001.0, 9500002.0, -2997.0), response.getPoints().get(0));
+    }
+
+    @Test
+    public void should_throw_when_converterReturnsWrongPointCount() {
+        CachingCrsConverterService sut = new CachingCrsConverterService(new ICrsConverterService() {
+            @Override
+            public ConvertPointsResponse convertPoints(ConvertPointsRequest request) {
+                return new ConvertPointsResponse(1, Collections.singletonList(new Point(0.0, 0.0, 0.0)), null);
+            }
+
+            @Override
+            public ConvertTrajectoryResponse convertTrajectory(ConvertTrajectoryRequest request) {
+                return new ConvertTrajectoryResponse();
+            }
+        }, cache);
+
+        try {
+            sut.convertPoints(request("a", "b", new Point(1.0, 1.0, 1.0), new Point(2.0, 2.0, 2.0)));
+            fail("expected CrsConverterException");
+        } catch (CrsConverterException e) {
+            assertEquals(502, e.getHttpResponse().getResponseCode());
+        }
+        assertEquals(0, cache.size());
+    }
+
+    private static ConvertPointsRequest request(String from, String to, Point... points) {
+        return new ConvertPointsRequest(from, to, Arrays.asList(points));
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointSetRequest;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointSetResponse;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsRequest;
+import org.opengroup.osdu.core.common.model.crs.ConvertPointsResponse;
+import org.opengroup.osdu.core.common.model.crs.CrsConverterException;
+import org.opengroup.osdu.core.common.model.crs.Point;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ChunkingCrsConverterServiceTest {
+
+    @Test
+    public void should_reassemblePointsInOrder_when_requestIsSplit() throws CrsConverterException {
+        LocalCrsConverterService delegate = new LocalCrsConverterService(0);
+        ChunkingCrsConverterService sut = createSut(delegate, 10, 3, 0);
+
+        ConvertPointsResponse response = sut.convertPoints(createRequest(25));
+
+        assertEquals(3, delegate.getCalls());
+        assertEquals(25, response.getSuccessCount().intValue());
+        assertEquals(25, response.getPoints().size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(i + 1, response.getPoints().get(i).getX(), 0.0);
+            assertEquals(2 * i + 2, response.getPoints().get(i).getY(), 0.0);
+        }
+        assertEquals(Collections.singletonList(LocalCrsConverterService.OPERATION), response.getOperationsApplied());
+    }
+
+    @Test
+    public void should_reassemblePointSetInOrder_when_requestIsSplit() throws CrsConverterException {
+        LocalCrsConverterService delegate = new LocalCrsConverterService(5);
+        ChunkingCrsConverterService sut = createSut(delegate, 10, 3, 0);
+
+        ConvertPointSetResponse response = sut.convertPointSet(
+                ConvertPointSetRequest.fromPointsRequest(createRequest(25)));
+
+        assertEquals(3, delegate.getCalls());
+        assertEquals(25, response.getSuccessCount().intValue());
+        assertEquals(25, response.getPoints().size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(i + 1, response.getPoints().getX(i), 0.0);
+            assertEquals(3, response.getPoints().getZ(i), 0.0);
+        }
+    }
+
+    @Test
+    public void should_sendRequestAsIs_when_pointsFitInOneChunk() throws CrsConverterException {
+        LocalCrsConverterService delegate = new LocalCrsConverterService(0);
+        ChunkingCrsConverterService sut = createSut(delegate, 10, 3, 0);
+
+        ConvertPointsResponse response = sut.convertPoints(createRequest(10));
+
+        assertEquals(1, delegate.getCalls());
+        assertEquals(0, delegate.getAsyncCalls());
+        assertEquals(10, response.getPoints().size());
+    }
+
+    @Test
+    public void should_throw_when_splitConversionExceedsRequestTimeout() {
+        LocalCrsConverterService delegate = new LocalCrsConverterService(500);
+        ChunkingCrsConverterService sut = new ChunkingCrsConverterService(delegate, CrsConverterAPIConfig.builder()
+                .chunkSize(10)
+                .maxConcurrentChunks(1)
+                .requestTimeoutMillis(50)
+                .build());
+
+        try {
+            sut.convertPoints(createRequest(30));
+            fail("expected CrsConverterException");
+        } catch (CrsConverterException e) {
+            assertTrue(e.getHttpResponse().getException() instanceof TimeoutException);
+        }
+        assertEquals(1, delegate.getAsyncCalls());
+    }
+
+    @Test
+    public void should_boundChunksInFlight() throws CrsConverterException {
+        LocalCrsConverterService delegate = new LocalCrsConverterService(20);
+        ChunkingCrsConverterService sut = createSut(delegate, 5, 3, 0);
+
+        ConvertPointsResponse response = sut.convertPoints(createRequest(100));
+
+        assertEquals(20, delegate.getCalls());
+        assertEquals(100, response.getPoints().size());
+        assertTrue(delegate.getMaxInFlight() <= 3);
+        assertTrue(delegate.getMaxInFlight() > 1);
+    }
+
+    @Test
+    public void should_retryChunk_when_converterIsUnavailable() throws CrsConverterException {
+        LocalCrsConverterService delegate = new LocalCrsConverterService(0, 2, 503);
+        ChunkingCrsConverterService sut = createSut(delegate, 10, 1, 2);
+
+        ConvertPointsResponse response = sut.convertPoints(createRequest(30));
+
+        assertEquals(30, response.getPoints().size());
+        assertEquals(2, sut.getRetryCount());
+        assertEquals(5, delegate.getCalls());
+    }
+
+    @Test
+    public void should_throwWithoutRetry_when_requestIsRejected() {
+        LocalCrsConverterService delegate = new LocalCrsConverterService(0, 1, 400);
+        ChunkingCrsConverterService sut = createSut(delegate, 10, 1, 2);
+
+        try {
+            sut.convertPoints(createRequest(30));
+            fail("expected CrsConverterException");
+        } catch (CrsConverterException e) {
+            assertEquals(400, e.getHttpResponse().getResponseCode());
+        }
+        assertEquals(0, sut.getRetryCount());
+    }
+
+    @Test
+    public void should_throw_when_retriesAreExhausted() {
+        LocalCrsConverterService delegate = new LocalCrsConverterService(0, 10, 503);
+        ChunkingCrsConverterService sut = createSut(delegate, 10, 1, 2);
+
+        try {
+            sut.convertPoints(createRequest(30));
+            fail("expected CrsConverterException");
+        } catch (CrsConverterException e) {
+            assertEquals(503, e.getHttpResponse().getResponseCode());
+        }
+        assertEquals(3, delegate.getCalls());
+    }
+
+    @Test
+    public void should_throw_when_chunkReturnsTooFewPoints() {
+        LocalCrsConverterService delegate = new LocalCrsConverterService(0) {
+            @Override
+            public ConvertPointsResponse convertPoints(ConvertPointsRequest request) throws CrsConverterException {
+                ConvertPointsResponse response = super.convertPoints(request);
+                if (request.getPoints().get(0).getX() == 10) {
+                    response.getPoints().remove(0);
+                }
+                return response;
+            }
+        };
+        ChunkingCrsConverterService sut = createSut(delegate, 10, 1, 2);
+
+        try {
+            sut.convertPoints(createRequest(30));
+            fail("expected CrsConverterException");
+        } catch (CrsConverterException e) {
+            assertEquals(502, e.getHttpResponse().getResponseCode());
+        }
+        assertEquals(0, sut.getRetryCount());
+    }
+
+    private static ChunkingCrsConverterService createSut(ICrsConverterService delegate, int chunkSize, int maxInFlight, int retries) {
+        return new ChunkingCrsConverterService(delegate, CrsConverterAPIConfig.builder()
+                .chunkSize(chunkSize)
+                .maxConcurrentChunks(maxInFlight)
+                .maxChunkRetries(retries)
+                .chunkRetryDelayMillis(0)
+                .build());
+    }
+
+    private static ConvertPointsRequest createRequest(int count) {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new Point((double) i, (double) 2 * i, 0.0));
+        }
+        return new ConvertPointsRequest("from", "to", points);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.model.crs.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline stand-in for the CRS converter: shifts every point by (1, 2, 3) after an optional delay, and can reject
+ * the first calls with a given status code.
+ */
+class LocalCrsConverterService implements ICrsConverterService {
+    static final String OPERATION = "local shift";
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long latencyMillis;
+    private final AtomicInteger failuresLeft;
+    private final int failureCode;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger asyncCalls = new AtomicInteger();
+    private final AtomicInteger points = new AtomicInteger();
+
+    LocalCrsConverterService(long latencyMillis) {
+        this(latencyMillis, 0, 0);
+    }
+
+    LocalCrsConverterService(long latencyMillis, int failures, int failureCode) {
+        this.latencyMillis = latencyMillis;
+        this.failuresLeft = new AtomicInteger(failures);
+        this.failureCode = failureCode;
+    }
+
+    @Override
+    public ConvertPointsResponse convertPoints(ConvertPointsRequest request) throws CrsConverterException {
+        this.calls.incrementAndGet();
+        this.points.addAndGet(request.getPoints().size());
+        int current = this.inFlight.incrementAndGet();
+        this.maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            if (this.latencyMillis > 0) {
+                Thread.sleep(this.latencyMillis);
+            }
+            if (this.failuresLeft.getAndDecrement() > 0) {
+                HttpResponse response = new HttpResponse();
+                response.setResponseCode(this.failureCode);
+                throw new CrsConverterException("local failure", response);
+            }
+            List<Point> points = new ArrayList<>(request.getPoints().size());
+            for (Point point : request.getPoints()) {
+                points.add(new Point(point.getX() + 1, point.getY() + 2, point.getZ() + 3));
+            }
+            return new ConvertPointsResponse(points.size(), points, Collections.singletonList(OPERATION));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            this.inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public ConvertTrajectoryResponse convertTrajectory(ConvertTrajectoryRequest request) {
+        return new ConvertTrajectoryResponse();
+    }
+
+    @Override
+    public CompletableFuture<ConvertPointsResponse> convertPointsAsync(ConvertPointsRequest request) {
+        this.asyncCalls.incrementAndGet();
+        CompletableFuture<ConvertPointsResponse> output = new CompletableFuture<>();
+        this.executor.execute(() -> {
+            try {
+                output.complete(this.convertPoints(request));
+            } catch (CrsConverterException | RuntimeException e) {
+                output.completeExceptionally(e);
+            }
+        });
+        return output;
+    }
+
+    @Override
+    public CompletableFuture<ConvertTrajectoryResponse> convertTrajectoryAsync(ConvertTrajectoryRequest request) {
+        return CompletableFuture.completedFuture(this.convertTrajectory(request));
+    }
+
+    int getCalls() {
+        return this.calls.get();
+    }
+
+    int getAsyncCalls() {
+        return this.asyncCalls.get();
+    }
+
+    int getPoints() {
+        return this.points.get();
+    }
+
+    int getMaxInFlight() {
+        return this.maxInFlight.get();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.crs.ConversionRecord;
+import org.opengroup.osdu.core.common.model.crs.ConvertStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingUnitConversionTest {
+
+    private static final String FT = "{\"scaleOffset\":{\"scale\":0.3048,\"offset\":0.0},\"symbol\":\"ft\",\"baseMeasurement\":{\"ancestry\":\"Length\",\"type\":\"UM\"},\"type\":\"USO\"}";
+
+    private final StreamingUnitConversion sut = new StreamingUnitConversion();
+
+    @Test
+    public void should_matchTreeConversion_when_recordIsValid() throws IOException {
+        assertSameAsTree("{\"id\":\"r1\",\"meta\":" + meta("depth", "top") + ",\"data\":{\"depth\":100.0,\"name\":\"well\",\"top\":\"10\",\"curve\":[1,2,3]}}");
+    }
+
+    @Test
+    public void should_matchTreeConversion_when_dataPrecedesMeta() throws IOException {
+        assertSameAsTree("{\"data\":{\"top\":5,\"depth\":100.0},\"id\":\"r1\",\"meta\":" + meta("depth") + "}");
+    }
+
+    @Test
+    public void should_matchTreeConversion_when_valuesAreInvalid() throws IOException {
+        assertSameAsTree("{\"meta\":" + meta("depth", "missing", "curve", "single", "empty") +
+                ",\"data\":{\"depth\":\"abc\",\"curve\":[1,2,3],\"single\":[2.0],\"empty\":[]}}");
+    }
+
+    @Test
+    public void should_matchTreeConversion_when_propertyIsListedTwice() throws IOException {
+        JsonArray meta = new JsonParser().parse(meta("depth")).getAsJsonArray();
+        meta.addAll(new JsonParser().parse(meta("depth")).getAsJsonArray());
+        assertSameAsTree("{\"meta\":" + meta + ",\"data\":{\"depth\":100.0,\"other\":1}}");
+    }
+
+    @Test
+    public void should_copyRecordUnchanged_when_metaIsMissing() throws IOException {
+        String record = "{\"id\":\"r1\",\"data\":{\"depth\":100.0,\"values\":[1,2.50,{\"a\":null}]}}";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        ConversionRecord result = sut.convertToSI(record.getBytes(StandardCharsets.UTF_8), output);
+
+        assertEquals(record, new String(output.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(ConvertStatus.NO_FRAME_OF_REFERENCE, result.getConvertStatus());
+    }
+
+    @Test
+    public void should_streamLargeArrays_when_notTargeted() throws IOException {
+        StringBuilder record = new StringBuilder("{\"meta\":").append(meta("depth")).append(",\"data\":{\"depth\":1,\"samples\":[");
+        for (int i = 0; i < 100000; i++) {
+            record.append(i == 0 ? "" : ",").append(i);
+        }
+        record.append("]}}");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        ConversionRecord result = sut.convertToSI(record.toString().getBytes(StandardCharsets.UTF_8), output);
+
+        JsonObject data = new JsonParser().parse(new String(output.toByteArray(), StandardCharsets.UTF_8))
+                .getAsJsonObject().getAsJsonObject("data");
+        assertEquals(ConvertStatus.SUCCESS, result.getConvertStatus());
+        assertEquals(0.3048, data.get("depth").getAsDouble(), 1e-10);
+        assertEquals(100000, data.getAsJsonArray("samples").size());
+        assertTrue(result.getConversionMessages().isEmpty());
+    }
+
+    private void assertSameAsTree(String record) throws IOException {
+        ConversionRecord expected = ConversionRecord.builder()
+                .recordJsonObject(new JsonParser().parse(record).getAsJsonObject()).build();
+        new UnitConversionImpl(false).convertUnitsToSI(Collections.singletonList(expected));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        ConversionRecord result = sut.convertToSI(record.getBytes(StandardCharsets.UTF_8), output);
+
+        assertEquals(expected.getRecordJsonObject().toString(), new String(output.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(expected.getConvertStatus(), result.getConvertStatus());
+        assertEquals(expected.getConversionMessages(), result.getConversionMessages());
+    }
+
+    private static String meta(String... names) {
+        JsonObject meta = new JsonObject();
+        meta.addProperty("kind", "Unit");
+        meta.addProperty("persistableReference", FT);
+        meta.add("propertyNames", new JsonParser().parse(new Gson().toJson(Arrays.asList(names))));
+        JsonArray output = new JsonArray();
+        output.add(meta);
+        return output.toString();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.crs;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.crs.ConversionRecord;
+import org.opengroup.osdu.core.common.model.crs.ConvertStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UnitConversionImplTest {
+
+    private static final String FT = "{\"scaleOffset\":{\"scale\":0.3048,\"offset\":0.0},\"symbol\":\"ft\",\"baseMeasurement\":{\"ancestry\":\"Length\",\"type\":\"UM\"},\"type\":\"USO\"}";
+    private static final String DEG_F = "{\"abcd\":{\"a\":2298.35,\"b\":5.0,\"c\":9.0,\"d\":0.0},\"symbol\":\"degF\",\"baseMeasurement\":{\"ancestry\":\"K\",\"type\":\"UM\"},\"type\":\"UAD\"}";
+
+    private final UnitConversionImpl sut = new UnitConversionImpl();
+
+    @Test
+    public void should_convertValuesAndUpdateReference_when_recordIsValid() {
+        ConversionRecord record = createRecord("{\"depth\":100.0,\"temperature\":32.0}",
+                meta(FT, "depth"), meta(DEG_F, "temperature"));
+
+        sut.convertUnitsToSI(Collections.singletonList(record));
+
+        JsonObject data = record.getRecordJsonObject().getAsJsonObject("data");
+        assertEquals(30.48, data.get("depth").getAsDouble(), 1e-10);
+        assertEquals(273.15, data.get("temperature").getAsDouble(), 1e-10);
+        assertEquals(ConvertStatus.SUCCESS, record.getConvertStatus());
+        assertTrue(record.getConversionMessages().isEmpty());
+        String reference = record.getRecordJsonObject().getAsJsonArray("meta").get(0).getAsJsonObject()
+                .get("persistableReference").getAsString();
+        assertTrue(reference.contains("\"scale\":1.0"));
+    }
+
+    @Test
+    public void should_reportPerRecordMessages_when_valuesAreInvalid() {
+        ConversionRecord bad = createRecord("{\"depth\":\"abc\"}", meta(FT, "depth", "missing"));
+        ConversionRecord good = createRecord("{\"depth\":10.0}", meta(FT, "depth"));
+
+        sut.convertUnitsToSI(Arrays.asList(bad, good));
+
+        assertEquals(ConvertStatus.ERROR, bad.getConvertStatus());
+        assertEquals(Arrays.asList(String.format(UnitConversionImpl.ILLEGAL_PROPERTY_VALUE, "depth"),
+                String.format(UnitConversionImpl.MISSING_PROPERTY, "missing"),
+                UnitConversionImpl.UNIT_CONVERSION_FAILURE), bad.getConversionMessages());
+        assertEquals("abc", bad.getRecordJsonObject().getAsJsonObject("data").get("depth").getAsString());
+        assertEquals(ConvertStatus.SUCCESS, good.getConvertStatus());
+        assertEquals(3.048, good.getRecordJsonObject().getAsJsonObject("data").get("depth").getAsDouble(), 1e-10);
+    }
+
+    @Test
+    public void should_convertTwice_when_propertyIsListedTwice() {
+        ConversionRecord record = createRecord("{\"depth\":100.0,\"other\":1.0}", meta(FT, "depth"), meta(FT, "depth"));
+
+        sut.convertUnitsToSI(Collections.singletonList(record));
+
+        JsonObject data = record.getRecordJsonObject().getAsJsonObject("data");
+        assertEquals(100.0 * 0.3048 * 0.3048, data.get("depth").getAsDouble(), 1e-10);
+        assertEquals(Arrays.asList("other", "depth"), new ArrayList<>(data.keySet()));
+    }
+
+    @Test
+    public void should_convertEveryValue_when_batchIsLargeEnoughToRunInParallel() {
+        List<ConversionRecord> records = new ArrayList<>();
+        for (int i = 0; i < UnitConversionBatch.PARALLEL_THRESHOLD + 10; i++) {
+            records.add(createRecord("{\"depth\":" + i + ".0}", meta(FT, "depth")));
+        }
+
+        sut.convertUnitsToSI(records);
+
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(ConvertStatus.SUCCESS, records.get(i).getConvertStatus());
+            assertEquals(i * 0.3048,
+                    records.get(i).getRecordJsonObject().getAsJsonObject("data").get("depth").getAsDouble(), 1e-10);
+        }
+    }
+
+    private static JsonObject meta(String reference, String... propertyNames) {
+        JsonObject meta = new JsonObject();
+        meta.addProperty("kind", "Unit");
+        meta.addProperty("persistableReference", reference);
+        JsonArray names = new JsonArray();
+        for (String name : propertyNames) {
+            names.add(name);
+        }
+        meta.add("propertyNames", names);
+        return meta;
+    }
+
+    private static ConversionRecord createRecord(String data, JsonObject... metas) {
+        JsonObject record = new JsonObject();
+        record.add("data", new JsonParser().parse(data));
+        JsonArray metaArray = new JsonArray();
+        for (JsonObject meta : metas) {
+            metaArray.add(meta);
+        }
+        record.add("meta", metaArray);
+        return ConversionRecord.builder().recordJsonObject(record).build();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncHttpClientTest {
+
+    private HttpServer server;
+    private String rootUrl;
+
+    @Before
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/echo", exchange -> {
+            byte[] request = readAll(exchange.getRequestBody());
+            byte[] response = String.format("{\"method\":\"%s\",\"body\":\"%s\",\"header\":\"%s\"}",
+                    exchange.getRequestMethod(), new String(request, StandardCharsets.UTF_8),
+                    exchange.getRequestHeaders().getFirst("data-partition-id")).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        rootUrl = String.format("http://localhost:%d", server.getAddress().getPort());
+    }
+
+    @After
+    public void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void should_returnResponse_when_postIsSentAsynchronously() {
+        HttpRequest request = HttpRequest.post().url(rootUrl + "/echo").body("abc").build();
+        request.getHeaders().put("data-partition-id", "tenant1");
+
+        HttpResponse response = new AsyncHttpClient().sendAsync(request).join();
+
+        assertTrue(response.isSuccessCode());
+        assertFalse(response.hasException());
+        assertEquals("{\"method\":\"POST\",\"body\":\"abc\",\"header\":\"tenant1\"}", response.getBody());
+        assertTrue(response.getContentType().startsWith("application/json"));
+    }
+
+    @Test
+    public void should_returnNotFound_when_resourceDoesNotExist() {
+        HttpResponse response = new AsyncHttpClient().sendAsync(HttpRequest.get().url(rootUrl + "/missing").build()).join();
+
+        assertTrue(response.IsNotFoundCode());
+    }
+
+    @Test
+    public void should_completeAllRequests_when_sentInParallel() {
+        AsyncHttpClient sut = new AsyncHttpClient();
+        List<CompletableFuture<HttpResponse>> futures = IntStream.range(0, 20)
+                .mapToObj(i -> sut.sendAsync(HttpRequest.get().url(rootUrl + "/echo").build()))
+                .collect(Collectors.toList());
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        for (CompletableFuture<HttpResponse> future : futures) {
+            assertEquals(200, future.join().getResponseCode());
+        }
+    }
+
+    @Test
+    public void should_setException_when_hostCannotBeReached() {
+        HttpResponse response = new AsyncHttpClient().sendAsync(
+                HttpRequest.get().url("http://localhost:1/echo").connectionTimeout(1000).build()).join();
+
+        assertTrue(response.hasException());
+        assertEquals(0, response.getResponseCode());
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.fail;
+
+public class CoalescingHttpClientTest {
+
+    private static final String URL = "http://test.com/groups";
+
+    @Test
+    public void should_shareSingleCall_when_identicalGetsAreInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        CoalescingHttpClient sut = new CoalescingHttpClient(request -> {
+            calls.incrementAndGet();
+            await(release);
+            HttpResponse response = new HttpResponse();
+            response.setResponseCode(200);
+            response.setBody("{\"groups\":[]}");
+            response.setHeaders(new HashMap<>());
+            response.getHeaders().put("ETag", new ArrayList<>(Collections.singletonList("v1")));
+            return response;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        List<Future<HttpResponse>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(executor.submit(() -> sut.send(HttpRequest.get().url(URL).headers(headers("token")).build())));
+        }
+        while (sut.getCoalescedCount() < 4) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        List<HttpResponse> responses = new ArrayList<>();
+        for (Future<HttpResponse> result : results) {
+            responses.add(result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+
+        // every caller owns its response, changing one must not leak into the others
+        HttpResponse first = responses.get(0);
+        first.setBody("changed");
+        first.getHeaders().get("ETag").add("v2");
+        for (HttpResponse response : responses.subList(1, responses.size())) {
+            assertNotSame(first, response);
+            assertEquals(200, response.getResponseCode());
+            assertEquals("{\"groups\":[]}", response.getBody());
+            assertEquals(Collections.singletonList("v1"), response.getHeaders().get("ETag"));
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void should_notCoalesce_when_requestIsNotGet() {
+        AtomicInteger calls = new AtomicInteger();
+        CoalescingHttpClient sut = new CoalescingHttpClient(request -> {
+            calls.incrementAndGet();
+            return new HttpResponse();
+        });
+
+        sut.send(HttpRequest.post().url(URL).headers(headers("token")).build());
+        sut.send(HttpRequest.post().url(URL).headers(headers("token")).build());
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void should_propagateException_when_wrappedClientFails() {
+        CoalescingHttpClient sut = new CoalescingHttpClient(request -> {
+            throw new IllegalStateException("boom");
+        });
+
+        try {
+            sut.send(HttpRequest.get().url(URL).headers(headers("token")).build());
+            fail("expected exception");
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        }
+    }
+
+    @Test
+    public void should_createDifferentKeys_when_callersDiffer() {
+        String key1 = CoalescingHttpClient.createKey(HttpRequest.get().url(URL).headers(headers("token1")).build());
+        String key2 = CoalescingHttpClient.createKey(HttpRequest.get().url(URL).headers(headers("token2")).build());
+
+        assertNotEquals(key1, key2);
+        assertEquals(key1, CoalescingHttpClient.createKey(HttpRequest.get().url(URL).headers(headers("token1")).build()));
+    }
+
+    private static Map<String, String> headers(String token) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("authorization", token);
+        headers.put("data-partition-id", "tenant1");
+        return headers;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
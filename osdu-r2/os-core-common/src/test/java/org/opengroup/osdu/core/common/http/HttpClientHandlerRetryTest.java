@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.http.HttpResponse;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HttpClientHandlerRetryTest {
+
+    @Mock
+    private JaxRsDpsLog log;
+
+    @Spy
+    private HttpClientPool httpClientPool = new HttpClientPool();
+
+    @Spy
+    private HttpRetryPolicy httpRetryPolicy = new HttpRetryPolicy();
+
+    @InjectMocks
+    private HttpClientHandler sut;
+
+    private HttpServer server;
+    private String rootUrl;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Before
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/flaky", exchange -> {
+            boolean unavailable = calls.incrementAndGet() < 3;
+            byte[] response = (unavailable ? "{\"ok\":false}" : "{\"ok\":true}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(unavailable ? 503 : 200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+        rootUrl = String.format("http://localhost:%d", server.getAddress().getPort());
+    }
+
+    @After
+    public void teardown() throws Exception {
+        server.stop(0);
+        httpClientPool.close();
+    }
+
+    @Test
+    public void should_retryGet_until_upstreamRecovers() {
+        HttpResponse response = sut.sendRequest(new HttpGet(rootUrl + "/flaky"), new DpsHeaders());
+
+        assertEquals(200, response.getResponseCode());
+        assertEquals("{\"ok\":true}", response.getBody());
+        assertEquals(3, calls.get());
+        assertEquals(2, httpRetryPolicy.getDestinationStats().get("localhost").getRetries());
+        assertEquals(CircuitBreaker.State.CLOSED, httpRetryPolicy.getCircuitBreaker("localhost").getState());
+    }
+
+    @Test
+    public void should_returnUpstreamResponse_when_breakerOpensDuringRetries() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 60000);
+        doReturn(breaker).when(httpRetryPolicy).getCircuitBreaker(anyString());
+
+        HttpResponse response = sut.sendRequest(new HttpGet(rootUrl + "/flaky"), new DpsHeaders());
+
+        assertEquals(503, response.getResponseCode());
+        assertEquals("{\"ok\":false}", response.getBody());
+        assertEquals(1, calls.get());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void should_releaseHalfOpenProbe_when_executeThrowsRuntimeException() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        breaker.recordFailure();
+        doReturn(breaker).when(httpRetryPolicy).getCircuitBreaker(anyString());
+        CloseableHttpClient client = mock(CloseableHttpClient.class);
+        when(client.execute(any(HttpUriRequest.class))).thenThrow(new IllegalStateException("Connection pool shut down"));
+        doReturn(client).when(httpClientPool).getClient();
+
+        try {
+            sut.sendRequest(new HttpGet(rootUrl + "/flaky"), new DpsHeaders());
+            fail("expected the runtime exception to propagate");
+        } catch (IllegalStateException e) {
+            assertEquals("Connection pool shut down", e.getMessage());
+        }
+
+        // the failed probe reopens the breaker, so the next probe is let through once openMillis has passed
+        assertTrue(breaker.allowRequest());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.pool.PoolStats;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HttpClientPoolTest {
+
+    private HttpClientPool sut;
+
+    @Before
+    public void setup() {
+        sut = new HttpClientPool();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        sut.close();
+    }
+
+    @Test
+    public void should_returnSameClient_when_calledMultipleTimes() {
+        assertSame(sut.getClient(), sut.getClient());
+    }
+
+    @Test
+    public void should_returnEmptyPoolStats_when_noRequestWasSent() {
+        sut.getClient();
+
+        PoolStats stats = sut.getTotalStats();
+        assertNotNull(stats);
+        assertEquals(0, stats.getLeased());
+        assertEquals(0, stats.getPending());
+        assertEquals(200, stats.getMax());
+        assertTrue(sut.getRouteStats().isEmpty());
+    }
+
+    @Test
+    public void should_applyTimeoutToAsyncClient_when_initialized() throws Exception {
+        HttpClientPool pool = new HttpClientPool(1234);
+        try {
+            pool.init();
+
+            assertEquals(1234, AsyncHttpClient.getSocketTimeoutMillis());
+        } finally {
+            pool.close();
+            AsyncHttpClient.setSocketTimeoutMillis(AsyncHttpClient.DEFAULT_SOCKET_TIMEOUT_MILLIS);
+        }
+    }
+
+    @Test
+    public void should_createOneClient_when_firstCallsAreConcurrent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<CloseableHttpClient>> tasks = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                tasks.add(sut::getClient);
+            }
+            List<Future<CloseableHttpClient>> results = executor.invokeAll(tasks);
+            for (Future<CloseableHttpClient> result : results) {
+                assertSame(results.get(0).get(), result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
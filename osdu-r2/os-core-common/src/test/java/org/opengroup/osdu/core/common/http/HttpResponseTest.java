@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class HttpResponseTest {
+
+    private static final String JSON = "{\n  \"name\": \"déjà vu\"\n}";
+
+    @Test
+    public void should_parseRawBody_when_bodyWasNotMaterialized() {
+        HttpResponse sut = new HttpResponse();
+        sut.setRawBody(JSON.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+
+        assertEquals("déjà vu", sut.parseBody(ResponseTest.class).name);
+        assertEquals("déjà vu", sut.getAsJsonObject().get("name").getAsString());
+    }
+
+    @Test
+    public void should_materializeBodyWithNewLines_when_bodyIsRequested() {
+        HttpResponse sut = new HttpResponse();
+        sut.setRawBody(JSON.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.ISO_8859_1);
+
+        assertEquals(JSON, sut.getBody());
+    }
+
+    @Test
+    public void should_returnNull_when_rawBodyIsEmpty() {
+        HttpResponse sut = new HttpResponse();
+        sut.setRawBody(new byte[0], null);
+
+        assertNull(sut.parseBody(ResponseTest.class));
+        assertEquals("", sut.getBody());
+    }
+
+    @Test
+    public void should_returnSameEmptyBody_fromBothResponseModels_when_rawBodyIsMissing() {
+        HttpResponse sut = new HttpResponse();
+        org.opengroup.osdu.core.common.model.http.HttpResponse model =
+                new org.opengroup.osdu.core.common.model.http.HttpResponse();
+
+        sut.setRawBody(null, null);
+        model.setRawBody(null, null);
+
+        assertEquals("", sut.getBody());
+        assertEquals(sut.getBody(), model.getBody());
+    }
+
+    @Test
+    public void should_compareDecodedBody_andNotPrintRawBytes() {
+        HttpResponse raw = new HttpResponse();
+        raw.setRawBody(JSON.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        HttpResponse decoded = new HttpResponse();
+        decoded.setBody(JSON);
+
+        assertEquals(decoded, raw);
+        assertEquals(decoded.hashCode(), raw.hashCode());
+        assertFalse(raw.toString().contains("rawBody"));
+        assertFalse(raw.toString().contains("charset"));
+    }
+
+    @Test
+    public void should_parseBody_when_readingFromStream() {
+        ResponseTest result = HttpResponse.parseBody(
+                new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, ResponseTest.class);
+
+        assertEquals("déjà vu", result.name);
+    }
+
+    private class ResponseTest {
+        String name;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.http;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HttpRetryPolicyTest {
+
+    private static final String URL = "http://test.com/api";
+
+    @Test
+    public void should_retryIdempotentRequest_when_upstreamIsUnavailable() {
+        HttpRetryPolicy sut = new HttpRetryPolicy();
+
+        assertTrue(sut.shouldRetry(new HttpGet(URL), 502, 1));
+        assertTrue(sut.shouldRetry(new HttpGet(URL), 429, 2));
+        assertFalse(sut.shouldRetry(new HttpGet(URL), 503, 3));
+        assertFalse(sut.shouldRetry(new HttpGet(URL), 500, 1));
+        assertFalse(sut.shouldRetry(new HttpGet(URL), 404, 1));
+    }
+
+    @Test
+    public void should_retryPost_only_when_rejectedOrIdempotencyKeyIsGiven() {
+        HttpRetryPolicy sut = new HttpRetryPolicy();
+        HttpPost post = new HttpPost(URL);
+
+        assertTrue(sut.shouldRetry(post, 503, 1));
+        assertTrue(sut.shouldRetry(post, 429, 1));
+        assertFalse(sut.shouldRetry(post, 504, 1));
+
+        post.addHeader(HttpRetryPolicy.IDEMPOTENCY_KEY, "abc");
+        assertTrue(sut.shouldRetry(post, 504, 1));
+    }
+
+    @Test
+    public void should_stopRetrying_when_retryBudgetIsExhausted() {
+        HttpRetryPolicy sut = new HttpRetryPolicy();
+        int allowed = 0;
+        for (int i = 0; i < 50; i++) {
+            sut.recordRequest();
+            if (sut.shouldRetry(new HttpGet(URL), 503, 1)) {
+                allowed++;
+            }
+        }
+
+        assertEquals(10, allowed);
+        assertEquals(40, sut.getRetryBudgetExhaustedCount());
+    }
+
+    @Test
+    public void should_honorRetryAfter_when_upstreamProvidesIt() {
+        HttpRetryPolicy sut = new HttpRetryPolicy();
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 429, "Too Many Requests");
+        response.addHeader("Retry-After", "2");
+
+        assertEquals(2000, sut.getBackoffMillis(1, response));
+
+        response.setHeader("Retry-After", "120");
+        assertEquals(5000, sut.getBackoffMillis(1, response));
+    }
+
+    @Test
+    public void should_keepBackoffWithinExponentialCeiling() {
+        HttpRetryPolicy sut = new HttpRetryPolicy();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(sut.getBackoffMillis(1, null) <= 100);
+            assertTrue(sut.getBackoffMillis(3, null) <= 400);
+            assertTrue(sut.getBackoffMillis(20, null) <= 5000);
+        }
+    }
+
+    @Test
+    public void should_openCircuitBreaker_after_consecutiveFailures_andThen_closeItAfterSuccessfulProbe() {
+        long[] now = {0};
+        CircuitBreaker sut = new CircuitBreaker(2, 1000) {
+            @Override
+            long now() {
+                return now[0];
+            }
+        };
+
+        sut.recordFailure();
+        assertTrue(sut.allowRequest());
+        sut.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, sut.getState());
+        assertFalse(sut.allowRequest());
+
+        now[0] = 1000;
+        assertTrue(sut.allowRequest());
+        assertFalse(sut.allowRequest());
+        sut.recordSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, sut.getState());
+        assertTrue(sut.allowRequest());
+    }
+
+    @Test
+    public void should_exposeDestinationStats() {
+        HttpRetryPolicy sut = new HttpRetryPolicy();
+        sut.getCircuitBreaker("test.com").recordFailure();
+        sut.recordRetry("test.com");
+        sut.recordRejection("test.com");
+
+        HttpRetryPolicy.DestinationStats stats = sut.getDestinationStats().get("test.com");
+        assertEquals(CircuitBreaker.State.CLOSED, stats.getCircuitBreakerState());
+        assertEquals(1, stats.getRetries());
+        assertEquals(1, stats.getRejections());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opengroup.osdu.core.common.legal;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.http.HttpRequest;
+import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.http.IHttpClient;
+import org.opengroup.osdu.core.common.http.RequestBodyExtractor;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.legal.InvalidTagsWithReason;
+import org.opengroup.osdu.core.common.model.legal.LegalException;
+import org.opengroup.osdu.core.common.model.legal.jobs.ComplianceMessagePushReceiver;
+import org.opengroup.osdu.core.common.model.legal.jobs.ILegalComplianceChangeService;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalComplianceChangeProcessor;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChangedCollection;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagConsistencyValidator;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LegalFactoryTest {
+
+    private static final String INCOMPLIANT_MESSAGE =
+            "{\"statusChangedTags\":[{\"changedTagName\":\"a\",\"changedTagStatus\":\"incompliant\"}]}";
+
+    @InjectMocks
+    private ComplianceMessagePushReceiver receiver;
+
+    @Mock
+    private DpsHeaders dpsHeaders;
+
+    @Mock
+    private RequestBodyExtractor requestBodyExtractor;
+
+    @Mock
+    private LegalTagConsistencyValidator legalTagConsistencyValidator;
+
+    @Mock
+    private ILegalComplianceChangeService legalComplianceChangeService;
+
+    @Mock
+    private ObjectProvider<LegalAPIConfig> legalAPIConfig;
+
+    @Mock
+    private ObjectProvider<LegalTagValidityCache> legalTagValidityCache;
+
+    @Mock
+    private ObjectProvider<LegalComplianceChangeProcessor> legalComplianceChangeProcessor;
+
+    private final List<HttpRequest> requests = new ArrayList<>();
+    private String invalidTags = "[]";
+
+    @Before
+    public void setup() {
+        when(this.dpsHeaders.getPartitionIdWithFallbackToAccountId()).thenReturn("p1");
+        when(this.requestBodyExtractor.extractDataFromRequestBody()).thenReturn(INCOMPLIANT_MESSAGE);
+        when(this.legalTagConsistencyValidator.checkLegalTagStatusWithLegalService(any()))
+                .thenAnswer(invocation -> invocation.getArguments()[0]);
+    }
+
+    @Test
+    public void should_seeComplianceChange_when_factoryFallsBackToCacheBean() throws LegalException {
+        LegalTagValidityCache cache = new LegalTagValidityCache(300, 100);
+        when(this.legalTagValidityCache.getIfAvailable()).thenReturn(cache);
+        LegalAPIConfig config = LegalAPIConfig.builder().rootUrl("http://legal").build();
+        ILegalProvider legalService = new LegalFactory(config, this.legalTagValidityCache, this.httpClient())
+                .create(this.headers());
+
+        this.assertComplianceChangeSeen(legalService);
+    }
+
+    @Test
+    public void should_seeComplianceChange_when_configCarriesCache() throws LegalException {
+        LegalAPIConfig config = LegalAPIConfig.builder().rootUrl("http://legal")
+                .validityCache(new LegalTagValidityCache(300, 100)).build();
+        when(this.legalAPIConfig.getIfAvailable()).thenReturn(config);
+        when(this.legalTagValidityCache.getIfAvailable()).thenReturn(new LegalTagValidityCache(300, 100));
+        ILegalProvider legalService = new LegalFactory(config, this.legalTagValidityCache, this.httpClient())
+                .create(this.headers());
+
+        this.assertComplianceChangeSeen(legalService);
+    }
+
+    private void assertComplianceChangeSeen(ILegalProvider legalService) throws LegalException {
+        assertEquals(0, legalService.validate("a").getInvalidLegalTags().length);
+        assertEquals(0, legalService.validate("a").getInvalidLegalTags().length);
+        assertEquals(1, this.requests.size());
+
+        this.invalidTags = "[{\"name\":\"a\",\"reason\":\"expired\"}]";
+        this.receiver.receiveMessageFromHttpRequest();
+        InvalidTagsWithReason result = legalService.validate("a");
+
+        assertEquals(2, this.requests.size());
+        assertEquals("a", result.getInvalidLegalTags()[0].getName());
+        assertEquals("expired", result.getInvalidLegalTags()[0].getReason());
+    }
+
+    private IHttpClient httpClient() {
+        return request -> {
+            this.requests.add(request);
+            HttpResponse response = new HttpResponse();
+            response.setResponseCode(200);
+            response.setBody("{\"invalidLegalTags\":" + this.invalidTags + "}");
+            return response;
+        };
+    }
+
+    private DpsHeaders headers() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(DpsHeaders.DATA_PARTITION_ID, "p1");
+        return DpsHeaders.createFromMap(headers);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.legal;
+
+import org.junit.Test;
+import org.opengroup.osdu.core.common.cache.ICacheInvalidationChannel;
+import org.opengroup.osdu.core.common.http.HttpRequest;
+import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.legal.InvalidTagWithReason;
+import org.opengroup.osdu.core.common.model.legal.InvalidTagsWithReason;
+import org.opengroup.osdu.core.common.model.legal.LegalException;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChanged;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChangedCollection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LegalTagValidityCacheTest {
+
+    private final LegalTagValidityCache sut = new LegalTagValidityCache(300, 100);
+    private final List<Set<String>> loads = new ArrayList<>();
+
+    @Test
+    public void should_loadMissesInSingleCall_and_serveRepeatsFromCache() throws LegalException {
+        InvalidTagWithReason[] first = sut.getInvalidLegalTags("p1", Arrays.asList("a", "b", "bad"), this::load);
+        InvalidTagWithReason[] second = sut.getInvalidLegalTags("p1", Arrays.asList("bad", "a", "b"), this::load);
+
+        assertEquals(1, loads.size());
+        assertEquals(3, loads.get(0).size());
+        assertEquals(1, first.length);
+        assertEquals(1, second.length);
+        assertEquals("bad", second[0].getName());
+        assertEquals("expired", second[0].getReason());
+        assertEquals(3, sut.getHitCount());
+        assertEquals(3, sut.getMissCount());
+        assertEquals(0.5, sut.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void should_onlyLoadUnknownTags_when_partiallyCached() throws LegalException {
+        sut.getInvalidLegalTags("p1", Arrays.asList("a"), this::load);
+        sut.getInvalidLegalTags("p1", Arrays.asList("a", "c"), this::load);
+
+        assertEquals(2, loads.size());
+        assertEquals(1, loads.get(1).size());
+        assertTrue(loads.get(1).contains("c"));
+    }
+
+    @Test
+    public void should_keepPartitionsSeparate() throws LegalException {
+        sut.getInvalidLegalTags("p1", Arrays.asList("a"), this::load);
+        sut.getInvalidLegalTags("p2", Arrays.asList("a"), this::load);
+
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    public void should_reload_when_complianceChangeInvalidatesTag() throws LegalException {
+        sut.getInvalidLegalTags("p1", Arrays.asList("a", "b"), this::load);
+
+        sut.invalidate("p1", changes("a", "incompliant"));
+        sut.getInvalidLegalTags("p1", Arrays.asList("a", "b"), this::load);
+
+        assertEquals(2, loads.size());
+        assertEquals(1, loads.get(1).size());
+        assertTrue(loads.get(1).contains("a"));
+    }
+
+    @Test
+    public void should_markTagValid_when_confirmedCompliantChangeApplied() throws LegalException {
+        sut.getInvalidLegalTags("p1", Arrays.asList("bad"), this::load);
+
+        sut.apply("p1", changes("bad", "compliant"));
+
+        assertEquals(0, sut.getInvalidLegalTags("p1", Arrays.asList("bad"), this::load).length);
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    public void should_dropTag_when_confirmedIncompliantChangeApplied() throws LegalException {
+        sut.getInvalidLegalTags("p1", Arrays.asList("a"), this::load);
+
+        sut.apply("p1", changes("a", "incompliant"));
+        sut.getInvalidLegalTags("p1", Arrays.asList("a"), this::load);
+
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    public void should_reload_when_partitionInvalidated() throws LegalException {
+        sut.getInvalidLegalTags("p1", Arrays.asList("a"), this::load);
+
+        sut.invalidateAll("p1");
+        sut.getInvalidLegalTags("p1", Arrays.asList("a"), this::load);
+
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    public void should_callValidateOnce_when_legalServiceUsesCache() throws LegalException {
+        List<HttpRequest> requests = new ArrayList<>();
+        LegalAPIConfig config = LegalAPIConfig.builder().rootUrl("http://legal").validityCache(sut).build();
+        Map<String, String> headers = new HashMap<>();
+        headers.put(DpsHeaders.DATA_PARTITION_ID, "p1");
+        LegalService legalService = new LegalService(config, request -> {
+            requests.add(request);
+            HttpResponse response = new HttpResponse();
+            response.setResponseCode(200);
+            response.setBody("{\"invalidLegalTags\":[{\"name\":\"bad\",\"reason\":\"expired\"}]}");
+            return response;
+        }, null, DpsHeaders.createFromMap(headers));
+
+        legalService.validate("a", "bad");
+        InvalidTagsWithReason result = legalService.validate("a", "bad");
+
+        assertEquals(1, requests.size());
+        assertEquals("bad", result.getInvalidLegalTags()[0].getName());
+        assertEquals("expired", result.getInvalidLegalTags()[0].getReason());
+    }
+
+    @Test
+    public void should_evictTagOnOtherNodes_when_complianceChangeReachesOneNode() throws LegalException {
+        LocalChannel bus = new LocalChannel();
+        LegalTagValidityCache node1 = new LegalTagValidityCache(300, 100, bus);
+        LegalTagValidityCache node2 = new LegalTagValidityCache(300, 100, bus);
+        node1.getInvalidLegalTags("p1", Arrays.asList("a", "b"), this::load);
+        node2.getInvalidLegalTags("p1", Arrays.asList("a", "b"), this::load);
+
+        node1.invalidate("p1", changes("a", "incompliant"));
+        node2.getInvalidLegalTags("p1", Arrays.asList("a", "b"), this::load);
+
+        assertEquals(3, loads.size());
+        assertEquals(1, loads.get(2).size());
+        assertTrue(loads.get(2).contains("a"));
+    }
+
+    @Test
+    public void should_dropPartitionOnOtherNodes_when_partitionInvalidated() throws LegalException {
+        LocalChannel bus = new LocalChannel();
+        LegalTagValidityCache node1 = new LegalTagValidityCache(300, 100, bus);
+        LegalTagValidityCache node2 = new LegalTagValidityCache(300, 100, bus);
+        node2.getInvalidLegalTags("p1", Arrays.asList("a"), this::load);
+        node2.getInvalidLegalTags("p2", Arrays.asList("a"), this::load);
+
+        node1.invalidateAll("p1");
+        bus.publish("not json");
+        node2.getInvalidLegalTags("p1", Arrays.asList("a"), this::load);
+        node2.getInvalidLegalTags("p2", Arrays.asList("a"), this::load);
+
+        assertEquals(3, loads.size());
+    }
+
+    private InvalidTagWithReason[] load(Set<String> names) {
+        loads.add(names);
+        List<InvalidTagWithReason> output = new ArrayList<>();
+        for (String name : names) {
+            if (name.startsWith("bad")) {
+                InvalidTagWithReason invalidTag = new InvalidTagWithReason();
+                invalidTag.setName(name);
+                invalidTag.setReason("expired");
+                output.add(invalidTag);
+            }
+        }
+        return output.toArray(new InvalidTagWithReason[0]);
+    }
+
+    private static LegalTagChangedCollection changes(String name, String status) {
+        LegalTagChanged change = new LegalTagChanged();
+        change.setChangedTagName(name);
+        change.setChangedTagStatus(status);
+        LegalTagChangedCollection output = new LegalTagChangedCollection();
+        output.getStatusChangedTags().add(change);
+        return output;
+    }
+
+    private static class LocalChannel implements ICacheInvalidationChannel {
+        private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(String message) {
+            listeners.forEach(listener -> listener.accept(message));
+        }
+
+        @Override
+        public void subscribe(Consumer<String> listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void close() {
+            listeners.clear();
+        }
+    }
+}
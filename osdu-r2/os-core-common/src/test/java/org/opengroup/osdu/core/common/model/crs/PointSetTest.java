@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.crs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PointSetTest {
+
+    private static final Gson GSON = new Gson();
+
+    @Test
+    public void should_serializeLikePointList_when_usingGson() {
+        List<Point> points = Arrays.asList(new Point(1.0, 2.0, 3.0), new Point(4.5, 5.5, 6.5));
+        ConvertPointsRequest boxed = new ConvertPointsRequest("a", "b", points);
+
+        String json = GSON.toJson(ConvertPointSetRequest.fromPointsRequest(boxed));
+
+        assertEquals(GSON.toJson(boxed), json);
+        ConvertPointsRequest parsed = GSON.fromJson(json, ConvertPointsRequest.class);
+        assertEquals(points, parsed.getPoints());
+    }
+
+    @Test
+    public void should_readPointListJson_when_usingGson() {
+        String json = "{\"successCount\":1,\"points\":[{\"x\":1.0,\"y\":2.0,\"z\":3.0,\"extra\":[1]},{\"x\":4.0,\"y\":null},null],\"operationsApplied\":[\"op\"]}";
+
+        ConvertPointSetResponse response = GSON.fromJson(json, ConvertPointSetResponse.class);
+
+        PointSet points = response.getPoints();
+        assertEquals(3, points.size());
+        assertEquals(3.0, points.getZ(0), 0.0);
+        assertEquals(4.0, points.getX(1), 0.0);
+        assertTrue(Double.isNaN(points.getY(1)));
+        assertFalse(points.isValid(2));
+        assertEquals(Arrays.asList("op"), response.getOperationsApplied());
+    }
+
+    @Test
+    public void should_roundTrip_when_usingJackson() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ConvertPointSetRequest request = new ConvertPointSetRequest("a", "b", PointSet.wrap(new double[]{1, 2, 3, 4, 5, 6}));
+
+        String json = mapper.writeValueAsString(request);
+        ConvertPointSetRequest parsed = mapper.readValue(json, ConvertPointSetRequest.class);
+
+        assertEquals(request, parsed);
+        assertEquals(mapper.writeValueAsString(request.toPointsRequest()), json);
+    }
+
+    @Test
+    public void should_growSliceAndAppend() {
+        PointSet points = new PointSet(1);
+        for (int i = 0; i < 10; i++) {
+            points.add(i, 2 * i, 3 * i);
+        }
+
+        PointSet slice = points.slice(2, 5);
+        slice.addAll(points.slice(9, 10));
+
+        assertEquals(10, points.size());
+        assertArrayEquals(new double[]{2, 4, 6, 3, 6, 9, 4, 8, 12, 9, 18, 27}, slice.toArray(), 0.0);
+        assertEquals(new Point(3.0, 6.0, 9.0), slice.asPoints().get(1));
+        assertEquals(PointSet.fromPoints(slice.toPoints()), slice);
+    }
+
+    @Test
+    public void should_leaveOutMissingCoordinates_and_readThemBackAsNaN() throws IOException {
+        PointSet points = PointSet.wrap(new double[]{1, Double.NaN, 3, Double.NaN, Double.NaN, Double.NaN});
+        List<Point> boxed = Arrays.asList(new Point(1.0, null, 3.0), new Point(null, null, null));
+
+        String gsonJson = GSON.toJson(points);
+        assertEquals(GSON.toJson(boxed), gsonJson);
+        assertEquals(points, GSON.fromJson(gsonJson, PointSet.class));
+
+        ObjectMapper mapper = new ObjectMapper();
+        String jacksonJson = mapper.writeValueAsString(points);
+        assertFalse(jacksonJson.contains("NaN"));
+        assertEquals(points, mapper.readValue(jacksonJson, PointSet.class));
+        assertEquals(points, GSON.fromJson(jacksonJson, PointSet.class));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void should_throw_when_indexIsOutOfRange() {
+        PointSet.wrap(new double[]{1, 2, 3}).getX(1);
+    }
+}
@@ -21,6 +21,7 @@ import org.junit.Test;
 import org.opengroup.osdu.core.common.model.entitlements.GroupInfo;
 import org.opengroup.osdu.core.common.model.entitlements.Groups;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -89,6 +90,49 @@ public class GroupsTest {
         assertNull(sut.getGroup("group.43"));
     }
 
+    @Test
+    public void should_returnTrue_when_groupAddedAfterFirstLookup() {
+        Groups sut = this.generateSut();
+        assertFalse(sut.any("group.4"));
+
+        GroupInfo group4 = new GroupInfo();
+        group4.setName("group.4");
+        sut.getGroups().add(group4);
+
+        assertTrue(sut.any("group.4"));
+    }
+
+    @Test
+    public void should_returnFalse_when_groupsReplacedAfterFirstLookup() {
+        Groups sut = this.generateSut();
+        assertTrue(sut.any("group.1"));
+
+        sut.setGroups(new ArrayList<>());
+
+        assertFalse(sut.any("group.1"));
+    }
+
+    @Test
+    public void should_matchOnlyTenantGroups_when_checkingTenantPermission() {
+        Groups sut = this.generateSut();
+        sut.getGroups().get(0).setEmail("group.1@tenant1.domain.com");
+        sut.getGroups().get(1).setEmail("group.2@tenant2.domain.com");
+        sut.setGroups(new ArrayList<>(sut.getGroups()));
+
+        assertTrue(sut.anyInTenant("tenant1", "group.1"));
+        assertFalse(sut.anyInTenant("tenant1", "group.2"));
+        assertTrue(sut.anyInTenant("tenant2", "group.4", "group.2"));
+        assertFalse(sut.anyInTenant("tenant3", "group.1", "group.2", "group.3"));
+    }
+
+    @Test
+    public void should_returnFalse_when_checkingTenantPermissionAndGroupsContainsNull() {
+        Groups sut = this.generateSut();
+        sut.setGroups(null);
+
+        assertFalse(sut.anyInTenant("tenant1", "group.1"));
+    }
+
     Groups generateSut() {
         Groups output = new Groups();
         GroupInfo group1 = new GroupInfo();
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.model.units;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class MeasurementCatalogTests {
+    private static final String DEG_C = "{\"scaleOffset\":{\"scale\":1.0,\"offset\":-273.15},\"symbol\":\"degC\",\"baseMeasurement\":{\"ancestry\":\"Temperature\",\"type\":\"UM\"},\"type\":\"USO\"}";
+    private static final String DEG_F = "{\"abcd\":{\"a\":2298.35,\"b\":5.0,\"c\":9.0,\"d\":0.0},\"symbol\":\"degF\",\"baseMeasurement\":{\"ancestry\":\"K\",\"type\":\"UM\"},\"type\":\"UAD\"}";
+    private static final String DB = "{\"abcd\":{\"a\":0.0,\"b\":0.1,\"c\":1.0,\"d\":0.0},\"symbol\":\"dB\",\"baseMeasurement\":{\"ancestry\":\"none\",\"type\":\"UM\"},\"type\":\"UAD\"}";
+    private static final String NORMALIZED = "{\"scaleOffset\":{\"scale\":1.0,\"offset\":0.0},\"symbol\":\"W/W\",\"baseMeasurement\":{\"ancestry\":\"Normalized_Power\",\"type\":\"UM\"},\"type\":\"USO\"}";
+    private static final String USD = "{\"scaleOffset\":{\"scale\":1.0,\"offset\":0.0},\"symbol\":\"USD\",\"baseMeasurement\":{\"ancestry\":\"CurrencyUSD\",\"type\":\"UM\"},\"type\":\"USO\"}";
+    private static final String MMUSD = "{\"scaleOffset\":{\"scale\":1000000.0,\"offset\":0.0},\"symbol\":\"MMUSD\",\"baseMeasurement\":{\"ancestry\":\"CurrencyUSD\",\"type\":\"UM\"},\"type\":\"USO\"}";
+    private static final String EUR = "{\"scaleOffset\":{\"scale\":1.0,\"offset\":0.0},\"symbol\":\"EUR\",\"baseMeasurement\":{\"ancestry\":\"CurrencyEUR\",\"type\":\"UM\"},\"type\":\"USO\"}";
+
+    @After
+    public void tearDown() {
+        MeasurementCatalog.reset();
+    }
+
+    @Test
+    public void testEquivalentMeasurementsAreConvertible() {
+        IUnit degC = ReferenceConverter.parseUnitReference(DEG_C);
+        IUnit degF = ReferenceConverter.parseUnitReference(DEG_F);
+        assertTrue(degC.isConvertible(degF));
+        assertTrue(degF.isConvertible(degC));
+        assertEquals(32.0, degC.convertToUnit(degF, 0.0), 1e-10);
+    }
+
+    @Test
+    public void testMeasurementMappingIsNotSymmetric() {
+        IUnit normalized = ReferenceConverter.parseUnitReference(NORMALIZED);
+        IUnit db = ReferenceConverter.parseUnitReference(DB);
+        assertTrue(normalized.isConvertible(db));
+        assertFalse(db.isConvertible(normalized));
+    }
+
+    @Test
+    public void testCustomMeasurementsMatchByName() {
+        IUnit usd = ReferenceConverter.parseUnitReference(USD);
+        IUnit mmusd = ReferenceConverter.parseUnitReference(MMUSD);
+        IUnit eur = ReferenceConverter.parseUnitReference(EUR);
+        assertTrue(mmusd.isConvertible(usd));
+        assertFalse(mmusd.isConvertible(eur));
+        assertTrue(mmusd.getBaseUnit().contains("1 CurrencyUSD"));
+    }
+
+    @Test
+    public void testBuiltInBaseUnit() {
+        String baseUnit = ReferenceConverter.parseUnitReference(DEG_C).getBaseUnit();
+        assertTrue(baseUnit.contains("\"symbol\":\"K\""));
+    }
+
+    @Test
+    public void testLoadedCatalogReplacesSnapshot() throws IOException {
+        Path file = Files.createTempFile("units", ".json");
+        try {
+            Files.write(file, ("{\"measurementMap\":{\"CurrencyEUR\":\"CurrencyUSD\"},\"baseUnits\":{\"CurrencyUSD\":" + USD + "}}")
+                    .getBytes(StandardCharsets.UTF_8));
+            MeasurementCatalog.load(file);
+        } finally {
+            Files.delete(file);
+        }
+
+        IUnit usd = ReferenceConverter.parseUnitReference(USD);
+        IUnit eur = ReferenceConverter.parseUnitReference(EUR);
+        assertTrue(eur.isConvertible(usd));
+        assertFalse(usd.isConvertible(eur));
+        assertEquals(USD, usd.getBaseUnit());
+        IUnit degC = ReferenceConverter.parseUnitReference(DEG_C);
+        assertFalse(degC.isConvertible(ReferenceConverter.parseUnitReference(DEG_F)));
+        assertTrue(degC.getBaseUnit().contains("1 Temperature"));
+
+        MeasurementCatalog.reset();
+        assertFalse(eur.isConvertible(usd));
+        assertTrue(degC.isConvertible(ReferenceConverter.parseUnitReference(DEG_F)));
+    }
+
+    @Test
+    public void testInvalidCatalogKeepsCurrent() throws IOException {
+        try {
+            MeasurementCatalog.load(new StringReader("{\"baseUnits\":{\"Length\":" + USD + "}}"));
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("Length"));
+        }
+        assertTrue(ReferenceConverter.parseUnitReference(DEG_C).isConvertible(ReferenceConverter.parseUnitReference(DEG_F)));
+    }
+
+    @Test
+    public void testConfiguredCatalogFallsBackToSnapshot_whenFileIsBad() throws IOException {
+        Path file = Files.createTempFile("units", ".json");
+        try {
+            Files.write(file, "[1, 2]".getBytes(StandardCharsets.UTF_8));
+            assertFalse(MeasurementCatalog.loadConfigured(file.toString()));
+        } finally {
+            Files.delete(file);
+        }
+        assertFalse(MeasurementCatalog.loadConfigured(file.toString()));
+        assertFalse(MeasurementCatalog.loadConfigured(""));
+        assertTrue(ReferenceConverter.parseUnitReference(DEG_C).isConvertible(ReferenceConverter.parseUnitReference(DEG_F)));
+    }
+}
@@ -196,6 +196,25 @@ public class UnitParseTests {
         for (double deg_c : deg_cs) assertEquals(Double.NaN, deg_c, 1.0e-10);
     }
 
+    @Test
+    public void testParsedUnitsAreShared() {
+        IUnit unit1 = ReferenceConverter.parseUnitReference(DEG_F_S_2);
+        IUnit unit2 = ReferenceConverter.parseUnitReference("  " + DEG_F_S_2 + "\n");
+        assertSame(unit1, unit2);
+        assertSame(ReferenceConverter.parseUnitReference(DEG_C_E_1), ReferenceConverter.parseUnitReference(DEG_C_E_1));
+        assertNotSame(unit1, ReferenceConverter.parseUnitReference(DEG_F_E_2));
+        assertSame(ReferenceConverter.parseUnitReference(null), ReferenceConverter.parseUnitReference(null));
+        assertFalse(ReferenceConverter.parseUnitReference(null).isValid());
+    }
+
+    @Test
+    public void testSharedUnitPersistableReferenceIsStable() {
+        IUnit unit = ReferenceConverter.parseUnitReference(DEG_F_E_1);
+        String pr = unit.createPersistableReference();
+        assertEquals(pr, unit.createPersistableReference());
+        assertEquals(pr, ReferenceConverter.parseUnitReference(DEG_F_E_1).createPersistableReference());
+    }
+
     @Test
     public void testEqualInBehavior() {
         IUnit degF1 = ReferenceConverter.parseUnitReference(DEG_F_S_2);
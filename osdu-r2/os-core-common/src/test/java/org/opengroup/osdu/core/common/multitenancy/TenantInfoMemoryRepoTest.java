@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.multitenancy;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opengroup.osdu.core.common.cache.VmCache;
+import org.opengroup.osdu.core.common.model.tenant.TenantInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TenantInfoMemoryRepoTest {
+
+    private final AtomicLong now = new AtomicLong(1000);
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final ITenantInfoRepo wrapped = mock(ITenantInfoRepo.class);
+    private final VmCache<String, Collection<TenantInfo>> cache = new VmCache<>(600, 10);
+    private TenantInfoMemoryRepo sut;
+
+    @Before
+    public void setup() {
+        when(wrapped.list()).thenReturn(Arrays.asList(tenant("t1", "a1", "a2")));
+        sut = new TenantInfoMemoryRepo(cache, wrapped, 60000, 30000, 10000, tasks::add, now::get);
+    }
+
+    @Test
+    public void should_resolveEveryAccountId_fromOneLoad() {
+        assertEquals("t1", sut.get("a1").getName());
+        assertEquals("t1", sut.get("a2").getName());
+
+        verify(wrapped, times(1)).list();
+    }
+
+    @Test
+    public void should_notReloadOnRequestPath_when_idIsUnknown() {
+        sut.get("a1");
+
+        assertNull(sut.get("bogus"));
+        assertNull(sut.get("bogus"));
+        assertNull(sut.get("other"));
+
+        verify(wrapped, times(1)).list();
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void should_resolveNewTenant_afterBackgroundReload() {
+        sut.get("a1");
+        when(wrapped.list()).thenReturn(Arrays.asList(tenant("t1", "a1"), tenant("t2", "b1")));
+
+        assertNull(sut.get("b1"));
+        tasks.get(0).run();
+
+        assertEquals("t2", sut.get("b1").getName());
+        assertEquals(2, cache.get(TenantInfoMemoryRepo.TENANT_INFO_LIST).size());
+    }
+
+    @Test
+    public void should_rateLimitReloads_when_unknownIdsKeepComing() {
+        sut.get("a1");
+        sut.get("x1");
+        tasks.remove(0).run();
+
+        now.addAndGet(5000);
+        sut.get("x2");
+        assertEquals(0, tasks.size());
+
+        now.addAndGet(6000);
+        sut.get("x3");
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void should_rebuildIndexInBackground_when_olderThanMaxAge() {
+        sut.get("a1");
+        cache.put(TenantInfoMemoryRepo.TENANT_INFO_LIST, Arrays.asList(tenant("t3", "a1")));
+        now.addAndGet(61000);
+
+        assertEquals("t1", sut.get("a1").getName());
+        tasks.get(0).run();
+
+        assertEquals("t3", sut.get("a1").getName());
+    }
+
+    @Test
+    public void should_reloadForNewTenant_when_indexRebuildIsRunning() {
+        sut.get("a1");
+        now.addAndGet(61000);
+        sut.get("a1");
+        when(wrapped.list()).thenReturn(Arrays.asList(tenant("t1", "a1"), tenant("t2", "b1")));
+
+        assertNull(sut.get("b1"));
+        assertEquals(2, tasks.size());
+        tasks.get(1).run();
+
+        assertEquals("t2", sut.get("b1").getName());
+    }
+
+    @Test
+    public void should_retryUnknownId_when_reloadWasThrottled() {
+        sut.get("a1");
+        sut.get("x1");
+        tasks.remove(0).run();
+
+        assertNull(sut.get("b1"));
+        assertEquals(0, tasks.size());
+        when(wrapped.list()).thenReturn(Arrays.asList(tenant("t1", "a1"), tenant("t2", "b1")));
+        now.addAndGet(11000);
+        sut.get("b1");
+
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals("t2", sut.get("b1").getName());
+    }
+
+    @Test
+    public void should_returnFirstTenant_when_accountIdIsListedTwice() {
+        when(wrapped.list()).thenReturn(Arrays.asList(tenant("t1", "a1"), tenant("t2", "a1")));
+
+        assertEquals("t1", sut.get("a1").getName());
+    }
+
+    private static TenantInfo tenant(String name, String... accountIds) {
+        TenantInfo tenant = new TenantInfo();
+        tenant.setName(name);
+        tenant.setCrmAccountIds(Arrays.asList(accountIds));
+        return tenant;
+    }
+}
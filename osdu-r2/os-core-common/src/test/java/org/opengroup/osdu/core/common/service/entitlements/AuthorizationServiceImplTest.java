@@ -19,6 +19,7 @@ package org.opengroup.osdu.core.common.service.entitlements;
 
 import org.mockito.runners.MockitoJUnitRunner;
 import org.opengroup.osdu.core.common.entitlements.AuthorizationServiceImpl;
+import org.opengroup.osdu.core.common.entitlements.IEntitlementsAndCacheService;
 import org.opengroup.osdu.core.common.entitlements.IEntitlementsFactory;
 import org.opengroup.osdu.core.common.entitlements.IEntitlementsService;
 import org.opengroup.osdu.core.common.model.entitlements.AuthorizationResponse;
@@ -34,14 +35,19 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.springframework.beans.factory.ObjectProvider;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -53,6 +59,8 @@ public class AuthorizationServiceImplTest {
     IEntitlementsService service;
     @Mock
     JaxRsDpsLog log;
+    @Mock
+    ObjectProvider<IEntitlementsAndCacheService> entitlementsCache;
 
     @InjectMocks
     AuthorizationServiceImpl sut;
@@ -120,12 +128,54 @@ public class AuthorizationServiceImplTest {
         }
     }
 
+    @Test
+    public void should_returnAllGroups_when_userHasPermissionInTenant()throws EntitlementsException {
+        sut = createSut("service.legal.user", "service.storage.admin");
+
+        AuthorizationResponse result = sut.authorizeAny("tenant1", DpsHeaders.createFromMap(new HashMap<>()), "service.legal.user");
+
+        assertEquals("akelham@bbc.com", result.getUser());
+        assertEquals(2, result.getGroups().getGroups().size());
+    }
+
+    @Test
+    public void should_throwUnauthorized_when_userHasPermissionOnlyInOtherTenant()throws EntitlementsException {
+        sut = createSut("service.legal.user");
+
+        try {
+            sut.authorizeAny("tenant2", DpsHeaders.createFromMap(new HashMap<>()), "service.legal.user");
+            fail("expected exception");
+        }catch(AppException ex){
+            assertEquals(401, ex.getError().getCode());
+        }
+    }
+
+    @Test
+    public void should_readGroupsFromCache_when_cacheIsEnabled() throws EntitlementsException {
+        IEntitlementsAndCacheService cache = mock(IEntitlementsAndCacheService.class);
+        when(entitlementsCache.getIfUnique()).thenReturn(cache);
+        Groups groups = new Groups();
+        groups.setMemberEmail("akelham@bbc.com");
+        GroupInfo group = new GroupInfo();
+        group.setName("service.legal.user");
+        group.setEmail("service.legal.user@tenant1.bbc.com");
+        groups.setGroups(Collections.singletonList(group));
+        DpsHeaders headers = DpsHeaders.createFromMap(new HashMap<>());
+        when(cache.getGroups(headers)).thenReturn(groups);
+
+        AuthorizationResponse result = sut.authorizeAny(headers, "service.legal.user");
+
+        assertEquals("akelham@bbc.com", result.getUser());
+        verify(entitlementsFactory, never()).create(any());
+    }
+
     private AuthorizationServiceImpl createSut(String... roles) throws EntitlementsException {
         List<GroupInfo> groupInfos = new ArrayList<>();
 
         for(String s : roles) {
             GroupInfo group = new GroupInfo();
             group.setName(s);
+            group.setEmail(s + "@tenant1.bbc.com");
             groupInfos.add(group);
         }
         Groups output = new Groups();
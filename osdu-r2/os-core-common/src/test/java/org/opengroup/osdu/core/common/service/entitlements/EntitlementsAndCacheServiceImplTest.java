@@ -0,0 +1,196 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.service.entitlements;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.cache.VmCache;
+import org.opengroup.osdu.core.common.entitlements.EntitlementsAndCacheServiceImpl;
+import org.opengroup.osdu.core.common.entitlements.IEntitlementsFactory;
+import org.opengroup.osdu.core.common.entitlements.IEntitlementsService;
+import org.opengroup.osdu.core.common.http.HttpResponse;
+import org.opengroup.osdu.core.common.model.entitlements.EntitlementsException;
+import org.opengroup.osdu.core.common.model.entitlements.GroupInfo;
+import org.opengroup.osdu.core.common.model.entitlements.Groups;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EntitlementsAndCacheServiceImplTest {
+
+    @Mock
+    private IEntitlementsFactory factory;
+    @Mock
+    private IEntitlementsService service;
+
+    private EntitlementsAndCacheServiceImpl sut;
+
+    @Before
+    public void setup() {
+        when(factory.create(any())).thenReturn(service);
+        sut = new EntitlementsAndCacheServiceImpl(factory, new VmCache<>(60, 100));
+    }
+
+    @Test
+    public void should_callEntitlementsOnce_when_sameTokenAndPartitionAreUsed() throws EntitlementsException {
+        when(service.getGroups()).thenReturn(createGroups("service.storage.viewer"));
+
+        assertEquals("user@slb.com", sut.authorize(createHeaders("Bearer 1", "tenant1"), "service.storage.viewer"));
+        assertEquals("user@slb.com", sut.authorize(createHeaders("Bearer 1", "tenant1"), "service.storage.viewer"));
+        sut.authorize(createHeaders("Bearer 1", "tenant2"), "service.storage.viewer");
+
+        verify(service, times(2)).getGroups();
+    }
+
+    @Test
+    public void should_reloadGroups_when_entryWasInvalidated() throws EntitlementsException {
+        when(service.getGroups()).thenReturn(createGroups("service.storage.viewer"));
+        DpsHeaders headers = createHeaders("Bearer 1", "tenant1");
+
+        sut.authorize(headers, "service.storage.viewer");
+        sut.invalidate(headers);
+        sut.authorize(headers, "service.storage.viewer");
+
+        verify(service, times(2)).getGroups();
+    }
+
+    @Test
+    public void should_cacheUnauthorizedResponse_when_entitlementsRejectsToken() throws EntitlementsException {
+        HttpResponse response = new HttpResponse();
+        response.setResponseCode(401);
+        when(service.getGroups()).thenThrow(new EntitlementsException("", response));
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                sut.authorize(createHeaders("Bearer bad", "tenant1"), "service.storage.viewer");
+                fail("expected exception");
+            } catch (AppException e) {
+                assertEquals(401, e.getError().getCode());
+            }
+        }
+        verify(service, times(1)).getGroups();
+    }
+
+    @Test
+    public void should_throwForbidden_when_userDoesNotHaveRole() throws EntitlementsException {
+        when(service.getGroups()).thenReturn(createGroups("service.storage.viewer"));
+
+        try {
+            sut.authorize(createHeaders("Bearer 1", "tenant1"), "service.storage.admin");
+            fail("expected exception");
+        } catch (AppException e) {
+            assertEquals(403, e.getError().getCode());
+        }
+    }
+
+    @Test
+    public void should_validateAclDomain_against_userGroups() throws EntitlementsException {
+        when(service.getGroups()).thenReturn(createGroups("service.storage.viewer"));
+        DpsHeaders headers = createHeaders("Bearer 1", "tenant1");
+
+        assertTrue(sut.isValidAcl(headers, new HashSet<>(Arrays.asList("data.a@tenant1.slb.com", "data.b@tenant1.slb.com"))));
+        assertFalse(sut.isValidAcl(headers, new HashSet<>(Collections.singletonList("data.a@other.com"))));
+    }
+
+    @Test
+    public void should_returnCopy_when_callerChangesGroups() throws EntitlementsException {
+        when(service.getGroups()).thenReturn(createGroups("service.storage.viewer"));
+        DpsHeaders headers = createHeaders("Bearer 1", "tenant1");
+
+        Groups first = sut.getGroups(headers);
+        first.setMemberEmail("other@slb.com");
+        first.getGroups().get(0).setName("service.storage.admin");
+        Groups second = sut.getGroups(headers);
+
+        assertNotSame(first, second);
+        assertEquals("user@slb.com", second.getMemberEmail());
+        assertEquals("service.storage.viewer", second.getGroups().get(0).getName());
+        assertEquals("user@slb.com", sut.authorize(headers, "service.storage.viewer"));
+        verify(service, times(1)).getGroups();
+    }
+
+    @Test
+    public void should_callEntitlementsOnce_when_missIsConcurrent() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(service.getGroups()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return createGroups("service.storage.viewer");
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Groups>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> sut.getGroups(createHeaders("Bearer 1", "tenant1"))));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Groups> result : results) {
+                assertEquals("user@slb.com", result.get(5, TimeUnit.SECONDS).getMemberEmail());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(service, times(1)).getGroups();
+    }
+
+    private static DpsHeaders createHeaders(String token, String partition) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(DpsHeaders.AUTHORIZATION, token);
+        headers.put(DpsHeaders.DATA_PARTITION_ID, partition);
+        return DpsHeaders.createFromMap(headers);
+    }
+
+    private static Groups createGroups(String... names) {
+        Groups groups = new Groups();
+        groups.setMemberEmail("user@slb.com");
+        groups.setDesId("user@slb.com");
+        for (String name : names) {
+            GroupInfo group = new GroupInfo();
+            group.setName(name);
+            group.setEmail(name + "@tenant1.slb.com");
+            groups.getGroups().add(group);
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.service.entitlements;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opengroup.osdu.core.common.entitlements.EntitlementsAPIConfig;
+import org.opengroup.osdu.core.common.entitlements.EntitlementsFactory;
+import org.opengroup.osdu.core.common.entitlements.LocalTokenVerifier;
+import org.opengroup.osdu.core.common.model.entitlements.EntitlementsException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+public class LocalTokenVerifierTest {
+
+    private static final String AUDIENCE = "osdu";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private KeyPair keyPair;
+    private File jwks;
+    private LocalTokenVerifier sut;
+
+    @Before
+    public void setup() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        jwks = folder.newFile("jwks.json");
+        writeKeySet("key-1", (RSAPublicKey) keyPair.getPublic());
+        sut = new LocalTokenVerifier(jwks.getAbsolutePath(), AUDIENCE, null, 60000);
+    }
+
+    @Test
+    public void should_returnValid_when_tokenSignedWithKnownKey() {
+        assertEquals(LocalTokenVerifier.Result.VALID, sut.verify("Bearer " + sign("key-1", keyPair, AUDIENCE, 60000)));
+        assertEquals(1, sut.getKeyCount());
+    }
+
+    @Test
+    public void should_returnInvalid_when_tokenExpired() {
+        assertEquals(LocalTokenVerifier.Result.INVALID, sut.verify(sign("key-1", keyPair, AUDIENCE, -60000)));
+    }
+
+    @Test
+    public void should_returnInvalid_when_audienceDoesNotMatch() {
+        assertEquals(LocalTokenVerifier.Result.INVALID, sut.verify(sign("key-1", keyPair, "other", 60000)));
+    }
+
+    @Test
+    public void should_returnInvalid_when_signatureDoesNotMatchKey() throws Exception {
+        KeyPair other = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+
+        assertEquals(LocalTokenVerifier.Result.INVALID, sut.verify(sign("key-1", other, AUDIENCE, 60000)));
+    }
+
+    @Test
+    public void should_returnInvalid_when_tokenIsMissing() {
+        assertEquals(LocalTokenVerifier.Result.INVALID, sut.verify(null));
+        assertEquals(LocalTokenVerifier.Result.INVALID, sut.verify(""));
+    }
+
+    @Test
+    public void should_returnUnknownKey_when_tokenIsNotJwt() {
+        assertEquals(LocalTokenVerifier.Result.UNKNOWN_KEY, sut.verify("Bearer opaque-access-token"));
+    }
+
+    @Test
+    public void should_returnUnknownKey_when_keySetLocationIsMissing() {
+        sut = new LocalTokenVerifier(null, AUDIENCE, null, 60000);
+
+        assertEquals(LocalTokenVerifier.Result.UNKNOWN_KEY, sut.verify(sign("key-1", keyPair, AUDIENCE, 60000)));
+    }
+
+    @Test
+    public void should_returnUnknownKey_when_keyIdNotInKeySet() {
+        assertEquals(LocalTokenVerifier.Result.UNKNOWN_KEY, sut.verify(sign("key-2", keyPair, AUDIENCE, 60000)));
+    }
+
+    @Test
+    public void should_returnUnknownKey_when_keySetCannotBeLoaded() {
+        sut = new LocalTokenVerifier(new File(folder.getRoot(), "missing.json").getAbsolutePath(), AUDIENCE, null, 60000);
+
+        assertEquals(LocalTokenVerifier.Result.UNKNOWN_KEY, sut.verify(sign("key-1", keyPair, AUDIENCE, 60000)));
+    }
+
+    @Test
+    public void should_skipRemoteCall_when_authenticatingLocallyVerifiedToken() throws EntitlementsException {
+        EntitlementsAPIConfig config = EntitlementsAPIConfig.builder().rootUrl("http://localhost:1").tokenVerifier(sut).build();
+        Map<String, String> headers = new HashMap<>();
+        headers.put(DpsHeaders.AUTHORIZATION, "Bearer " + sign("key-1", keyPair, AUDIENCE, 60000));
+
+        new EntitlementsFactory(config).create(DpsHeaders.createFromMap(headers)).authenticate();
+    }
+
+    @Test
+    public void should_callRemoteValidation_when_authenticatingOpaqueToken() {
+        EntitlementsAPIConfig config = EntitlementsAPIConfig.builder().rootUrl("http://localhost:1").tokenVerifier(sut).build();
+        Map<String, String> headers = new HashMap<>();
+        headers.put(DpsHeaders.AUTHORIZATION, "Bearer opaque-access-token");
+
+        try {
+            new EntitlementsFactory(config).create(DpsHeaders.createFromMap(headers)).authenticate();
+            fail("expected exception");
+        } catch (EntitlementsException e) {
+            assertNotEquals("Token failed local verification", e.getMessage());
+        }
+    }
+
+    @Test
+    public void should_throwUnauthorized_when_authenticatingExpiredToken() {
+        EntitlementsAPIConfig config = EntitlementsAPIConfig.builder().rootUrl("http://localhost:1").tokenVerifier(sut).build();
+        Map<String, String> headers = new HashMap<>();
+        headers.put(DpsHeaders.AUTHORIZATION, "Bearer " + sign("key-1", keyPair, AUDIENCE, -60000));
+
+        try {
+            new EntitlementsFactory(config).create(DpsHeaders.createFromMap(headers)).authenticate();
+            fail("expected exception");
+        } catch (EntitlementsException e) {
+            assertEquals(401, e.getHttpResponse().getResponseCode());
+        }
+    }
+
+    private void writeKeySet(String keyId, RSAPublicKey key) throws Exception {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String json = String.format("{\"keys\":[{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS256\",\"kid\":\"%s\",\"n\":\"%s\",\"e\":\"%s\"}]}",
+                keyId,
+                encoder.encodeToString(key.getModulus().toByteArray()),
+                encoder.encodeToString(key.getPublicExponent().toByteArray()));
+        Files.write(jwks.toPath(), json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sign(String keyId, KeyPair keys, String audience, long expiresInMillis) {
+        Algorithm algorithm = Algorithm.RSA256((RSAPublicKey) keys.getPublic(), (RSAPrivateKey) keys.getPrivate());
+        return JWT.create()
+                .withKeyId(keyId)
+                .withAudience(audience)
+                .withExpiresAt(new Date(System.currentTimeMillis() + expiresInMillis))
+                .sign(algorithm);
+    }
+}
@@ -26,13 +26,24 @@ import org.opengroup.osdu.core.common.model.http.DpsHeaders;
 import org.opengroup.osdu.core.common.model.storage.MessageContent;
 import org.opengroup.osdu.core.common.model.legal.jobs.ComplianceMessagePushReceiver;
 import org.opengroup.osdu.core.common.model.legal.jobs.ILegalComplianceChangeService;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalComplianceChangeProcessor;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChangedCollection;
 import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagConsistencyValidator;
 import org.opengroup.osdu.core.common.http.RequestBodyExtractor;
+import org.opengroup.osdu.core.common.legal.LegalAPIConfig;
+import org.opengroup.osdu.core.common.legal.LegalTagValidityCache;
+import org.springframework.beans.factory.ObjectProvider;
 
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
 @RunWith(MockitoJUnitRunner.class)
 public class ComplianceMessagePushReceiverTest {
     private final String DATA_ENCODED = "eyJzdGF0dXNDaGFuZ2VkVGFncyI6W3siY2hhbmdlZFRhZ05hbWUiOiJiaWdvaWwtbGVnYWx0YWdzdGF0dXMtam9iIiwiY2hhbmdlZFRhZ1N0YXR1cyI6ImluY29tcGxpYW50In1dfQ";
@@ -52,6 +63,15 @@ public class ComplianceMessagePushReceiverTest {
     @Mock
     private ILegalComplianceChangeService legalComplianceChangeService;
 
+    @Mock
+    private ObjectProvider<LegalAPIConfig> legalAPIConfig;
+
+    @Mock
+    private ObjectProvider<LegalTagValidityCache> legalTagValidityCache;
+
+    @Mock
+    private ObjectProvider<LegalComplianceChangeProcessor> legalComplianceChangeProcessor;
+
     @Test
     public void shouldThrowException_whenNoAccountIDInRequest() {
         MessageContent messageContent = new MessageContent();
@@ -65,4 +85,18 @@ public class ComplianceMessagePushReceiverTest {
 
         this.sut.receiveMessageFromHttpRequest();
     }
+
+    @Test
+    public void should_useProcessor_when_processorIsEnabled() {
+        LegalComplianceChangeProcessor processor = mock(LegalComplianceChangeProcessor.class);
+        when(processor.isEnabled()).thenReturn(true);
+        when(this.legalComplianceChangeProcessor.getIfAvailable()).thenReturn(processor);
+        LegalTagChangedCollection validDto = new LegalTagChangedCollection();
+        when(this.legalTagConsistencyValidator.checkLegalTagStatusWithLegalService(any())).thenReturn(validDto);
+
+        this.sut.receiveMessageFromHttpRequest();
+
+        verify(processor).process(validDto, this.dpsHeaders);
+        verify(this.legalComplianceChangeService, never()).updateComplianceOnRecords(any(), any());
+    }
 }
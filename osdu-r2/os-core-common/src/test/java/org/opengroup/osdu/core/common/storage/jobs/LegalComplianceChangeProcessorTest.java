@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.storage.jobs;
+
+import org.junit.Test;
+import org.opengroup.osdu.core.common.model.http.AppException;
+import org.opengroup.osdu.core.common.model.http.DpsHeaders;
+import org.opengroup.osdu.core.common.model.legal.jobs.ComplianceChangePage;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalComplianceChangeProcessor;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChanged;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChangedCollection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LegalComplianceChangeProcessorTest {
+
+    private static final int PAGES = 3;
+
+    @Test
+    public void should_pageThroughEveryTag_when_processingChanges() {
+        List<String> cursors = Collections.synchronizedList(new ArrayList<>());
+        LegalComplianceChangeProcessor sut = new LegalComplianceChangeProcessor((change, cursor, limit, headers) -> {
+            cursors.add(change.getChangedTagName() + ":" + cursor);
+            return nextPage(cursor, limit);
+        }, null, 100, 2);
+
+        Map<String, Long> result = sut.process(changes("tag1", "tag2", "tag1"), headers());
+
+        assertEquals(2, result.size());
+        assertEquals(Long.valueOf(300), result.get("tag1"));
+        assertEquals(Long.valueOf(300), result.get("tag2"));
+        assertEquals(6, cursors.size());
+        sut.close();
+    }
+
+    @Test
+    public void should_resumeFromCheckpoint_when_previousAttemptFailed() {
+        AtomicBoolean failOnce = new AtomicBoolean(true);
+        List<String> cursors = Collections.synchronizedList(new ArrayList<>());
+        LegalComplianceChangeProcessor sut = new LegalComplianceChangeProcessor((change, cursor, limit, headers) -> {
+            cursors.add(cursor);
+            if ("2".equals(cursor) && failOnce.getAndSet(false)) {
+                throw new AppException(500, "error", "datastore unavailable");
+            }
+            return nextPage(cursor, limit);
+        }, null, 100, 1);
+
+        try {
+            sut.process(changes("tag1"), headers());
+            fail("expected exception");
+        } catch (AppException e) {
+            assertEquals(500, e.getError().getCode());
+        }
+        Map<String, Long> result = sut.process(changes("tag1"), headers());
+
+        assertEquals(Long.valueOf(100), result.get("tag1"));
+        assertEquals("2", cursors.get(3));
+        assertEquals(4, cursors.size());
+        sut.close();
+    }
+
+    @Test
+    public void should_boundConcurrentTags_when_processingManyChanges() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        LegalComplianceChangeProcessor sut = new LegalComplianceChangeProcessor((change, cursor, limit, headers) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return new ComplianceChangePage(1, null);
+        }, null, 100, 2);
+
+        Map<String, Long> result = sut.process(changes("t1", "t2", "t3", "t4", "t5", "t6"), headers());
+
+        assertEquals(6, result.size());
+        assertTrue(maxRunning.get() <= 2);
+        sut.close();
+    }
+
+    private static ComplianceChangePage nextPage(String cursor, int limit) {
+        int page = cursor == null ? 1 : Integer.parseInt(cursor) + 1;
+        return new ComplianceChangePage(limit, page < PAGES ? String.valueOf(page) : null);
+    }
+
+    private static LegalTagChangedCollection changes(String... names) {
+        LegalTagChangedCollection output = new LegalTagChangedCollection();
+        for (String name : names) {
+            LegalTagChanged change = new LegalTagChanged();
+            change.setChangedTagName(name);
+            change.setChangedTagStatus("incompliant");
+            output.getStatusChangedTags().add(change);
+        }
+        return output;
+    }
+
+    private static DpsHeaders headers() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(DpsHeaders.DATA_PARTITION_ID, "tenant1");
+        return DpsHeaders.createFromMap(headers);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 Google LLC
+ * Copyright 2017-2019, Schlumberger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opengroup.osdu.core.common.storage.jobs;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opengroup.osdu.core.common.legal.ILegalService;
+import org.opengroup.osdu.core.common.logging.JaxRsDpsLog;
+import org.opengroup.osdu.core.common.model.legal.InvalidTagWithReason;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChanged;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagChangedCollection;
+import org.opengroup.osdu.core.common.model.legal.jobs.LegalTagConsistencyValidator;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LegalTagConsistencyValidatorTest {
+
+    @Mock
+    private ILegalService legalService;
+
+    @Mock
+    private JaxRsDpsLog logger;
+
+    @InjectMocks
+    private LegalTagConsistencyValidator sut;
+
+    @Test
+    public void should_removeEveryInconsistentTag_when_theyAreAdjacent() {
+        InvalidTagWithReason invalidTag = new InvalidTagWithReason();
+        invalidTag.setName("tag3");
+        when(legalService.getInvalidLegalTags(any())).thenReturn(new InvalidTagWithReason[]{invalidTag});
+        LegalTagChangedCollection dto = new LegalTagChangedCollection();
+        dto.getStatusChangedTags().add(change("tag1", "incompliant"));
+        dto.getStatusChangedTags().add(change("tag2", "incompliant"));
+        dto.getStatusChangedTags().add(change("tag3", "incompliant"));
+        dto.getStatusChangedTags().add(change("tag3", "compliant"));
+        dto.getStatusChangedTags().add(change("tag4", "compliant"));
+
+        List<LegalTagChanged> result = sut.checkLegalTagStatusWithLegalService(dto).getStatusChangedTags();
+
+        assertEquals(2, result.size());
+        assertEquals("tag3", result.get(0).getChangedTagName());
+        assertEquals("incompliant", result.get(0).getChangedTagStatus());
+        assertEquals("tag4", result.get(1).getChangedTagName());
+        assertEquals(5, dto.getStatusChangedTags().size());
+    }
+
+    private static LegalTagChanged change(String name, String status) {
+        LegalTagChanged output = new LegalTagChanged();
+        output.setChangedTagName(name);
+        output.setChangedTagStatus(status);
+        return output;
+    }
+}